@@ -1,6 +1,13 @@
 package ArbolBinario;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementación de un árbol binario de busqueda para enteros positivos consecutivos.
@@ -18,10 +25,18 @@ public class ABEnterosPositivos implements ArbolBinario {
 		private int valor;
 		private Nodo izquierdo, derecho;
 
+		/**
+		 * Altura y número de valores del subárbol cuya raíz es este nodo. Se actualizan en el camino de cada
+		 * inserción y eliminación.
+		 */
+		private int altura, tamano;
+
 		private Nodo(int valor) {
 			this.valor = valor;
 			izquierdo = null;
 			derecho = null;
+			altura = 1;
+			tamano = 1;
 		}
 	}
 
@@ -30,6 +45,17 @@ public class ABEnterosPositivos implements ArbolBinario {
 	 */
 	private Nodo raiz;
 
+	/**
+	 * Valores mínimo y máximo del árbol. Sólo son válidos si el árbol no está vacío.
+	 */
+	private int minimo, maximo;
+
+	/**
+	 * Camino desde la raíz hasta el nodo que se inserta o elimina, que se reutiliza entre operaciones. Se crea la
+	 * primera vez que se baja de la raíz.
+	 */
+	private Nodo[] camino;
+
 	public ABEnterosPositivos() {
 		raiz = null;
 	}
@@ -43,10 +69,49 @@ public class ABEnterosPositivos implements ArbolBinario {
 
 		if (raiz == null) {
 			raiz = new Nodo(valor);
+			minimo = valor;
+			maximo = valor;
 			return;
 		}
 
-		insertarRecursivamente(raiz, valor);
+		// Se baja hasta el lugar del valor guardando el camino, sin recursión para no desbordar la pila en
+		// árboles degenerados
+		int largo = 0;
+		Nodo nodo = raiz;
+
+		while (true) {
+
+			largo = apilarEnCamino(nodo, largo);
+
+			if (valor < nodo.valor) {
+
+				if (nodo.izquierdo == null) {
+					nodo.izquierdo = new Nodo(valor);
+					break;
+				}
+
+				nodo = nodo.izquierdo;
+
+			} else if (valor > nodo.valor) {
+
+				if (nodo.derecho == null) {
+					nodo.derecho = new Nodo(valor);
+					break;
+				}
+
+				nodo = nodo.derecho;
+
+			} else {
+				// El valor ya estaba en el árbol
+				vaciarCamino(largo);
+				return;
+			}
+		}
+
+		actualizarCamino(largo);
+
+		minimo = Math.min(minimo, valor);
+		maximo = Math.max(maximo, valor);
 	}
 
 	/**
@@ -62,153 +127,439 @@ public class ABEnterosPositivos implements ArbolBinario {
 	}
 
 	/**
-	 * Recorre el árbol hasta encontrar el lugar donde debe insertarse el valor, y lo
-	 * inserta.
+	 * Busca un valor en el árbol.
 	 * 
-	 * @param nodo:  nodo actual
-	 * @param valor: valor a insertar
+	 * @param valor: valor a buscar
+	 * @return true si el valor se encuentra en el árbol, false en caso contrario
 	 */
-	private void insertarRecursivamente(Nodo nodo, int valor) {
+	public boolean buscar(int valor) {
 
-		if (valor < nodo.valor) {
+		Nodo nodo = raiz;
 
-			if (nodo.izquierdo != null) {
-				insertarRecursivamente(nodo.izquierdo, valor);
-			} else {
-				nodo.izquierdo = new Nodo(valor);
+		while (nodo != null) {
+
+			if (valor == nodo.valor) {
+				return true;
 			}
 
-		} else if (valor > nodo.valor) {
+			nodo = valor < nodo.valor ? nodo.izquierdo : nodo.derecho;
+		}
 
-			if (nodo.derecho != null) {
-				insertarRecursivamente(nodo.derecho, valor);
-			} else {
-				nodo.derecho = new Nodo(valor);
+		return false;
+	}
+	
+	/**
+	 * Elimina un valor del árbol. Si su nodo tiene dos hijos, su valor se reemplaza por el de su sucesor, cuyo
+	 * nodo es el que se quita. La altura y el tamaño se actualizan sólo en los nodos del camino.
+	 * 
+	 * @param valor: valor a eliminar
+	 * @return true si el valor se encontraba en el árbol y fue eliminado, false en caso contrario
+	 */
+	public boolean eliminar(int valor) {
+
+		int largo = 0;
+		Nodo nodo = raiz;
+
+		while (nodo != null && nodo.valor != valor) {
+			largo = apilarEnCamino(nodo, largo);
+			nodo = valor < nodo.valor ? nodo.izquierdo : nodo.derecho;
+		}
+
+		if (nodo == null) {
+			vaciarCamino(largo);
+			return false;
+		}
+
+		if (nodo.izquierdo != null && nodo.derecho != null) {
+
+			// Se busca el sucesor, que no tiene hijo izquierdo, y se quita su nodo en lugar del actual
+			largo = apilarEnCamino(nodo, largo);
+			Nodo sucesor = nodo.derecho;
+
+			while (sucesor.izquierdo != null) {
+				largo = apilarEnCamino(sucesor, largo);
+				sucesor = sucesor.izquierdo;
 			}
+
+			nodo.valor = sucesor.valor;
+			nodo = sucesor;
 		}
+
+		Nodo hijo = nodo.izquierdo != null ? nodo.izquierdo : nodo.derecho;
+
+		if (largo == 0) {
+			raiz = hijo;
+		} else if (camino[largo - 1].izquierdo == nodo) {
+			camino[largo - 1].izquierdo = hijo;
+		} else {
+			camino[largo - 1].derecho = hijo;
+		}
+
+		actualizarCamino(largo);
+
+		if (raiz != null && (valor == minimo || valor == maximo)) {
+			actualizarExtremos();
+		}
+
+		return true;
 	}
 
 	/**
-	 * Busca un valor en el árbol.
+	 * Agrega un nodo al final del camino desde la raíz, haciendo crecer el arreglo si hace falta.
 	 * 
-	 * @param valor: valor a buscar
-	 * @return true si el valor se encuentra en el árbol, false en caso contrario
+	 * @param nodo:  nodo a agregar
+	 * @param largo: número de nodos en el camino
+	 * @return el nuevo número de nodos en el camino.
 	 */
-	public boolean buscar(int valor) {
+	private int apilarEnCamino(Nodo nodo, int largo) {
 
-		if (raiz == null) {
-			return false;
+		if (camino == null || largo == camino.length) {
+			camino = Arrays.copyOf(camino == null ? new Nodo[0] : camino, Math.max(16, 2 * largo));
 		}
 
-		return buscarRecursivamente(raiz, valor);
+		camino[largo] = nodo;
+
+		return largo + 1;
 	}
 
 	/**
-	 * Recorre el árbol hasta encontrar el valor buscado.
+	 * Actualiza la altura y el tamaño de los nodos del camino, del más profundo a la raíz, y vacía el camino.
 	 * 
-	 * @param nodo:  nodo actual
-	 * @param valor: valor a buscar
-	 * @return true si el valor se encuentra en el árbol, false en caso contrario
+	 * @param largo: número de nodos en el camino
 	 */
-	private boolean buscarRecursivamente(Nodo nodo, int valor) {
+	private void actualizarCamino(int largo) {
 
-		if (nodo == null) {
-			return false;
+		for (int i = largo - 1; i >= 0; i--) {
+			actualizar(camino[i]);
+			camino[i] = null;
 		}
+	}
 
-		if (valor == nodo.valor) {
-			return true;
+	/**
+	 * Vacía el camino sin actualizar sus nodos, para no retener nodos eliminados.
+	 * 
+	 * @param largo: número de nodos en el camino
+	 */
+	private void vaciarCamino(int largo) {
+
+		if (largo > 0) {
+			Arrays.fill(camino, 0, largo, null);
+		}
+	}
+
+	/**
+	 * Recalcula la altura y el tamaño de un nodo a partir de los de sus hijos.
+	 * 
+	 * @param nodo: nodo cuyos hijos ya están actualizados
+	 */
+	private static void actualizar(Nodo nodo) {
+		nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.derecho));
+		nodo.tamano = 1 + tamano(nodo.izquierdo) + tamano(nodo.derecho);
+	}
+
+	private static int altura(Nodo nodo) {
+		return nodo == null ? 0 : nodo.altura;
+	}
+
+	private static int tamano(Nodo nodo) {
+		return nodo == null ? 0 : nodo.tamano;
+	}
+
+	/**
+	 * Recorre los extremos izquierdo y derecho del árbol para obtener el mínimo y el máximo.
+	 */
+	private void actualizarExtremos() {
+
+		Nodo nodo = raiz;
+
+		while (nodo.izquierdo != null) {
+			nodo = nodo.izquierdo;
 		}
 
-		if (valor < nodo.valor) {
-			return buscarRecursivamente(nodo.izquierdo, valor);
+		minimo = nodo.valor;
+		nodo = raiz;
+
+		while (nodo.derecho != null) {
+			nodo = nodo.derecho;
 		}
 
-		return buscarRecursivamente(nodo.derecho, valor);
+		maximo = nodo.valor;
 	}
-	
+
+	/**
+	 * Elimina todos los valores del árbol.
+	 */
+	public void vaciar() {
+		raiz = null;
+	}
+
 	/**
-	 * Elimina un valor del árbol.
+	 * Regresa los valores del árbol ordenados de menor a mayor.
 	 * 
-	 * @param valor: valor a eliminar
-	 * @return true si el valor se encontraba en el árbol y fue eliminado, false en caso contrario
+	 * @return un arreglo nuevo con los valores del árbol.
 	 */
-	public boolean eliminar(int valor) {
+	public int[] obtenerValores() {
 
-		if (raiz == null) {
-			return false;
-		}
+		int[] valores = new int[getTamano()];
+		PrimitiveIterator.OfInt iterador = iterador();
 
-		if (raiz.valor == valor) {
-			raiz = null;
-			return true;
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = iterador.nextInt();
 		}
 
-		return eliminarRecursivamente(raiz, valor);
+		return valores;
 	}
 
 	/**
-	 * Recorre el árbol hasta encontrar el valor buscado, y lo elimina.
+	 * Regresa el valor que ocupa una posición entre los valores del árbol ordenados de menor a mayor. Baja desde la
+	 * raíz comparando la posición con el tamaño del subárbol izquierdo, así que toma tiempo proporcional a la altura.
 	 * 
-	 * @param nodo:  nodo actual
-	 * @param valor: valor a eliminar
-	 * @return true si el valor se encontraba en el árbol y fue eliminado, false en caso contrario
+	 * @param posicion: posición del valor, empezando en 0
+	 * @return el valor en esa posición.
+	 * @throws IndexOutOfBoundsException si la posición es negativa o no es menor que el número de valores.
 	 */
-	private boolean eliminarRecursivamente(Nodo nodo, int valor) {
+	public int obtenerValorEnPosicion(int posicion) {
 
-		if (nodo == null) {
-			return false;
+		if (posicion < 0 || posicion >= tamano(raiz)) {
+			throw new IndexOutOfBoundsException("La posición " + posicion + " está fuera del árbol.");
 		}
 
-		if (valor < nodo.valor) {
+		Nodo nodo = raiz;
 
-			if (nodo.izquierdo == null) {
-				return false;
-			}
+		while (true) {
 
-			if (nodo.izquierdo.valor == valor) {
-				nodo.izquierdo = null;
-				return true;
+			int izquierdos = tamano(nodo.izquierdo);
+
+			if (posicion < izquierdos) {
+				nodo = nodo.izquierdo;
+			} else if (posicion == izquierdos) {
+				return nodo.valor;
+			} else {
+				posicion -= izquierdos + 1;
+				nodo = nodo.derecho;
 			}
+		}
+	}
+
+	/**
+	 * Regresa un iterador que recorre los valores de menor a mayor, sin recursión y sin convertirlos en
+	 * objetos. El árbol no debe modificarse mientras se usa el iterador.
+	 * 
+	 * @return un iterador sobre los valores del árbol.
+	 */
+	public PrimitiveIterator.OfInt iterador() {
+		return new Iterador(0);
+	}
+
+	/**
+	 * Regresa un spliterator ordenado sobre los valores del árbol, que puede dividirse para recorrerlo en
+	 * paralelo. El árbol no debe modificarse mientras se usa.
+	 * 
+	 * @return un spliterator sobre los valores del árbol.
+	 */
+	public Spliterator.OfInt spliterator() {
+		return new DivisorEnOrden(0, getTamano());
+	}
 
-			return eliminarRecursivamente(nodo.izquierdo, valor);
+	/**
+	 * Regresa un flujo secuencial con los valores del árbol, de menor a mayor.
+	 * 
+	 * @return un flujo de los valores del árbol.
+	 */
+	public IntStream valores() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+
+	/**
+	 * Regresa un flujo paralelo con los valores del árbol. Los subárboles se reparten entre los hilos.
+	 * 
+	 * @return un flujo paralelo de los valores del árbol.
+	 */
+	public IntStream valoresEnParalelo() {
+		return StreamSupport.intStream(spliterator(), true);
+	}
+
+	/**
+	 * Recorrido en orden con una pila explícita de los nodos cuyo valor falta por visitar.
+	 */
+	private class Iterador implements PrimitiveIterator.OfInt {
+
+		private Nodo[] pila;
+		private int cima;
+
+		/**
+		 * Crea un recorrido que empieza en el valor con la posición indicada en el orden, bajando desde la raíz
+		 * con los tamaños de los subárboles. Se apilan los nodos del camino en los que se bajó por la izquierda,
+		 * que son los que faltan por visitar después del valor inicial.
+		 * 
+		 * @param primero: posición del primer valor, desde 0
+		 */
+		private Iterador(int primero) {
+
+			pila = new Nodo[Math.max(getProfundidad(), 1)];
+			cima = 0;
+
+			Nodo nodo = raiz;
+
+			while (nodo != null) {
+
+				int izquierdos = tamano(nodo.izquierdo);
+
+				if (primero < izquierdos) {
+					pila[cima++] = nodo;
+					nodo = nodo.izquierdo;
+				} else if (primero == izquierdos) {
+					pila[cima++] = nodo;
+					return;
+				} else {
+					primero -= izquierdos + 1;
+					nodo = nodo.derecho;
+				}
+			}
 		}
 
-		if (nodo.derecho == null) {
-			return false;
+		/**
+		 * Apila el nodo y todos sus descendientes por la izquierda.
+		 * 
+		 * @param nodo: nodo inicial
+		 */
+		private void apilarIzquierdos(Nodo nodo) {
+
+			while (nodo != null) {
+
+				if (cima == pila.length) {
+					pila = Arrays.copyOf(pila, pila.length * 2);
+				}
+
+				pila[cima++] = nodo;
+				nodo = nodo.izquierdo;
+			}
 		}
 
-		if (nodo.derecho.valor == valor) {
-			nodo.derecho = null;
-			return true;
+		@Override
+		public boolean hasNext() {
+			return cima > 0;
 		}
 
-		return eliminarRecursivamente(nodo.derecho, valor);
+		@Override
+		public int nextInt() {
+
+			if (cima == 0) {
+				throw new NoSuchElementException();
+			}
+
+			Nodo nodo = pila[--cima];
+			pila[cima] = null;
+			apilarIzquierdos(nodo.derecho);
+
+			return nodo.valor;
+		}
 	}
 
 	/**
-	 * Regresa un valor aleatorio que se encuentre en el árbol.
+	 * Spliterator que recorre los valores con posiciones de <code>primero</code> a
+	 * <code>primero + restantes - 1</code> en el orden del árbol.
 	 * 
-	 * @return un número aleatorio que se encuentre en el árbol.
+	 * <p>
+	 * Al dividirlo, la primera parte se queda con la primera mitad de las posiciones y esta parte con el resto,
+	 * por lo que ambas partes quedan del mismo tamaño sin importar la forma del árbol, y la división no recorre
+	 * nodos. Cada parte baja hasta su primer valor con los tamaños de los subárboles cuando empieza a recorrerse.
+	 * </p>
 	 */
-	public int obtenerValorAleatorio() {
+	private class DivisorEnOrden implements Spliterator.OfInt {
+
+		private int primero;
+		private int restantes;
 
-		Random generador = new Random();
-		int valorMaximo = getValorMaximo();
-		int valorAleatorio = generador.nextInt(valorMaximo + 1);
+		/**
+		 * Recorrido a partir de <code>primero</code>, que se crea al consumir el primer valor.
+		 */
+		private Iterador iterador;
 
-		while (!buscar(valorAleatorio)) {
-			valorAleatorio = generador.nextInt(valorMaximo + 1);
+		private DivisorEnOrden(int primero, int restantes) {
+			this.primero = primero;
+			this.restantes = restantes;
 		}
 
-		return valorAleatorio;
-		
+		@Override
+		public OfInt trySplit() {
+
+			if (restantes < 2) {
+				return null;
+			}
+
+			int mitad = restantes >>> 1;
+
+			DivisorEnOrden prefijo = new DivisorEnOrden(primero, mitad);
+
+			primero += mitad;
+			restantes -= mitad;
+
+			// Si ya había empezado el recorrido, se reanuda desde la nueva primera posición
+			iterador = null;
+
+			return prefijo;
+		}
+
+		@Override
+		public boolean tryAdvance(IntConsumer accion) {
+
+			if (restantes == 0) {
+				return false;
+			}
+
+			if (iterador == null) {
+				iterador = new Iterador(primero);
+			}
+
+			primero++;
+			restantes--;
+			accion.accept(iterador.nextInt());
+
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(IntConsumer accion) {
+
+			if (restantes == 0) {
+				return;
+			}
+
+			if (iterador == null) {
+				iterador = new Iterador(primero);
+			}
+
+			int cantidad = restantes;
+
+			primero += cantidad;
+			restantes = 0;
+
+			for (int i = 0; i < cantidad; i++) {
+				accion.accept(iterador.nextInt());
+			}
+		}
+
+		@Override
+		public long estimateSize() {
+			return restantes;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | DISTINCT | SORTED | NONNULL | SIZED | SUBSIZED;
+		}
+
+		@Override
+		public Comparator<? super Integer> getComparator() {
+			return null;
+		}
 	}
 
 	/**
 	 * Regresa el valor máximo que se encuentra en el árbol.
 	 * 
-	 * @return el valor máximo que se encuentra en el árbol.
+	 * @return el valor máximo que se encuentra en el árbol, o -1 si está vacío.
 	 */
 	public int getValorMaximo() {
 
@@ -216,22 +567,39 @@ public class ABEnterosPositivos implements ArbolBinario {
 			return -1;
 		}
 
-		return getValorMaximoRecursivo(raiz);
+		return maximo;
 	}
 
 	/**
-	 * Recorre el árbol hasta encontrar el valor máximo.
+	 * Regresa el valor mínimo que se encuentra en el árbol.
 	 * 
-	 * @param nodo: nodo actual
-	 * @return el valor máximo que se encuentra en el árbol.
+	 * @return el valor mínimo que se encuentra en el árbol, o -1 si está vacío.
 	 */
-	private int getValorMaximoRecursivo(Nodo nodo) {
+	public int getValorMinimo() {
 
-		if (nodo.derecho == null) {
-			return nodo.valor;
+		if (raiz == null) {
+			return -1;
 		}
 
-		return getValorMaximoRecursivo(nodo.derecho);
+		return minimo;
+	}
+
+	/**
+	 * Regresa el número de valores en el árbol.
+	 * 
+	 * @return el número de valores en el árbol.
+	 */
+	public int getTamano() {
+		return tamano(raiz);
+	}
+
+	/**
+	 * Regresa la profundidad del árbol, contando la raíz como nivel 1.
+	 * 
+	 * @return la profundidad del árbol, o 0 si está vacío.
+	 */
+	public int getProfundidad() {
+		return altura(raiz);
 	}
 
 }
\ No newline at end of file
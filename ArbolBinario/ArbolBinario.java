@@ -27,5 +27,66 @@ public interface ArbolBinario {
      * @return true si el valor se encontraba en el árbol y fue eliminado, false en caso contrario
      */
     public boolean eliminar(int valor);
+
+    /**
+     * Inserta varios valores en el árbol.
+     * 
+     * @param valores: valores a insertar
+     */
+    public default void insertar(int... valores) {
+
+        for (int valor : valores) {
+            insertar(valor);
+        }
+    }
+
+    /**
+     * Elimina todos los valores del árbol.
+     */
+    public void vaciar();
+
+    /**
+     * Regresa los valores del árbol ordenados de menor a mayor.
+     * 
+     * @return un arreglo nuevo con los valores del árbol.
+     */
+    public int[] obtenerValores();
+
+    /**
+     * Regresa el valor que ocupa una posición entre los valores del árbol ordenados de menor a mayor, sin copiarlos.
+     * 
+     * @param posicion: posición del valor, empezando en 0
+     * @return el valor en esa posición.
+     * @throws IndexOutOfBoundsException si la posición es negativa o no es menor que el número de valores.
+     */
+    public int obtenerValorEnPosicion(int posicion);
+
+    /**
+     * Regresa el número de valores en el árbol.
+     * 
+     * @return el número de valores en el árbol.
+     */
+    public int getTamano();
+
+    /**
+     * Regresa el valor mínimo que se encuentra en el árbol.
+     * 
+     * @return el valor mínimo que se encuentra en el árbol, o -1 si está vacío.
+     */
+    public int getValorMinimo();
+
+    /**
+     * Regresa el valor máximo que se encuentra en el árbol.
+     * 
+     * @return el valor máximo que se encuentra en el árbol, o -1 si está vacío.
+     */
+    public int getValorMaximo();
+
+    /**
+     * Regresa la profundidad de la estructura, contando la raíz como nivel 1.
+     * 
+     * @return la profundidad, o 0 si está vacía.
+     */
+    public int getProfundidad();
     
 }
@@ -0,0 +1,330 @@
+package ArbolBinario;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import JuegoTablero.Tablero;
+
+/**
+ * Compara el desempeño de {@link ABEnterosPositivos} y {@link ConjuntoAdaptativo} en tres escenarios, y mide el grupo
+ * de números de un {@link Tablero} en un cuarto:
+ *
+ * <ul>
+ * <li> <b>clasico</b>: el grupo de números del juego, con unos cuantos valores consecutivos que se crean, se
+ *      consultan y se desechan muchas veces. </li>
+ * <li> <b>denso</b>: los valores de 0 a n-1, insertados en desorden. </li>
+ * <li> <b>disperso</b>: n valores al azar entre 0 y 2<sup>31</sup>-1. </li>
+ * <li> <b>tablero</b>: el grupo crece de uno en uno hasta n números con mezclas en un tablero, y después se piden
+ *      pares al azar. Aquí la columna de inserciones es el tiempo por número agregado con un turno completo, y la
+ *      de búsquedas el tiempo por par pedido. </li>
+ * </ul>
+ *
+ * <p>
+ * En cada escenario se mide el tiempo por operación de las inserciones, de las búsquedas (la mitad de valores
+ * presentes y la mitad ausentes) y de las eliminaciones, el tiempo por valor de obtener los valores ordenados, y la
+ * memoria que queda ocupada.
+ * Cada medición se repite y se reporta la más rápida, para descartar el calentamiento del compilador.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>ComparativaConjuntos [--tamano n] [--consultas n] [--eliminaciones n] [--repeticiones n]
+ * [--semilla n]</code>. Por defecto, se elimina la cuarta parte de los valores del tamaño por defecto.
+ * </p>
+ */
+public class ComparativaConjuntos {
+
+	private static int tamano = 1 << 20;
+	private static int consultas = 1 << 22;
+	private static int eliminaciones = 1 << 18;
+	private static int repeticiones = 5;
+	private static long semilla = 42;
+
+	/**
+	 * Acumula los resultados de las operaciones medidas, para que el compilador no pueda descartarlas.
+	 */
+	private static volatile long sumidero;
+
+	/**
+	 * Valores del grupo de números en el juego clásico, y veces que se crea el grupo.
+	 */
+	private static final int VALORES_CLASICO = 8;
+	private static final int GRUPOS_CLASICO = 1 << 16;
+
+	public static void main(String[] args) {
+
+		for (int i = 0; i < args.length; i++) {
+
+			String opcion = args[i];
+
+			if (i + 1 >= args.length)
+				throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+
+			String valor = args[++i];
+
+			switch (opcion) {
+				case "--tamano":
+					tamano = Integer.parseInt(valor);
+					break;
+				case "--consultas":
+					consultas = Integer.parseInt(valor);
+					break;
+				case "--eliminaciones":
+					eliminaciones = Integer.parseInt(valor);
+					break;
+				case "--repeticiones":
+					repeticiones = Math.max(1, Integer.parseInt(valor));
+					break;
+				case "--semilla":
+					semilla = Long.parseLong(valor);
+					break;
+				default:
+					throw new IllegalArgumentException("Opción no válida: " + opcion);
+			}
+		}
+
+		System.out.println(String.format("%-9s %-12s %12s %12s %12s %12s %10s %-10s %6s", "escenario", "estructura",
+			"insertar ns", "buscar ns", "valores ns", "eliminar ns", "memoria MB", "forma", "prof."));
+
+		medirClasico("arbol", ABEnterosPositivos::new);
+		medirClasico("adaptativo", ConjuntoAdaptativo::new);
+
+		int[] densos = new int[tamano];
+
+		for (int i = 0; i < tamano; i++) {
+			densos[i] = i;
+		}
+
+		barajar(densos, new SplittableRandom(semilla));
+
+		medir("denso", "arbol", ABEnterosPositivos::new, densos, tamano);
+		medir("denso", "adaptativo", ConjuntoAdaptativo::new, densos, tamano);
+
+		SplittableRandom aleatorio = new SplittableRandom(semilla);
+		int[] dispersos = new int[tamano];
+
+		for (int i = 0; i < tamano; i++) {
+			dispersos[i] = aleatorio.nextInt(Integer.MAX_VALUE);
+		}
+
+		medir("disperso", "arbol", ABEnterosPositivos::new, dispersos, Integer.MAX_VALUE);
+		medir("disperso", "adaptativo", ConjuntoAdaptativo::new, dispersos, Integer.MAX_VALUE);
+
+		medirTablero();
+	}
+
+	/**
+	 * Mide el patrón de uso del grupo de números: se crea con 1 y 2, crece hasta unos cuantos valores
+	 * consecutivos, se consulta tras cada inserción y se obtienen sus valores ordenados.
+	 */
+	private static void medirClasico(String nombre, Supplier<ArbolBinario> fabrica) {
+
+		long mejorInsertar = Long.MAX_VALUE;
+		long mejorBuscar = Long.MAX_VALUE;
+		long mejorValores = Long.MAX_VALUE;
+		long suma = 0;
+		ArbolBinario conjunto = null;
+
+		for (int repeticion = 0; repeticion < repeticiones; repeticion++) {
+
+			long insertar = 0;
+			long buscar = 0;
+			long valores = 0;
+
+			for (int grupo = 0; grupo < GRUPOS_CLASICO; grupo++) {
+
+				long inicio = System.nanoTime();
+				conjunto = fabrica.get();
+				conjunto.insertar(1, 2);
+
+				for (int valor = 3; valor <= VALORES_CLASICO; valor++) {
+					conjunto.insertar(valor);
+				}
+
+				long medio = System.nanoTime();
+
+				for (int valor = 0; valor <= VALORES_CLASICO + 1; valor++) {
+					suma += conjunto.buscar(valor) ? valor : 0;
+				}
+
+				long final1 = System.nanoTime();
+				suma += conjunto.obtenerValores().length;
+				long final2 = System.nanoTime();
+
+				insertar += medio - inicio;
+				buscar += final1 - medio;
+				valores += final2 - final1;
+			}
+
+			mejorInsertar = Math.min(mejorInsertar, insertar);
+			mejorBuscar = Math.min(mejorBuscar, buscar);
+			mejorValores = Math.min(mejorValores, valores);
+		}
+
+		long inserciones = (long) GRUPOS_CLASICO * VALORES_CLASICO;
+		long busquedas = (long) GRUPOS_CLASICO * (VALORES_CLASICO + 2);
+
+		imprimir("clasico", nombre, (double) mejorInsertar / inserciones, (double) mejorBuscar / busquedas,
+			(double) mejorValores / inserciones, Double.NaN, Double.NaN, conjunto, suma);
+	}
+
+	/**
+	 * Mide un conjunto grande: inserta todos los valores, busca valores al azar, obtiene los valores ordenados y
+	 * elimina algunos.
+	 *
+	 * @param valores: valores a insertar, en el orden de inserción
+	 * @param limite: las búsquedas ausentes se toman entre 0 y este valor
+	 */
+	private static void medir(String escenario, String nombre, Supplier<ArbolBinario> fabrica, int[] valores, int limite) {
+
+		long mejorInsertar = Long.MAX_VALUE;
+		long mejorBuscar = Long.MAX_VALUE;
+		long mejorValores = Long.MAX_VALUE;
+		long mejorEliminar = Long.MAX_VALUE;
+		long memoria = 0;
+		long suma = 0;
+		ArbolBinario conjunto = null;
+
+		for (int repeticion = 0; repeticion < repeticiones; repeticion++) {
+
+			conjunto = null;
+			long antes = memoriaOcupada();
+
+			long inicio = System.nanoTime();
+			conjunto = fabrica.get();
+
+			for (int valor : valores) {
+				conjunto.insertar(valor);
+			}
+
+			long insertar = System.nanoTime() - inicio;
+
+			memoria = memoriaOcupada() - antes;
+
+			SplittableRandom aleatorio = new SplittableRandom(semilla + repeticion);
+
+			inicio = System.nanoTime();
+
+			for (int i = 0; i < consultas; i++) {
+				int valor = (i & 1) == 0 ? valores[aleatorio.nextInt(valores.length)] : aleatorio.nextInt(limite);
+				suma += conjunto.buscar(valor) ? 1 : 0;
+			}
+
+			long buscar = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+			suma += conjunto.obtenerValores().length;
+			long obtenerValores = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+
+			for (int i = 0; i < Math.min(eliminaciones, valores.length); i++) {
+				suma += conjunto.eliminar(valores[i]) ? 1 : 0;
+			}
+
+			long eliminar = System.nanoTime() - inicio;
+
+			mejorInsertar = Math.min(mejorInsertar, insertar);
+			mejorBuscar = Math.min(mejorBuscar, buscar);
+			mejorValores = Math.min(mejorValores, obtenerValores);
+			mejorEliminar = Math.min(mejorEliminar, eliminar);
+		}
+
+		imprimir(escenario, nombre, (double) mejorInsertar / valores.length, (double) mejorBuscar / consultas,
+			(double) mejorValores / valores.length, (double) mejorEliminar / Math.max(1, Math.min(eliminaciones, valores.length)),
+			memoria / 1048576.0, conjunto, suma);
+	}
+
+	/**
+	 * Mide el grupo de números a través de un {@link Tablero} de 2x2, con el mismo flujo que una partida: en cada
+	 * turno se coloca junto al número más grande otro igual, que se mezcla y agrega el siguiente número al grupo.
+	 * Con el grupo completo se piden pares, que se eligen por su posición en el grupo sin copiar sus valores.
+	 */
+	private static void medirTablero() {
+
+		long mejorCrecer = Long.MAX_VALUE;
+		long mejorPares = Long.MAX_VALUE;
+		long suma = 0;
+		int[] par = new int[2];
+
+		for (int repeticion = 0; repeticion < repeticiones; repeticion++) {
+
+			Tablero tablero = new Tablero(2, Integer.MAX_VALUE, 2, Tablero.Almacenamiento.COLAS, semilla + repeticion);
+
+			long inicio = System.nanoTime();
+
+			// El grupo empieza con 1 y 2, y las casillas (1, 1) y (2, 1) se turnan el número más grande
+			tablero.insertarNumero(1, 1, 2);
+
+			for (int valor = 2; valor < tamano; valor++) {
+
+				int x = valor % 2 == 0 ? 2 : 1;
+
+				tablero.insertarNumero(x, 1, valor);
+				suma += tablero.revisarConsecutivos(x, 1);
+			}
+
+			long crecer = System.nanoTime() - inicio;
+
+			inicio = System.nanoTime();
+
+			for (int i = 0; i < consultas; i++) {
+				tablero.pedirParAleatorio(par);
+				suma += par[0] + par[1];
+			}
+
+			long pares = System.nanoTime() - inicio;
+
+			mejorCrecer = Math.min(mejorCrecer, crecer);
+			mejorPares = Math.min(mejorPares, pares);
+		}
+
+		// La forma y la profundidad del grupo no se ven desde fuera del tablero
+		imprimir("tablero", "adaptativo", (double) mejorCrecer / Math.max(1, tamano - 2), (double) mejorPares / consultas,
+			Double.NaN, Double.NaN, Double.NaN, "-", "-", suma);
+	}
+
+	private static void imprimir(String escenario, String nombre, double insertar, double buscar, double valores,
+		double eliminar, double memoria, ArbolBinario conjunto, long suma) {
+
+		String forma = conjunto instanceof ConjuntoAdaptativo
+			? ((ConjuntoAdaptativo) conjunto).getRepresentacion().toString().toLowerCase()
+			: "arbol";
+
+		imprimir(escenario, nombre, insertar, buscar, valores, eliminar, memoria, forma,
+			String.valueOf(conjunto.getProfundidad()), suma);
+	}
+
+	private static void imprimir(String escenario, String nombre, double insertar, double buscar, double valores,
+		double eliminar, double memoria, String forma, String profundidad, long suma) {
+
+		sumidero += suma;
+
+		System.out.println(String.format("%-9s %-12s %12.1f %12.1f %12s %12s %10s %-10s %6s", escenario,
+			nombre, insertar, buscar,
+			Double.isNaN(valores) ? "-" : String.format("%.1f", valores),
+			Double.isNaN(eliminar) ? "-" : String.format("%.1f", eliminar),
+			Double.isNaN(memoria) ? "-" : String.format("%.1f", memoria), forma, profundidad));
+	}
+
+	private static long memoriaOcupada() {
+
+		Runtime entorno = Runtime.getRuntime();
+
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+
+		return entorno.totalMemory() - entorno.freeMemory();
+	}
+
+	private static void barajar(int[] valores, SplittableRandom aleatorio) {
+
+		for (int i = valores.length - 1; i > 0; i--) {
+			int j = aleatorio.nextInt(i + 1);
+			int temporal = valores[i];
+			valores[i] = valores[j];
+			valores[j] = temporal;
+		}
+	}
+
+}
@@ -0,0 +1,893 @@
+package ArbolBinario;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de enteros positivos que cambia de representación según cuántos valores tiene y qué tan juntos están.
+ *
+ * <p>
+ * Con pocos valores (hasta {@value #TAMANO_ARREGLO}) se guardan ordenados en un arreglo, que es lo más rápido
+ * y compacto para el grupo de números del juego clásico. Al crecer, si los valores ocupan un rango corto se usa
+ * un mapa de bits, con un bit por cada valor del rango; si están dispersos, un árbol AVL, con un nodo de unos
+ * 32 bytes por valor. El mapa de bits ocupa menos que el árbol mientras el rango no pase de 256 veces el número
+ * de valores, así que se elige cuando el rango es a lo más {@value #BITS_POR_VALOR_PARA_MAPA} veces el número de
+ * valores, y se deja cuando pasa de {@value #BITS_POR_VALOR_MAXIMOS} veces. El margen entre ambos límites evita
+ * cambiar de representación una y otra vez con pocas operaciones.
+ * </p>
+ *
+ * <p>
+ * Las tres representaciones encuentran el valor que ocupa una posición sin copiar los valores: el arreglo lo lee
+ * directamente, el árbol baja por el tamaño de cada subárbol y el mapa de bits baja por un árbol de Fenwick con el
+ * número de valores de cada bloque de {@value #PALABRAS_POR_BLOQUE} palabras, que le agrega un 6% de memoria.
+ * </p>
+ *
+ * <p>
+ * Cada cambio copia todos los valores, por lo que cuesta O(n). Los cambios que son necesarios, porque el arreglo
+ * se llenó o porque un valor queda demasiado lejos del mapa de bits, se hacen en el momento. Los que sólo mejoran
+ * el desempeño, como volver al arreglo o pasar del árbol al mapa de bits, esperan a que desde el último cambio se
+ * hayan hecho al menos tantas operaciones como la mitad de los valores del conjunto, de modo que su costo se
+ * reparte entre ellas. Así, un conjunto que sólo crece cambia cuando su tamaño aumenta a la mitad.
+ * </p>
+ */
+public class ConjuntoAdaptativo implements ArbolBinario {
+
+	/**
+	 * Formas en que puede guardarse el conjunto.
+	 */
+	public enum Representacion {
+		ARREGLO,
+		BITS,
+		ARBOL
+	}
+
+	/**
+	 * Número máximo de valores en el arreglo.
+	 */
+	public static final int TAMANO_ARREGLO = 16;
+
+	/**
+	 * Se pasa al mapa de bits si el rango de valores es a lo más este número de veces el tamaño.
+	 */
+	public static final int BITS_POR_VALOR_PARA_MAPA = 64;
+
+	/**
+	 * Se deja el mapa de bits si el rango de valores es más de este número de veces el tamaño.
+	 */
+	public static final int BITS_POR_VALOR_MAXIMOS = 256;
+
+	/**
+	 * Palabras del mapa de bits que se cuentan juntas en el árbol de Fenwick.
+	 */
+	public static final int PALABRAS_POR_BLOQUE = 8;
+
+	/**
+	 * Implementación de un nodo del árbol AVL. Guardar el tamaño del subárbol no cambia los 32 bytes que ocupa.
+	 */
+	private static class Nodo {
+
+		private int valor;
+		private int altura, tamano;
+		private Nodo izquierdo, derecho;
+
+		private Nodo(int valor) {
+			this.valor = valor;
+			altura = 1;
+			tamano = 1;
+		}
+	}
+
+	private Representacion representacion;
+
+	/**
+	 * Número de valores en el conjunto.
+	 */
+	private int tamano;
+
+	/**
+	 * Valores mínimo y máximo del conjunto. Sólo son válidos si el conjunto no está vacío.
+	 */
+	private int minimo, maximo;
+
+	/**
+	 * Número de cambios de representación desde que se creó el conjunto.
+	 */
+	private long migraciones;
+
+	/**
+	 * Operaciones que modificaron el conjunto desde el último cambio de representación.
+	 */
+	private long operacionesDesdeMigracion;
+
+	/**
+	 * Valores ordenados, cuando la representación es {@link Representacion#ARREGLO}.
+	 */
+	private int[] arreglo;
+
+	/**
+	 * Mapa de bits, cuando la representación es {@link Representacion#BITS}. El valor <code>v</code> está en el
+	 * conjunto si está encendido el bit <code>v - base</code>. La base es múltiplo de 64.
+	 */
+	private long[] palabras;
+	private int base;
+
+	/**
+	 * Árbol de Fenwick, indexado desde 1, con el número de valores de cada bloque de {@value #PALABRAS_POR_BLOQUE}
+	 * palabras del mapa de bits. Sólo existe junto con el mapa.
+	 */
+	private int[] cuentas;
+
+	/**
+	 * Raíz del árbol AVL, cuando la representación es {@link Representacion#ARBOL}.
+	 */
+	private Nodo raiz;
+
+	/**
+	 * Indica si la última inserción o eliminación en el árbol lo modificó.
+	 */
+	private boolean modificado;
+
+	public ConjuntoAdaptativo() {
+		representacion = Representacion.ARREGLO;
+		arreglo = new int[TAMANO_ARREGLO];
+		tamano = 0;
+		migraciones = 0;
+		operacionesDesdeMigracion = 0;
+	}
+
+	/**
+	 * Inserta un valor en el conjunto.
+	 *
+	 * @param valor: valor a insertar
+	 * @throws IllegalArgumentException si el valor es negativo.
+	 */
+	public void insertar(int valor) {
+
+		if (valor < 0) {
+			throw new IllegalArgumentException("El conjunto sólo admite enteros positivos.");
+		}
+
+		boolean insertado;
+
+		switch (representacion) {
+			case ARREGLO:
+				insertado = insertarEnArreglo(valor);
+				break;
+			case BITS:
+				insertado = insertarEnMapa(valor);
+				break;
+			default:
+				modificado = false;
+				raiz = insertarEnArbol(raiz, valor);
+				insertado = modificado;
+				break;
+		}
+
+		if (!insertado) {
+			return;
+		}
+
+		if (tamano == 0) {
+			minimo = valor;
+			maximo = valor;
+		} else {
+			minimo = Math.min(minimo, valor);
+			maximo = Math.max(maximo, valor);
+		}
+
+		tamano++;
+		operacionesDesdeMigracion++;
+
+		revisarRepresentacion();
+	}
+
+	/**
+	 * Busca un valor en el conjunto.
+	 *
+	 * @param valor: valor a buscar
+	 * @return true si el valor se encuentra en el conjunto, false en caso contrario
+	 */
+	public boolean buscar(int valor) {
+
+		if (tamano == 0 || valor < minimo || valor > maximo) {
+			return false;
+		}
+
+		switch (representacion) {
+			case ARREGLO:
+				return Arrays.binarySearch(arreglo, 0, tamano, valor) >= 0;
+			case BITS:
+				return bitEncendido(valor);
+			default:
+				Nodo nodo = raiz;
+
+				while (nodo != null && nodo.valor != valor) {
+					nodo = valor < nodo.valor ? nodo.izquierdo : nodo.derecho;
+				}
+
+				return nodo != null;
+		}
+	}
+
+	/**
+	 * Elimina un valor del conjunto.
+	 *
+	 * @param valor: valor a eliminar
+	 * @return true si el valor se encontraba en el conjunto y fue eliminado, false en caso contrario
+	 */
+	public boolean eliminar(int valor) {
+
+		if (!buscar(valor)) {
+			return false;
+		}
+
+		switch (representacion) {
+			case ARREGLO:
+				int posicion = Arrays.binarySearch(arreglo, 0, tamano, valor);
+				System.arraycopy(arreglo, posicion + 1, arreglo, posicion, tamano - posicion - 1);
+				break;
+			case BITS:
+				int indice = valor - base;
+				palabras[indice >>> 6] &= ~(1L << indice);
+				sumarACuenta(indice, -1);
+				break;
+			default:
+				raiz = eliminarDeArbol(raiz, valor);
+				break;
+		}
+
+		tamano--;
+		operacionesDesdeMigracion++;
+
+		if (tamano == 0) {
+			vaciar();
+			return true;
+		}
+
+		if (valor == minimo || valor == maximo) {
+			actualizarExtremos(valor);
+		}
+
+		revisarRepresentacion();
+
+		return true;
+	}
+
+	/**
+	 * Elimina todos los valores del conjunto, que vuelve a guardarse en un arreglo.
+	 */
+	public void vaciar() {
+		representacion = Representacion.ARREGLO;
+		palabras = null;
+		cuentas = null;
+		raiz = null;
+		tamano = 0;
+		operacionesDesdeMigracion = 0;
+	}
+
+	/**
+	 * Regresa los valores del conjunto ordenados de menor a mayor.
+	 *
+	 * @return un arreglo nuevo con los valores del conjunto.
+	 */
+	public int[] obtenerValores() {
+
+		int[] valores = new int[tamano];
+
+		switch (representacion) {
+			case ARREGLO:
+				System.arraycopy(arreglo, 0, valores, 0, tamano);
+				break;
+			case BITS:
+				int i = 0;
+
+				for (int palabra = 0; palabra < palabras.length; palabra++) {
+
+					long bits = palabras[palabra];
+
+					while (bits != 0) {
+						valores[i++] = base + palabra * 64 + Long.numberOfTrailingZeros(bits);
+						bits &= bits - 1;
+					}
+				}
+				break;
+			default:
+				recorrerEnOrden(valores);
+				break;
+		}
+
+		return valores;
+	}
+
+	/**
+	 * Regresa el valor que ocupa una posición entre los valores del conjunto ordenados de menor a mayor. En el
+	 * árbol y en el mapa de bits toma tiempo logarítmico; el mapa sólo recorre a lo más un bloque de palabras.
+	 *
+	 * @param posicion: posición del valor, empezando en 0
+	 * @return el valor en esa posición.
+	 * @throws IndexOutOfBoundsException si la posición es negativa o no es menor que el número de valores.
+	 */
+	public int obtenerValorEnPosicion(int posicion) {
+
+		if (posicion < 0 || posicion >= tamano) {
+			throw new IndexOutOfBoundsException("La posición " + posicion + " está fuera del conjunto.");
+		}
+
+		switch (representacion) {
+			case ARREGLO:
+				return arreglo[posicion];
+			case BITS:
+				return valorEnMapa(posicion);
+			default:
+				Nodo nodo = raiz;
+
+				while (posicion != tamano(nodo.izquierdo)) {
+
+					if (posicion < tamano(nodo.izquierdo)) {
+						nodo = nodo.izquierdo;
+					} else {
+						posicion -= tamano(nodo.izquierdo) + 1;
+						nodo = nodo.derecho;
+					}
+				}
+
+				return nodo.valor;
+		}
+	}
+
+	/**
+	 * Regresa el número de valores en el conjunto.
+	 *
+	 * @return el número de valores en el conjunto.
+	 */
+	public int getTamano() {
+		return tamano;
+	}
+
+	/**
+	 * Regresa el valor mínimo que se encuentra en el conjunto.
+	 *
+	 * @return el valor mínimo que se encuentra en el conjunto, o -1 si está vacío.
+	 */
+	public int getValorMinimo() {
+		return tamano == 0 ? -1 : minimo;
+	}
+
+	/**
+	 * Regresa el valor máximo que se encuentra en el conjunto.
+	 *
+	 * @return el valor máximo que se encuentra en el conjunto, o -1 si está vacío.
+	 */
+	public int getValorMaximo() {
+		return tamano == 0 ? -1 : maximo;
+	}
+
+	/**
+	 * Regresa la altura del árbol AVL, o 1 si el conjunto no vacío se guarda en un arreglo o un mapa de bits,
+	 * que se consultan sin descender por niveles.
+	 *
+	 * @return la profundidad de la representación actual, o 0 si el conjunto está vacío.
+	 */
+	public int getProfundidad() {
+
+		if (tamano == 0) {
+			return 0;
+		}
+
+		return representacion == Representacion.ARBOL ? raiz.altura : 1;
+	}
+
+	/**
+	 * Regresa la forma en que se guarda el conjunto en este momento.
+	 *
+	 * @return la representación actual.
+	 */
+	public Representacion getRepresentacion() {
+		return representacion;
+	}
+
+	/**
+	 * Regresa el número de veces que el conjunto ha cambiado de representación.
+	 *
+	 * @return el número de cambios de representación desde que se creó el conjunto.
+	 */
+	public long getMigraciones() {
+		return migraciones;
+	}
+
+	/**
+	 * Inserta un valor en el arreglo. Si el arreglo está lleno, pasa al mapa de bits o al árbol y lo inserta ahí.
+	 *
+	 * @param valor: valor a insertar
+	 * @return true si el valor no estaba en el conjunto.
+	 */
+	private boolean insertarEnArreglo(int valor) {
+
+		int posicion = Arrays.binarySearch(arreglo, 0, tamano, valor);
+
+		if (posicion >= 0) {
+			return false;
+		}
+
+		if (tamano == TAMANO_ARREGLO) {
+
+			long rango = (long) Math.max(maximo, valor) - Math.min(minimo, valor) + 1;
+
+			migrar(rango <= (long) BITS_POR_VALOR_PARA_MAPA * (tamano + 1) ? Representacion.BITS : Representacion.ARBOL);
+
+			return representacion == Representacion.BITS ? insertarEnMapa(valor) : insertarEnArbolDesdeMigracion(valor);
+		}
+
+		posicion = -posicion - 1;
+		System.arraycopy(arreglo, posicion, arreglo, posicion + 1, tamano - posicion);
+		arreglo[posicion] = valor;
+
+		return true;
+	}
+
+	/**
+	 * Inserta un valor en el mapa de bits. Si queda fuera del mapa, lo amplía, salvo que el rango resultante
+	 * sea demasiado disperso; en ese caso pasa al árbol y lo inserta ahí.
+	 *
+	 * @param valor: valor a insertar
+	 * @return true si el valor no estaba en el conjunto.
+	 */
+	private boolean insertarEnMapa(int valor) {
+
+		long limite = (long) base + (long) palabras.length * 64;
+
+		if (valor < base || valor >= limite) {
+
+			long rango = (long) Math.max(maximo, valor) - Math.min(minimo, valor) + 1;
+
+			if (rango > (long) BITS_POR_VALOR_MAXIMOS * (tamano + 1)) {
+				migrar(Representacion.ARBOL);
+				return insertarEnArbolDesdeMigracion(valor);
+			}
+
+			ampliarMapa(valor);
+		}
+
+		if (bitEncendido(valor)) {
+			return false;
+		}
+
+		int indice = valor - base;
+		palabras[indice >>> 6] |= 1L << indice;
+		sumarACuenta(indice, 1);
+
+		return true;
+	}
+
+	private boolean insertarEnArbolDesdeMigracion(int valor) {
+		modificado = false;
+		raiz = insertarEnArbol(raiz, valor);
+		return modificado;
+	}
+
+	private boolean bitEncendido(int valor) {
+
+		long indice = (long) valor - base;
+
+		if (indice < 0 || indice >= (long) palabras.length * 64) {
+			return false;
+		}
+
+		return (palabras[(int) (indice >>> 6)] & (1L << indice)) != 0;
+	}
+
+	/**
+	 * Amplía el mapa de bits para que incluya el valor. Al menos duplica su tamaño hacia el lado del valor, para
+	 * que una serie de inserciones crecientes o decrecientes no copie el mapa cada vez.
+	 *
+	 * @param valor: valor que debe quedar dentro del mapa
+	 */
+	private void ampliarMapa(int valor) {
+
+		int nuevaBase = base;
+		long nuevoLimite = (long) base + (long) palabras.length * 64;
+
+		if (valor < base) {
+			nuevaBase = (int) Math.max(0, Math.min(valor & ~63, (long) base - (long) palabras.length * 64));
+		} else {
+			nuevoLimite = Math.max(((long) valor & ~63L) + 64, Math.min(nuevoLimite + (long) palabras.length * 64, 1L << 31));
+		}
+
+		long[] nuevas = new long[(int) ((nuevoLimite - nuevaBase) >>> 6)];
+		System.arraycopy(palabras, 0, nuevas, (base - nuevaBase) >>> 6, palabras.length);
+
+		palabras = nuevas;
+		base = nuevaBase;
+		construirCuentas();
+	}
+
+	/**
+	 * Construye el árbol de Fenwick con los valores de cada bloque del mapa de bits. Cada posición suma su cuenta a
+	 * la siguiente que la cubre, así que toma tiempo lineal en el número de palabras.
+	 */
+	private void construirCuentas() {
+
+		int bloques = (palabras.length + PALABRAS_POR_BLOQUE - 1) / PALABRAS_POR_BLOQUE;
+
+		cuentas = new int[bloques + 1];
+
+		for (int palabra = 0; palabra < palabras.length; palabra++) {
+			cuentas[palabra / PALABRAS_POR_BLOQUE + 1] += Long.bitCount(palabras[palabra]);
+		}
+
+		for (int i = 1; i <= bloques; i++) {
+
+			int siguiente = i + (i & -i);
+
+			if (siguiente <= bloques) {
+				cuentas[siguiente] += cuentas[i];
+			}
+		}
+	}
+
+	/**
+	 * Suma un cambio a la cuenta del bloque que contiene un bit del mapa.
+	 *
+	 * @param indice: posición del bit en el mapa
+	 * @param cambio: 1 si se encendió, -1 si se apagó
+	 */
+	private void sumarACuenta(int indice, int cambio) {
+
+		for (int i = (indice >>> 6) / PALABRAS_POR_BLOQUE + 1; i < cuentas.length; i += i & -i) {
+			cuentas[i] += cambio;
+		}
+	}
+
+	/**
+	 * Busca el valor en una posición del mapa de bits. Baja por el árbol de Fenwick hasta el bloque que lo contiene,
+	 * cuenta los bits de sus palabras hasta dar con la suya y la parte a la mitad hasta dar con el bit.
+	 *
+	 * @param posicion: posición del valor, que debe ser menor que el tamaño
+	 * @return el valor en esa posición.
+	 */
+	private int valorEnMapa(int posicion) {
+
+		int bloque = 0;
+
+		for (int paso = Integer.highestOneBit(cuentas.length - 1); paso > 0; paso >>>= 1) {
+
+			int siguiente = bloque + paso;
+
+			if (siguiente < cuentas.length && cuentas[siguiente] <= posicion) {
+				bloque = siguiente;
+				posicion -= cuentas[siguiente];
+			}
+		}
+
+		int palabra = bloque * PALABRAS_POR_BLOQUE;
+
+		while (posicion >= Long.bitCount(palabras[palabra])) {
+			posicion -= Long.bitCount(palabras[palabra]);
+			palabra++;
+		}
+
+		// Dentro de la palabra se descarta en cada paso la mitad que no contiene el bit
+		long bits = palabras[palabra];
+		int bit = 0;
+
+		for (int ancho = 32; ancho > 0; ancho >>>= 1) {
+
+			int abajo = Long.bitCount(bits & ((1L << ancho) - 1));
+
+			if (posicion >= abajo) {
+				posicion -= abajo;
+				bits >>>= ancho;
+				bit += ancho;
+			}
+		}
+
+		return base + palabra * 64 + bit;
+	}
+
+	/**
+	 * Hace los cambios de representación que no son necesarios pero convienen, si ya se hicieron suficientes
+	 * operaciones desde el último cambio para pagar su costo.
+	 */
+	private void revisarRepresentacion() {
+
+		if (operacionesDesdeMigracion < tamano / 2) {
+			return;
+		}
+
+		long rango = (long) maximo - minimo + 1;
+
+		switch (representacion) {
+			case ARREGLO:
+				break;
+			case BITS:
+				if (tamano <= TAMANO_ARREGLO / 2) {
+					migrar(Representacion.ARREGLO);
+				} else if (rango > (long) BITS_POR_VALOR_MAXIMOS * tamano) {
+					migrar(Representacion.ARBOL);
+				} else if (palabras.length > 2 * ((rango >>> 6) + 2)) {
+					// Tras muchas eliminaciones, el mapa se recorta a los valores que quedan
+					migrar(Representacion.BITS);
+				}
+				break;
+			default:
+				if (tamano <= TAMANO_ARREGLO / 2) {
+					migrar(Representacion.ARREGLO);
+				} else if (rango <= (long) BITS_POR_VALOR_PARA_MAPA * tamano) {
+					migrar(Representacion.BITS);
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Copia los valores del conjunto a otra representación.
+	 *
+	 * @param destino: representación a la que se pasa
+	 */
+	private void migrar(Representacion destino) {
+
+		int[] valores = obtenerValores();
+
+		palabras = null;
+		cuentas = null;
+		raiz = null;
+
+		switch (destino) {
+			case ARREGLO:
+				System.arraycopy(valores, 0, arreglo, 0, valores.length);
+				break;
+			case BITS:
+				base = minimo & ~63;
+				palabras = new long[((maximo - base) >>> 6) + 1];
+
+				for (int valor : valores) {
+					int indice = valor - base;
+					palabras[indice >>> 6] |= 1L << indice;
+				}
+
+				construirCuentas();
+				break;
+			default:
+				raiz = construirArbol(valores, 0, valores.length - 1);
+				break;
+		}
+
+		representacion = destino;
+		migraciones++;
+		operacionesDesdeMigracion = 0;
+	}
+
+	/**
+	 * Construye un árbol balanceado a partir de valores ordenados.
+	 *
+	 * @param valores: valores ordenados de menor a mayor
+	 * @param desde: primera posición del subárbol
+	 * @param hasta: última posición del subárbol
+	 * @return la raíz del subárbol, o null si no tiene valores.
+	 */
+	private static Nodo construirArbol(int[] valores, int desde, int hasta) {
+
+		if (desde > hasta) {
+			return null;
+		}
+
+		int medio = (desde + hasta) >>> 1;
+		Nodo nodo = new Nodo(valores[medio]);
+
+		nodo.izquierdo = construirArbol(valores, desde, medio - 1);
+		nodo.derecho = construirArbol(valores, medio + 1, hasta);
+		actualizarNodo(nodo);
+
+		return nodo;
+	}
+
+	/**
+	 * Recorre el árbol hasta encontrar el lugar donde debe insertarse el valor, lo inserta y balancea los
+	 * nodos del camino.
+	 *
+	 * @param nodo:  nodo actual
+	 * @param valor: valor a insertar
+	 * @return el nodo que queda en lugar del nodo actual.
+	 */
+	private Nodo insertarEnArbol(Nodo nodo, int valor) {
+
+		if (nodo == null) {
+			modificado = true;
+			return new Nodo(valor);
+		}
+
+		if (valor < nodo.valor) {
+			nodo.izquierdo = insertarEnArbol(nodo.izquierdo, valor);
+		} else if (valor > nodo.valor) {
+			nodo.derecho = insertarEnArbol(nodo.derecho, valor);
+		} else {
+			return nodo;
+		}
+
+		return balancear(nodo);
+	}
+
+	/**
+	 * Recorre el árbol hasta encontrar el valor, lo elimina y balancea los nodos del camino. Si el nodo tiene
+	 * dos hijos, su valor se reemplaza por el de su sucesor, que se elimina del subárbol derecho.
+	 *
+	 * @param nodo:  nodo actual
+	 * @param valor: valor a eliminar, que debe estar en el subárbol
+	 * @return el nodo que queda en lugar del nodo actual.
+	 */
+	private Nodo eliminarDeArbol(Nodo nodo, int valor) {
+
+		if (valor < nodo.valor) {
+			nodo.izquierdo = eliminarDeArbol(nodo.izquierdo, valor);
+		} else if (valor > nodo.valor) {
+			nodo.derecho = eliminarDeArbol(nodo.derecho, valor);
+		} else if (nodo.izquierdo == null) {
+			return nodo.derecho;
+		} else if (nodo.derecho == null) {
+			return nodo.izquierdo;
+		} else {
+
+			Nodo sucesor = nodo.derecho;
+
+			while (sucesor.izquierdo != null) {
+				sucesor = sucesor.izquierdo;
+			}
+
+			nodo.valor = sucesor.valor;
+			nodo.derecho = eliminarDeArbol(nodo.derecho, sucesor.valor);
+		}
+
+		return balancear(nodo);
+	}
+
+	private static int altura(Nodo nodo) {
+		return nodo == null ? 0 : nodo.altura;
+	}
+
+	private static int tamano(Nodo nodo) {
+		return nodo == null ? 0 : nodo.tamano;
+	}
+
+	/**
+	 * Recalcula la altura y el tamaño de un nodo a partir de los de sus hijos.
+	 */
+	private static void actualizarNodo(Nodo nodo) {
+		nodo.altura = 1 + Math.max(altura(nodo.izquierdo), altura(nodo.derecho));
+		nodo.tamano = 1 + tamano(nodo.izquierdo) + tamano(nodo.derecho);
+	}
+
+	/**
+	 * Restablece el balance de un nodo cuyos subárboles difieren en altura a lo más por 2.
+	 *
+	 * @param nodo: nodo a balancear
+	 * @return el nodo que queda en lugar del nodo actual.
+	 */
+	private static Nodo balancear(Nodo nodo) {
+
+		actualizarNodo(nodo);
+
+		int balance = altura(nodo.izquierdo) - altura(nodo.derecho);
+
+		if (balance > 1) {
+
+			if (altura(nodo.izquierdo.izquierdo) < altura(nodo.izquierdo.derecho)) {
+				nodo.izquierdo = rotarIzquierda(nodo.izquierdo);
+			}
+
+			return rotarDerecha(nodo);
+		}
+
+		if (balance < -1) {
+
+			if (altura(nodo.derecho.derecho) < altura(nodo.derecho.izquierdo)) {
+				nodo.derecho = rotarDerecha(nodo.derecho);
+			}
+
+			return rotarIzquierda(nodo);
+		}
+
+		return nodo;
+	}
+
+	private static Nodo rotarDerecha(Nodo nodo) {
+
+		Nodo izquierdo = nodo.izquierdo;
+
+		nodo.izquierdo = izquierdo.derecho;
+		izquierdo.derecho = nodo;
+		actualizarNodo(nodo);
+		actualizarNodo(izquierdo);
+
+		return izquierdo;
+	}
+
+	private static Nodo rotarIzquierda(Nodo nodo) {
+
+		Nodo derecho = nodo.derecho;
+
+		nodo.derecho = derecho.izquierdo;
+		derecho.izquierdo = nodo;
+		actualizarNodo(nodo);
+		actualizarNodo(derecho);
+
+		return derecho;
+	}
+
+	/**
+	 * Escribe los valores del árbol de menor a mayor, con una pila explícita del tamaño de su altura.
+	 *
+	 * @param valores: arreglo del tamaño del conjunto
+	 */
+	private void recorrerEnOrden(int[] valores) {
+
+		Nodo[] pila = new Nodo[altura(raiz)];
+		int cima = 0;
+		int i = 0;
+		Nodo nodo = raiz;
+
+		while (nodo != null || cima > 0) {
+
+			while (nodo != null) {
+				pila[cima++] = nodo;
+				nodo = nodo.izquierdo;
+			}
+
+			nodo = pila[--cima];
+			valores[i++] = nodo.valor;
+			nodo = nodo.derecho;
+		}
+	}
+
+	/**
+	 * Busca el nuevo mínimo o máximo después de eliminar uno de ellos.
+	 *
+	 * @param eliminado: valor que se eliminó
+	 */
+	private void actualizarExtremos(int eliminado) {
+
+		switch (representacion) {
+			case ARREGLO:
+				minimo = arreglo[0];
+				maximo = arreglo[tamano - 1];
+				break;
+			case BITS:
+				// El nuevo extremo está del mismo lado que el eliminado, así que se busca a partir de su palabra
+				if (eliminado == minimo) {
+
+					int primera = (minimo - base) >>> 6;
+
+					while (palabras[primera] == 0) {
+						primera++;
+					}
+
+					minimo = base + primera * 64 + Long.numberOfTrailingZeros(palabras[primera]);
+				} else {
+
+					int ultima = (maximo - base) >>> 6;
+
+					while (palabras[ultima] == 0) {
+						ultima--;
+					}
+
+					maximo = base + ultima * 64 + 63 - Long.numberOfLeadingZeros(palabras[ultima]);
+				}
+				break;
+			default:
+				Nodo nodo = raiz;
+
+				while (nodo.izquierdo != null) {
+					nodo = nodo.izquierdo;
+				}
+
+				minimo = nodo.valor;
+				nodo = raiz;
+
+				while (nodo.derecho != null) {
+					nodo = nodo.derecho;
+				}
+
+				maximo = nodo.valor;
+				break;
+		}
+	}
+
+}
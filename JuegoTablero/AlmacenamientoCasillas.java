@@ -0,0 +1,92 @@
+package JuegoTablero;
+
+/**
+ * Representación de las casillas de un tablero cuadrado.
+ *
+ * <p>
+ * Las coordenadas empiezan en 1, como en {@link Tablero}: <code>x</code> es la columna y <code>y</code> la fila.
+ * Una casilla vacía tiene el valor 0.
+ * </p>
+ */
+abstract class AlmacenamientoCasillas {
+
+    protected final int dimension;
+
+    protected AlmacenamientoCasillas(int dimension) {
+        this.dimension = dimension;
+    }
+
+    /**
+     * Obtiene el valor de una casilla.
+     *
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @return Valor de la casilla, o 0 si está vacía.
+     */
+    abstract int obtener(int x, int y);
+
+    /**
+     * Cambia el valor de una casilla.
+     *
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @param valor Nuevo valor, o 0 para vaciarla.
+     */
+    abstract void establecer(int x, int y, int valor);
+
+    /**
+     * Indica si el almacenamiento puede reutilizarse para un tablero con otros parámetros.
+     *
+     * @param dimension Dimensión del nuevo tablero.
+     * @param valorMaximo Valor más grande que se almacenará en una casilla.
+     * @return <code>true</code> si basta con vaciar las casillas para reutilizarlo.
+     */
+    abstract boolean esCompatible(int dimension, int valorMaximo);
+
+    /**
+     * Vacía todas las casillas.
+     */
+    abstract void vaciarTodo();
+
+    /**
+     * Cuenta cuántas casillas seguidas, a partir de la vecina de (x, y) en la dirección dada, tienen el valor indicado.
+     * La casilla (x, y) no se cuenta.
+     *
+     * @param x Coordenada x de la casilla de partida.
+     * @param y Coordenada y de la casilla de partida.
+     * @param dx Paso en x: -1, 0 o 1.
+     * @param dy Paso en y: -1, 0 o 1.
+     * @param valor Valor a buscar. Debe ser distinto de 0.
+     * @return Número de casillas consecutivas con el valor.
+     */
+    int contarIguales(int x, int y, int dx, int dy, int valor) {
+
+        int cuenta = 0;
+
+        x += dx;
+        y += dy;
+
+        while (x >= 1 && x <= dimension && y >= 1 && y <= dimension && obtener(x, y) == valor) {
+            cuenta++;
+            x += dx;
+            y += dy;
+        }
+
+        return cuenta;
+
+    }
+
+    /**
+     * Copia los valores de una fila en un arreglo.
+     *
+     * @param y Coordenada y de la fila.
+     * @param destino Arreglo de al menos <code>dimension</code> elementos.
+     */
+    void copiarFila(int y, int[] destino) {
+
+        for (int x = 1; x <= dimension; x++)
+            destino[x - 1] = obtener(x, y);
+
+    }
+
+}
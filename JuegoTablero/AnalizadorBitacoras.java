@@ -0,0 +1,602 @@
+package JuegoTablero;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Herramienta que reproduce bitácoras de partidas grabadas y calcula estadísticas agregadas.
+ *
+ * <p>
+ * Formato de la bitácora: una inserción por línea, con el formato <code>x,y,valor</code>. Cada dos
+ * inserciones forman un turno, tras el cual se revisan los consecutivos de ambas casillas, como en
+ * {@link App}. Las partidas se separan con una línea vacía.
+ * </p>
+ *
+ * <p>
+ * Los archivos se mapean en memoria por ventanas y se dividen en segmentos que terminan, de
+ * preferencia, en el límite de una partida; cada segmento se procesa en un hilo distinto con sus propias
+ * estadísticas, que se combinan al final. Si no hay un límite de partida cerca del tamaño buscado, el
+ * segmento se corta al final de una línea: la partida en curso la termina el segmento en el que empezó,
+ * leyendo más allá de su final, y el segmento siguiente omite las líneas hasta la primera línea vacía.
+ * La memoria que se usa depende del número de segmentos, no del tamaño de las bitácoras.
+ * Las partidas se reproducen sobre tableros empaquetados.
+ * </p>
+ *
+ * <p>
+ * Se calculan:
+ * <ul>
+ * <li> Mezclas por valor resultante. Una casilla que se mezcla en su fila y en su columna a la vez cuenta
+ *      como dos mezclas. </li>
+ * <li> Turnos promedio para generar cada número por primera vez. </li>
+ * <li> Partidas perdidas y sin terminar, según la proporción de casillas ocupadas al final. </li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Uso: <code>AnalizadorBitacoras [--dimension n] [--maximo n] [--consecutivos n] [--hilos n] [--segmento bytes]
+ * archivo...</code>. Por defecto, los segmentos son de unos 32 MiB.
+ * </p>
+ */
+public class AnalizadorBitacoras {
+
+    /**
+     * Bits del tamaño de las ventanas con que se mapean los archivos (128 MiB).
+     */
+    private static final int BITS_VENTANA = 27;
+
+    /**
+     * Veces el tamaño buscado que puede llegar a medir un segmento mientras se busca el límite de una partida.
+     */
+    private static final int EXTENSION_SEGMENTO = 4;
+
+    private static final int RANGOS_LLENADO = 10;
+
+    private int dimension = 7;
+    private int numeroMaximo = 7;
+    private int consecutivosNecesarios = 3;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private long tamanoSegmento = 32L << 20;
+    private final List<Path> archivos = new ArrayList<Path>();
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+
+        AnalizadorBitacoras analizador = new AnalizadorBitacoras(args);
+        analizador.analizar().imprimir(System.out);
+
+    }
+
+    /**
+     * Constructor de la clase AnalizadorBitacoras.
+     *
+     * @param argumentos Opciones y rutas de las bitácoras.
+     * @throws IllegalArgumentException Si alguna opción no es válida o no se indicó ningún archivo.
+     */
+    public AnalizadorBitacoras(String[] argumentos) {
+
+        for (int i = 0; i < argumentos.length; i++) {
+
+            String argumento = argumentos[i];
+
+            if (!argumento.startsWith("--")) {
+                archivos.add(Paths.get(argumento));
+                continue;
+            }
+
+            if (i + 1 >= argumentos.length)
+                throw new IllegalArgumentException("Falta el valor de la opción " + argumento);
+
+            String valor = argumentos[++i];
+
+            switch (argumento) {
+                case "--dimension":
+                    dimension = Integer.parseInt(valor);
+                    break;
+                case "--maximo":
+                    numeroMaximo = Integer.parseInt(valor);
+                    break;
+                case "--consecutivos":
+                    consecutivosNecesarios = Integer.parseInt(valor);
+                    break;
+                case "--hilos":
+                    hilos = Math.max(1, Integer.parseInt(valor));
+                    break;
+                case "--segmento":
+                    tamanoSegmento = Math.max(1, Math.min(Long.parseLong(valor), Long.MAX_VALUE / EXTENSION_SEGMENTO));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción no válida: " + argumento);
+            }
+        }
+
+        if (archivos.isEmpty())
+            throw new IllegalArgumentException("Se debe indicar al menos un archivo de bitácora.");
+
+        Tablero.validarParametros(dimension, numeroMaximo, consecutivosNecesarios, Tablero.Almacenamiento.EMPAQUETADO);
+
+    }
+
+    /**
+     * Reproduce todas las bitácoras y combina sus estadísticas.
+     *
+     * @return Estadísticas de todas las partidas.
+     */
+    public Estadisticas analizar() throws IOException, InterruptedException, ExecutionException {
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        List<Future<Estadisticas>> resultados = new ArrayList<Future<Estadisticas>>();
+
+        try {
+
+            for (Path archivo : archivos) {
+
+                ArchivoMapeado mapeado;
+
+                try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                    mapeado = new ArchivoMapeado(canal);
+                }
+
+                long inicio = 0;
+                boolean empiezaEnPartida = false;
+
+                while (inicio < mapeado.tamano) {
+
+                    long fin = buscarCorte(mapeado, inicio);
+                    long inicioSegmento = inicio;
+                    boolean continuaPartida = empiezaEnPartida;
+
+                    resultados.add(ejecutor.submit(() -> reproducirSegmento(mapeado, inicioSegmento, fin, continuaPartida)));
+
+                    empiezaEnPartida = cortaPartida(mapeado, fin);
+                    inicio = fin;
+                }
+            }
+
+            Estadisticas total = new Estadisticas(numeroMaximo);
+
+            for (Future<Estadisticas> resultado : resultados)
+                total.combinar(resultado.get());
+
+            return total;
+
+        } finally {
+            ejecutor.shutdown();
+        }
+
+    }
+
+    /**
+     * Busca el final del segmento que empieza en una posición: la primera línea vacía a partir del tamaño buscado
+     * del segmento. Si no la hay antes de {@link #EXTENSION_SEGMENTO} veces ese tamaño, el segmento se corta al
+     * final de la última línea completa, o a mitad de la línea si es más larga que el segmento.
+     *
+     * @return Posición en la que empieza el siguiente segmento, o el tamaño del archivo si no hay más.
+     */
+    private long buscarCorte(ArchivoMapeado archivo, long inicio) {
+
+        long desde = Math.min(inicio + tamanoSegmento, archivo.tamano);
+        long hasta = Math.min(inicio + EXTENSION_SEGMENTO * tamanoSegmento, archivo.tamano);
+        long finUltimaLinea = -1;
+
+        // La línea en curso en la posición inicial empezó antes, y no se toma como vacía
+        boolean lineaVacia = false;
+
+        for (long i = desde; i < hasta; i++) {
+
+            int caracter = archivo.get(i);
+
+            if (caracter == '\n') {
+
+                if (lineaVacia)
+                    return i + 1;
+
+                lineaVacia = true;
+                finUltimaLinea = i + 1;
+
+            } else if (caracter != '\r' && caracter != ' ') {
+                lineaVacia = false;
+            }
+        }
+
+        if (hasta == archivo.tamano)
+            return hasta;
+
+        return finUltimaLinea > 0 ? finUltimaLinea : hasta;
+
+    }
+
+    /**
+     * @return <code>true</code> si el corte queda dentro de una partida, es decir, si la línea que termina en el
+     *         corte no está vacía o si el corte está a mitad de una línea.
+     */
+    private static boolean cortaPartida(ArchivoMapeado archivo, long corte) {
+
+        if (corte == 0 || corte >= archivo.tamano)
+            return false;
+
+        if (archivo.get(corte - 1) != '\n')
+            return true;
+
+        for (long i = corte - 2; i >= 0; i--) {
+
+            int caracter = archivo.get(i);
+
+            if (caracter == '\n')
+                return false;
+
+            if (caracter != '\r' && caracter != ' ')
+                return true;
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Omite las líneas de la partida que el segmento anterior dejó en curso.
+     *
+     * @return Posición de la línea que sigue a la primera línea vacía, o el final del segmento si no la hay.
+     */
+    private static long omitirPartida(ArchivoMapeado archivo, long inicio, long fin) {
+
+        // Si el corte quedó a mitad de una línea, esa línea no está vacía
+        boolean lineaVacia = inicio == 0 || archivo.get(inicio - 1) == '\n';
+
+        for (long i = inicio; i < fin; i++) {
+
+            int caracter = archivo.get(i);
+
+            if (caracter == '\n') {
+
+                if (lineaVacia)
+                    return i + 1;
+
+                lineaVacia = true;
+
+            } else if (caracter != '\r' && caracter != ' ') {
+                lineaVacia = false;
+            }
+        }
+
+        return fin;
+
+    }
+
+    /**
+     * Reproduce todas las partidas que empiezan en un segmento de la bitácora. La última partida se lee
+     * hasta su final, aunque pase del final del segmento.
+     *
+     * @param empiezaEnPartida Si el segmento empieza a mitad de una partida, que se omite.
+     */
+    private Estadisticas reproducirSegmento(ArchivoMapeado archivo, long inicio, long fin, boolean empiezaEnPartida) {
+
+        Estadisticas estadisticas = new Estadisticas(numeroMaximo);
+        Partida partida = null;
+        long limite = archivo.tamano;
+        long posicion = empiezaEnPartida ? omitirPartida(archivo, inicio, fin) : inicio;
+        int[] campos = new int[3];
+
+        while (posicion < fin || partida != null && posicion < limite) {
+
+            // Se lee una línea de la forma x,y,valor
+            int numeroCampos = 0;
+            int valor = 0;
+            boolean hayDigitos = false;
+            boolean lineaValida = true;
+            boolean lineaVacia = true;
+
+            while (posicion < limite) {
+
+                int caracter = archivo.get(posicion++);
+
+                if (caracter == '\n')
+                    break;
+
+                if (caracter == '\r' || caracter == ' ')
+                    continue;
+
+                lineaVacia = false;
+
+                if (caracter >= '0' && caracter <= '9') {
+                    valor = valor * 10 + (caracter - '0');
+                    hayDigitos = true;
+                } else if (caracter == ',' && hayDigitos && numeroCampos < 2) {
+                    campos[numeroCampos++] = valor;
+                    valor = 0;
+                    hayDigitos = false;
+                } else {
+                    lineaValida = false;
+                }
+            }
+
+            if (lineaVacia) {
+
+                if (partida != null) {
+                    partida.terminar(estadisticas);
+                    partida = null;
+                }
+
+                continue;
+            }
+
+            if (partida == null)
+                partida = new Partida();
+
+            if (!lineaValida || !hayDigitos || numeroCampos != 2) {
+                partida.invalidar();
+                continue;
+            }
+
+            campos[2] = valor;
+            partida.insertar(campos[0], campos[1], campos[2], estadisticas);
+        }
+
+        if (partida != null)
+            partida.terminar(estadisticas);
+
+        return estadisticas;
+
+    }
+
+    /**
+     * Archivo mapeado en memoria por ventanas alineadas de 2<sup>{@link #BITS_VENTANA}</sup> bytes, para no pasar
+     * del límite de 2 GiB de {@link MappedByteBuffer}. Cada archivo se mapea una sola vez y todos los segmentos
+     * leen de las mismas ventanas; como sólo se usan lecturas absolutas, se comparten entre hilos sin sincronizar.
+     */
+    private static class ArchivoMapeado {
+
+        private final long tamano;
+        private final MappedByteBuffer[] ventanas;
+
+        private ArchivoMapeado(FileChannel canal) throws IOException {
+
+            tamano = canal.size();
+            ventanas = new MappedByteBuffer[(int) ((tamano + (1L << BITS_VENTANA) - 1) >>> BITS_VENTANA)];
+
+            for (int i = 0; i < ventanas.length; i++) {
+
+                long inicio = (long) i << BITS_VENTANA;
+                ventanas[i] = canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(1L << BITS_VENTANA, tamano - inicio));
+            }
+
+        }
+
+        /**
+         * @return Byte en la posición dada del archivo.
+         */
+        private int get(long posicion) {
+            return ventanas[(int) (posicion >>> BITS_VENTANA)].get((int) (posicion & ((1L << BITS_VENTANA) - 1)));
+        }
+
+    }
+
+    /**
+     * Reproducción de una partida de la bitácora sobre un tablero.
+     */
+    private class Partida {
+
+        private final Tablero tablero;
+        private final int[] coordenadas;
+        private int insercionesEnTurno;
+        private int turnos;
+        private boolean valida;
+
+        /**
+         * Valores que ya se generaron por mezcla en esta partida.
+         */
+        private final boolean[] alcanzados;
+
+        private Partida() {
+            tablero = new Tablero(dimension, numeroMaximo, consecutivosNecesarios, Tablero.Almacenamiento.EMPAQUETADO);
+            coordenadas = new int[4];
+            alcanzados = new boolean[numeroMaximo + 2];
+            valida = true;
+        }
+
+        private void insertar(int x, int y, int numero, Estadisticas estadisticas) {
+
+            if (!valida || tablero.getEstado() != Estado.JUGANDO)
+                return;
+
+            try {
+
+                if (!tablero.insertarNumero(x, y, numero)) {
+                    invalidar();
+                    return;
+                }
+
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                invalidar();
+                return;
+            }
+
+            coordenadas[2 * insercionesEnTurno] = x;
+            coordenadas[2 * insercionesEnTurno + 1] = y;
+            insercionesEnTurno++;
+
+            if (insercionesEnTurno < 2)
+                return;
+
+            insercionesEnTurno = 0;
+            turnos++;
+
+            registrarMezcla(tablero.revisarConsecutivos(coordenadas[0], coordenadas[1]), estadisticas);
+            registrarMezcla(tablero.revisarConsecutivos(coordenadas[2], coordenadas[3]), estadisticas);
+
+        }
+
+        /**
+         * Registra las mezclas de la última revisión de consecutivos. Las dos mezclas de una casilla que se mezcla
+         * en su fila y en su columna producen el mismo valor, así que se suman juntas.
+         */
+        private void registrarMezcla(int valorMezcla, Estadisticas estadisticas) {
+
+            if (valorMezcla <= 0 || valorMezcla >= alcanzados.length)
+                return;
+
+            estadisticas.mezclasPorValor[valorMezcla] += tablero.getMezclasUltimaRevision();
+
+            if (!alcanzados[valorMezcla]) {
+                alcanzados[valorMezcla] = true;
+                estadisticas.partidasQueAlcanzan[valorMezcla]++;
+                estadisticas.turnosParaAlcanzar[valorMezcla] += turnos;
+            }
+
+        }
+
+        private void invalidar() {
+            valida = false;
+        }
+
+        private void terminar(Estadisticas estadisticas) {
+
+            if (!valida) {
+                estadisticas.partidasInvalidas++;
+                return;
+            }
+
+            estadisticas.partidas++;
+            estadisticas.turnos += turnos;
+
+            long casillas = (long) dimension * dimension;
+            int rango = (int) Math.min(RANGOS_LLENADO - 1, tablero.getCasillasOcupadas() * RANGOS_LLENADO / casillas);
+
+            switch (tablero.getEstado()) {
+                case GANADO:
+                    estadisticas.ganadas++;
+                    break;
+                case PERDIDO:
+                    estadisticas.perdidasPorLlenado[rango]++;
+                    break;
+                default:
+                    estadisticas.sinTerminarPorLlenado[rango]++;
+                    break;
+            }
+
+        }
+
+    }
+
+    /**
+     * Estadísticas acumuladas de un conjunto de partidas. Su tamaño sólo depende del número máximo.
+     */
+    public static class Estadisticas {
+
+        private final int numeroMaximo;
+
+        private long partidas;
+        private long partidasInvalidas;
+        private long ganadas;
+        private long turnos;
+
+        private final long[] mezclasPorValor;
+        private final long[] partidasQueAlcanzan;
+        private final long[] turnosParaAlcanzar;
+        private final long[] perdidasPorLlenado;
+        private final long[] sinTerminarPorLlenado;
+
+        private Estadisticas(int numeroMaximo) {
+            this.numeroMaximo = numeroMaximo;
+            mezclasPorValor = new long[numeroMaximo + 2];
+            partidasQueAlcanzan = new long[numeroMaximo + 2];
+            turnosParaAlcanzar = new long[numeroMaximo + 2];
+            perdidasPorLlenado = new long[RANGOS_LLENADO];
+            sinTerminarPorLlenado = new long[RANGOS_LLENADO];
+        }
+
+        private void combinar(Estadisticas otras) {
+
+            partidas += otras.partidas;
+            partidasInvalidas += otras.partidasInvalidas;
+            ganadas += otras.ganadas;
+            turnos += otras.turnos;
+
+            for (int i = 0; i < mezclasPorValor.length; i++) {
+                mezclasPorValor[i] += otras.mezclasPorValor[i];
+                partidasQueAlcanzan[i] += otras.partidasQueAlcanzan[i];
+                turnosParaAlcanzar[i] += otras.turnosParaAlcanzar[i];
+            }
+
+            for (int i = 0; i < RANGOS_LLENADO; i++) {
+                perdidasPorLlenado[i] += otras.perdidasPorLlenado[i];
+                sinTerminarPorLlenado[i] += otras.sinTerminarPorLlenado[i];
+            }
+
+        }
+
+        public long getPartidas() {
+            return partidas;
+        }
+
+        public long getGanadas() {
+            return ganadas;
+        }
+
+        /**
+         * @param valor Valor resultante de la mezcla.
+         * @return Número de mezclas que produjeron el valor.
+         */
+        public long getMezclas(int valor) {
+            return valor >= 0 && valor < mezclasPorValor.length ? mezclasPorValor[valor] : 0;
+        }
+
+        /**
+         * @param valor Valor generado por mezcla.
+         * @return Turnos promedio hasta generar el valor por primera vez, entre las partidas que lo generaron.
+         */
+        public double getTurnosPromedioParaAlcanzar(int valor) {
+
+            if (valor < 0 || valor >= partidasQueAlcanzan.length || partidasQueAlcanzan[valor] == 0)
+                return 0;
+
+            return (double) turnosParaAlcanzar[valor] / partidasQueAlcanzan[valor];
+        }
+
+        public void imprimir(PrintStream salida) {
+
+            salida.println("Partidas: " + partidas);
+            salida.println("Partidas inválidas: " + partidasInvalidas);
+            salida.println("Ganadas: " + ganadas);
+            salida.println(String.format("Turnos por partida: %.2f", partidas == 0 ? 0.0 : (double) turnos / partidas));
+            salida.println();
+
+            salida.println("Valor  Mezclas  Partidas que lo alcanzan  Turnos promedio");
+
+            for (int valor = 2; valor <= numeroMaximo; valor++)
+                salida.println(String.format(
+                    "%5d  %7d  %24d  %15.2f",
+                    valor,
+                    mezclasPorValor[valor],
+                    partidasQueAlcanzan[valor],
+                    getTurnosPromedioParaAlcanzar(valor)
+                ));
+
+            salida.println();
+            salida.println("Casillas ocupadas  Perdidas  Sin terminar");
+
+            for (int i = 0; i < RANGOS_LLENADO; i++)
+                salida.println(String.format(
+                    "%7d%% - %3d%%  %8d  %12d",
+                    i * 100 / RANGOS_LLENADO,
+                    (i + 1) * 100 / RANGOS_LLENADO,
+                    perdidasPorLlenado[i],
+                    sinTerminarPorLlenado[i]
+                ));
+
+        }
+
+    }
+
+}
@@ -1,5 +1,7 @@
 package JuegoTablero;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 import JuegoTablero.Tablero.Estado;
@@ -13,10 +15,17 @@ import JuegoTablero.Tablero.Estado;
  * <li> El grupo de números comienza con los valores de 1 y 2. </li>
  * <li> Las mezclas de números se llevan a cabo después de ingresar el par de números. </li>
  * 
+ * Con la opción <code>--lote</code>, los movimientos se leen de un archivo o de la entrada estándar
+ * y sólo se imprime un resumen de las partidas (ver {@link ModoLote}).
 */
 public class App {
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+
+        if (args.length > 0 && args[0].equals("--lote")) {
+            new ModoLote(Arrays.copyOfRange(args, 1, args.length)).ejecutar();
+            return;
+        }
         
         Tablero tablero = new Tablero(
                                         7,
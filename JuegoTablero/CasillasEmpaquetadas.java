@@ -0,0 +1,191 @@
+package JuegoTablero;
+
+import java.util.Arrays;
+
+/**
+ * Representación de las casillas empaquetadas en un arreglo de <code>long</code>.
+ *
+ * <p>
+ * Cada casilla ocupa 4, 8 o 16 bits, según el valor más grande que deba caber en ella, por lo que
+ * un tablero de 7x7 con números hasta el 7 ocupa 7 palabras de 64 bits. Cada fila empieza en una
+ * palabra nueva, de modo que los tramos horizontales pueden revisarse palabra por palabra: se compara
+ * la palabra contra el valor repetido en todas sus casillas y se cuentan los ceros consecutivos.
+ * </p>
+ */
+class CasillasEmpaquetadas extends AlmacenamientoCasillas {
+
+    private final int bitsPorCasilla;
+    private final int casillasPorPalabra;
+    private final int palabrasPorFila;
+    private final long mascara;
+
+    /**
+     * Palabra con un 1 en el bit menos significativo de cada casilla. Al multiplicarla por un valor,
+     * se obtiene el valor repetido en todas las casillas de la palabra.
+     */
+    private final long unos;
+
+    private final long[] palabras;
+
+    /**
+     * Constructor de la clase CasillasEmpaquetadas.
+     *
+     * @param dimension Dimensión del tablero.
+     * @param valorMaximo Valor más grande que se almacenará en una casilla.
+     * @throws IllegalArgumentException Si el valor máximo no cabe en 16 bits.
+     */
+    CasillasEmpaquetadas(int dimension, int valorMaximo) {
+
+        super(dimension);
+
+        bitsPorCasilla = bitsNecesarios(valorMaximo);
+        casillasPorPalabra = 64 / bitsPorCasilla;
+        palabrasPorFila = (dimension + casillasPorPalabra - 1) / casillasPorPalabra;
+        mascara = (1L << bitsPorCasilla) - 1;
+        unos = Long.divideUnsigned(-1L, mascara);
+
+        palabras = new long[Math.multiplyExact(palabrasPorFila, dimension)];
+
+    }
+
+    /**
+     * Elige el número de bits por casilla en el que cabe el valor máximo.
+     *
+     * @return 4, 8 o 16.
+     * @throws IllegalArgumentException Si el valor no cabe en 16 bits.
+     */
+    static int bitsNecesarios(int valorMaximo) {
+
+        if (valorMaximo < 16)
+            return 4;
+
+        if (valorMaximo < 256)
+            return 8;
+
+        if (valorMaximo < 65536)
+            return 16;
+
+        throw new IllegalArgumentException("El número máximo es demasiado grande para almacenarse empaquetado.");
+    }
+
+    @Override
+    int obtener(int x, int y) {
+
+        int columna = x - 1;
+        long palabra = palabras[(y - 1) * palabrasPorFila + columna / casillasPorPalabra];
+
+        return (int) ((palabra >>> (columna % casillasPorPalabra * bitsPorCasilla)) & mascara);
+    }
+
+    @Override
+    void establecer(int x, int y, int valor) {
+
+        if ((valor & ~mascara) != 0)
+            throw new IllegalArgumentException("El valor no cabe en una casilla empaquetada.");
+
+        int columna = x - 1;
+        int indice = (y - 1) * palabrasPorFila + columna / casillasPorPalabra;
+        int desplazamiento = columna % casillasPorPalabra * bitsPorCasilla;
+
+        palabras[indice] = (palabras[indice] & ~(mascara << desplazamiento)) | ((long) valor << desplazamiento);
+
+    }
+
+    @Override
+    boolean esCompatible(int dimension, int valorMaximo) {
+        return dimension == this.dimension && bitsNecesarios(valorMaximo) == bitsPorCasilla;
+    }
+
+    @Override
+    void vaciarTodo() {
+        Arrays.fill(palabras, 0);
+    }
+
+    @Override
+    int contarIguales(int x, int y, int dx, int dy, int valor) {
+
+        if (dy != 0 || dx == 0)
+            return super.contarIguales(x, y, dx, dy, valor);
+
+        return dx > 0 ? contarIgualesDerecha(x, y, valor) : contarIgualesIzquierda(x, y, valor);
+
+    }
+
+    /**
+     * Cuenta las casillas con el valor a la derecha de (x, y), revisando palabras completas.
+     */
+    private int contarIgualesDerecha(int x, int y, int valor) {
+
+        long patron = unos * valor;
+        int inicioFila = (y - 1) * palabrasPorFila;
+
+        // Columna (desde 0) de la primera casilla a revisar
+        int columna = x;
+        int cuenta = 0;
+
+        while (columna < dimension) {
+
+            int desplazamiento = columna % casillasPorPalabra * bitsPorCasilla;
+
+            // Las casillas iguales al valor quedan en 0; se descartan las que ya se revisaron
+            long diferencia = (palabras[inicioFila + columna / casillasPorPalabra] ^ patron) >>> desplazamiento;
+            int disponibles = casillasPorPalabra - columna % casillasPorPalabra;
+
+            int iguales = diferencia == 0 ? disponibles : Long.numberOfTrailingZeros(diferencia) / bitsPorCasilla;
+
+            if (iguales >= disponibles) {
+                cuenta += disponibles;
+                columna += disponibles;
+                continue;
+            }
+
+            cuenta += iguales;
+            break;
+        }
+
+        // Las casillas de relleno al final de la fila están vacías, por lo que nunca se cuentan
+        return cuenta;
+
+    }
+
+    /**
+     * Cuenta las casillas con el valor a la izquierda de (x, y), revisando palabras completas.
+     */
+    private int contarIgualesIzquierda(int x, int y, int valor) {
+
+        long patron = unos * valor;
+        int inicioFila = (y - 1) * palabrasPorFila;
+
+        // Columna (desde 0) de la primera casilla a revisar
+        int columna = x - 2;
+        int cuenta = 0;
+
+        while (columna >= 0) {
+
+            // Casillas de la palabra que están en la columna o antes de ella
+            int disponibles = columna % casillasPorPalabra + 1;
+            int bitsDescartados = 64 - disponibles * bitsPorCasilla;
+
+            long diferencia = palabras[inicioFila + columna / casillasPorPalabra] ^ patron;
+
+            // Se descartan las casillas posteriores a la columna, dejando la columna en los bits más altos
+            if (bitsDescartados > 0)
+                diferencia <<= bitsDescartados;
+
+            int iguales = diferencia == 0 ? disponibles : Long.numberOfLeadingZeros(diferencia) / bitsPorCasilla;
+
+            if (iguales >= disponibles) {
+                cuenta += disponibles;
+                columna -= disponibles;
+                continue;
+            }
+
+            cuenta += iguales;
+            break;
+        }
+
+        return cuenta;
+
+    }
+
+}
@@ -0,0 +1,144 @@
+package JuegoTablero;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Representación de las casillas como una lista de colas, una por fila, que almacenan objetos de casillas.
+ */
+class CasillasEnColas extends AlmacenamientoCasillas {
+
+    private class Casilla {
+
+        private int valor;
+
+        private Casilla() {
+            valor = 0;
+        }
+
+        private int getValor() {
+            return valor;
+        }
+
+        private void setValor(int valor) {
+            this.valor = valor;
+        }
+
+    }
+
+    /**
+     * Lista de colas que representa el tablero.
+     */
+    private List<Queue<Casilla>> tablero;
+
+    CasillasEnColas(int dimension) {
+
+        super(dimension);
+
+        tablero = new ArrayList<Queue<Casilla>>(dimension);
+
+        for(int i = 0; i < dimension; i++) {
+
+            Queue<Casilla> fila = new ArrayDeque<Casilla>();
+
+            for(int j = 0; j < dimension; j++) {
+                fila.add(new Casilla());
+            }
+
+            tablero.add(fila);
+
+        }
+
+    }
+
+    @Override
+    int obtener(int x, int y) {
+        return getCasilla(x, y).getValor();
+    }
+
+    @Override
+    void establecer(int x, int y, int valor) {
+        getCasilla(x, y).setValor(valor);
+    }
+
+    @Override
+    boolean esCompatible(int dimension, int valorMaximo) {
+        return dimension == this.dimension;
+    }
+
+    @Override
+    void vaciarTodo() {
+
+        for (Queue<Casilla> fila : tablero)
+            for (Casilla casilla : fila)
+                casilla.setValor(0);
+
+    }
+
+    @Override
+    void copiarFila(int y, int[] destino) {
+
+        int i = 0;
+
+        for (Casilla casilla : tablero.get(y - 1))
+            destino[i++] = casilla.getValor();
+
+    }
+
+    /**
+     * Obtiene una casilla.
+     *
+     * <p>
+     * Para obtener la casilla, se navega por el eje vertical (la lista de colas) hasta llegar a la fila
+     * correspondiente, y luego se navega por el eje horizontal (la cola) hasta llegar a la casilla.
+     * </p>
+     *
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @return La casilla.
+    */
+    private Casilla getCasilla(int x, int y) {
+
+        // Se obtiene la columna correspondiente a la coordenada y
+        Queue<Casilla> columna = tablero.get(y - 1);
+
+        // Si la casilla es la primera, se devuelve directamente
+        if (x == 1){
+
+            return columna.peek();
+        }
+        // Si no, se recorre la columna hasta llegar a la casilla
+        else {
+
+            Casilla casillaActual = null;
+            Casilla casillaObjetivo = null;
+            int i = 1;
+
+            // Se recorre toda la columna
+            while(i <= dimension) {
+
+                casillaActual = columna.poll();
+
+                // Si se llega a la casilla, se guarda la referencia
+                if (i == x)
+                    casillaObjetivo = casillaActual;
+
+                // Se agrega la casilla actual al final de la columna
+                columna.add(casillaActual);
+                i++;
+            }
+            /*
+            * Este proceso se repite para todas las casillas, a fin de mantener el orden de la fila.
+            * Para entender mejor el proceso, se puede imaginar que se tiene un montón de papeles,
+            * si vamos tomando el que está encima y lo ponemos abajo, uno tras otro hasta llegar al
+            * primer papel que sacamos, el orden de los papeles se mantiene.
+            */
+
+            return casillaObjetivo;
+        }
+
+    }
+
+}
@@ -0,0 +1,194 @@
+package JuegoTablero;
+
+import java.util.Arrays;
+
+/**
+ * Representación dispersa de las casillas, dividida en bloques cuadrados que se reservan al escribir
+ * en ellos por primera vez.
+ *
+ * <p>
+ * Cada bloque es un {@link CasillasEmpaquetadas} de {@value #LADO_BLOQUE}x{@value #LADO_BLOQUE} casillas, y se
+ * libera cuando las mezclas lo dejan vacío. Al crear el tablero sólo se reserva el índice de filas de bloques,
+ * por lo que la memoria depende de las casillas ocupadas y no de la dimensión: un tablero de 100,000x100,000
+ * casi vacío ocupa unos cuantos kilobytes.
+ * </p>
+ *
+ * <p>
+ * Los tramos de casillas consecutivas se revisan dentro de cada bloque y continúan en el bloque vecino cuando
+ * llegan a su borde.
+ * </p>
+ */
+class CasillasPorBloques extends AlmacenamientoCasillas {
+
+    static final int LADO_BLOQUE = 64;
+
+    private static class Bloque {
+
+        private final CasillasEmpaquetadas casillas;
+        private int ocupadas;
+
+        private Bloque(int valorMaximo) {
+            casillas = new CasillasEmpaquetadas(LADO_BLOQUE, valorMaximo);
+            ocupadas = 0;
+        }
+
+    }
+
+    private final int valorMaximo;
+    private final int bloquesPorLado;
+
+    /**
+     * Filas de bloques. Cada fila se reserva cuando se escribe en alguno de sus bloques, y se libera
+     * cuando todos sus bloques quedan vacíos.
+     */
+    private final Bloque[][] bloques;
+    private final int[] bloquesPorFila;
+
+    CasillasPorBloques(int dimension, int valorMaximo) {
+
+        super(dimension);
+
+        // Se valida desde el inicio que el valor máximo pueda empaquetarse
+        CasillasEmpaquetadas.bitsNecesarios(valorMaximo);
+
+        this.valorMaximo = valorMaximo;
+        bloquesPorLado = (dimension + LADO_BLOQUE - 1) / LADO_BLOQUE;
+        bloques = new Bloque[bloquesPorLado][];
+        bloquesPorFila = new int[bloquesPorLado];
+
+    }
+
+    @Override
+    int obtener(int x, int y) {
+
+        Bloque bloque = buscarBloque(x, y);
+
+        if (bloque == null)
+            return 0;
+
+        return bloque.casillas.obtener(local(x), local(y));
+    }
+
+    @Override
+    void establecer(int x, int y, int valor) {
+
+        int filaBloque = (y - 1) / LADO_BLOQUE;
+        int columnaBloque = (x - 1) / LADO_BLOQUE;
+
+        Bloque[] fila = bloques[filaBloque];
+        Bloque bloque = fila == null ? null : fila[columnaBloque];
+
+        if (bloque == null) {
+
+            // Vaciar una casilla de un bloque que no existe no cambia nada
+            if (valor == 0)
+                return;
+
+            if (fila == null) {
+                fila = new Bloque[bloquesPorLado];
+                bloques[filaBloque] = fila;
+            }
+
+            bloque = new Bloque(valorMaximo);
+            fila[columnaBloque] = bloque;
+            bloquesPorFila[filaBloque]++;
+        }
+
+        int xLocal = local(x);
+        int yLocal = local(y);
+        int valorAnterior = bloque.casillas.obtener(xLocal, yLocal);
+
+        bloque.casillas.establecer(xLocal, yLocal, valor);
+
+        if (valorAnterior == 0 && valor != 0) {
+            bloque.ocupadas++;
+        } else if (valorAnterior != 0 && valor == 0 && --bloque.ocupadas == 0) {
+
+            // El bloque quedó vacío, por lo que se libera
+            fila[columnaBloque] = null;
+
+            if (--bloquesPorFila[filaBloque] == 0)
+                bloques[filaBloque] = null;
+        }
+
+    }
+
+    @Override
+    boolean esCompatible(int dimension, int valorMaximo) {
+        return dimension == this.dimension
+            && CasillasEmpaquetadas.bitsNecesarios(valorMaximo) == CasillasEmpaquetadas.bitsNecesarios(this.valorMaximo);
+    }
+
+    /**
+     * Libera todos los bloques. Sólo se recorre el índice de filas de bloques.
+     */
+    @Override
+    void vaciarTodo() {
+        Arrays.fill(bloques, null);
+        Arrays.fill(bloquesPorFila, 0);
+    }
+
+    @Override
+    int contarIguales(int x, int y, int dx, int dy, int valor) {
+
+        int cuenta = 0;
+
+        while (true) {
+
+            int siguienteX = x + dx;
+            int siguienteY = y + dy;
+
+            if (siguienteX < 1 || siguienteX > dimension || siguienteY < 1 || siguienteY > dimension)
+                break;
+
+            Bloque bloque = buscarBloque(siguienteX, siguienteY);
+
+            if (bloque == null)
+                break;
+
+            int xLocal = local(siguienteX);
+            int yLocal = local(siguienteY);
+
+            if (bloque.casillas.obtener(xLocal, yLocal) != valor)
+                break;
+
+            // Se cuenta el tramo dentro del bloque; si llega al borde, se continúa en el bloque vecino
+            int tramo = 1 + bloque.casillas.contarIguales(xLocal, yLocal, dx, dy, valor);
+
+            cuenta += tramo;
+            x += dx * tramo;
+            y += dy * tramo;
+        }
+
+        return cuenta;
+
+    }
+
+    /**
+     * @return Número de bloques reservados.
+     */
+    int contarBloques() {
+
+        int total = 0;
+
+        for (int cantidad : bloquesPorFila)
+            total += cantidad;
+
+        return total;
+    }
+
+    private Bloque buscarBloque(int x, int y) {
+
+        Bloque[] fila = bloques[(y - 1) / LADO_BLOQUE];
+
+        return fila == null ? null : fila[(x - 1) / LADO_BLOQUE];
+    }
+
+    /**
+     * Convierte una coordenada del tablero en la coordenada dentro de su bloque, empezando en 1.
+     */
+    private static int local(int coordenada) {
+        return (coordenada - 1) % LADO_BLOQUE + 1;
+    }
+
+}
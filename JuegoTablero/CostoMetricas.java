@@ -0,0 +1,193 @@
+package JuegoTablero;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Mide cuánto cuestan las {@link Metricas}: juega las mismas partidas con las métricas desactivadas y activadas, y
+ * compara los movimientos por segundo.
+ *
+ * <p>
+ * Cada ronda juega las mismas partidas con semilla dos veces, una en cada modo, alternando cuál va primero para que
+ * el calentamiento y la recolección de basura no favorezcan a ninguno. Se descartan las rondas de calentamiento y
+ * se reporta la mediana de cada modo, junto con el costo relativo de activarlas.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>CostoMetricas [--partidas n] [--rondas n] [--calentamiento n] [--dimension n] [--maximo n]
+ * [--consecutivos n] [--estrategia nombre]</code>. Por defecto, 2000 partidas por ronda, 10 rondas más 3 de
+ * calentamiento, en un tablero de 7x7 y con la estrategia aleatoria.
+ * </p>
+ */
+public class CostoMetricas {
+
+    private int partidas = 2000;
+    private int rondas = 10;
+    private int calentamiento = 3;
+    private int dimension = 7;
+    private int numeroMaximo = 7;
+    private int consecutivosNecesarios = 3;
+    private EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+
+    /**
+     * Acumula los turnos jugados, para que el compilador no pueda descartar las partidas.
+     */
+    private long turnosTotales;
+
+    public static void main(String[] args) {
+        new CostoMetricas(args).ejecutar();
+    }
+
+    /**
+     * Constructor de la clase CostoMetricas.
+     *
+     * @param argumentos Opciones de línea de comandos.
+     * @throws IllegalArgumentException Si alguna opción no es válida.
+     */
+    public CostoMetricas(String[] argumentos) {
+
+        for (int i = 0; i < argumentos.length; i++) {
+
+            String opcion = argumentos[i];
+
+            if (i + 1 >= argumentos.length)
+                throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+
+            String valor = argumentos[++i];
+
+            switch (opcion) {
+                case "--partidas":
+                    partidas = Integer.parseInt(valor);
+                    break;
+                case "--rondas":
+                    rondas = Math.max(1, Integer.parseInt(valor));
+                    break;
+                case "--calentamiento":
+                    calentamiento = Math.max(0, Integer.parseInt(valor));
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(valor);
+                    break;
+                case "--maximo":
+                    numeroMaximo = Integer.parseInt(valor);
+                    break;
+                case "--consecutivos":
+                    consecutivosNecesarios = Integer.parseInt(valor);
+                    break;
+                case "--estrategia":
+                    estrategia = Estrategias.porNombre(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción no válida: " + opcion);
+            }
+        }
+
+        Tablero.validarParametros(dimension, numeroMaximo, consecutivosNecesarios);
+
+    }
+
+    /**
+     * Juega todas las rondas e imprime el resultado.
+     */
+    public void ejecutar() {
+
+        boolean activasAntes = Metricas.estanActivas();
+        double[] inactivas = new double[rondas];
+        double[] activas = new double[rondas];
+
+        try {
+
+            for (int ronda = -calentamiento; ronda < rondas; ronda++) {
+
+                boolean primeroActivas = (ronda & 1) != 0;
+                double primero = medir(primeroActivas);
+                double segundo = medir(!primeroActivas);
+
+                if (ronda < 0)
+                    continue;
+
+                inactivas[ronda] = primeroActivas ? segundo : primero;
+                activas[ronda] = primeroActivas ? primero : segundo;
+            }
+
+        } finally {
+            if (activasAntes)
+                Metricas.activar();
+            else
+                Metricas.desactivar();
+        }
+
+        double medianaInactivas = mediana(inactivas);
+        double medianaActivas = mediana(activas);
+
+        System.out.println(String.format("Movimientos por segundo sin métricas: %.0f", medianaInactivas));
+        System.out.println(String.format("Movimientos por segundo con métricas: %.0f", medianaActivas));
+        System.out.println(String.format("Costo de las métricas: %.2f%%", 100 * (medianaInactivas / medianaActivas - 1)));
+
+    }
+
+    /**
+     * Juega una ronda de partidas en el modo indicado.
+     *
+     * @return Movimientos (inserciones) por segundo.
+     */
+    private double medir(boolean conMetricas) {
+
+        if (conMetricas)
+            Metricas.activar();
+        else
+            Metricas.desactivar();
+
+        Metricas.reiniciar();
+
+        int[] par = new int[2];
+        int[][] coordenadas = new int[2][2];
+        long movimientos = 0;
+        long inicio = System.nanoTime();
+
+        for (int semilla = 0; semilla < partidas; semilla++) {
+
+            Tablero tablero = new Tablero(dimension, numeroMaximo, consecutivosNecesarios, Tablero.Almacenamiento.COLAS, semilla);
+            RandomGenerator aleatorio = new SplittableRandom(semilla);
+
+            jugar:
+            while (tablero.getEstado() == Estado.JUGANDO) {
+
+                tablero.pedirParAleatorio(par);
+
+                for (int i = 0; i < 2; i++) {
+
+                    // Con la primera inserción se llenó el tablero
+                    if (tablero.getEstado() != Estado.JUGANDO)
+                        break jugar;
+
+                    estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenadas[i]);
+                    tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]);
+                    movimientos++;
+                }
+
+                tablero.revisarConsecutivos(coordenadas[0][0], coordenadas[0][1]);
+                tablero.revisarConsecutivos(coordenadas[1][0], coordenadas[1][1]);
+                turnosTotales++;
+            }
+        }
+
+        return movimientos / ((System.nanoTime() - inicio) / 1e9);
+
+    }
+
+    private static double mediana(double[] valores) {
+
+        double[] ordenados = valores.clone();
+        Arrays.sort(ordenados);
+
+        int mitad = ordenados.length / 2;
+
+        return ordenados.length % 2 == 1 ? ordenados[mitad] : (ordenados[mitad - 1] + ordenados[mitad]) / 2;
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package JuegoTablero;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategia que decide en qué casilla se coloca cada número de un par.
+ *
+ * <p>
+ * Los números se colocan en el mismo orden que en {@link App}: primero el primer número del par y luego el
+ * segundo, y los consecutivos se revisan hasta que ambos están en el tablero. Por eso, al elegir la casilla del
+ * segundo número, el primero ya aparece en el tablero.
+ * </p>
+ *
+ * <p>
+ * Una misma instancia se usa en varias partidas a la vez desde distintos hilos, por lo que no debe guardar
+ * estado de la partida. Si necesita números aleatorios, debe usar el generador que recibe.
+ * </p>
+ */
+public interface EstrategiaColocacion {
+
+    /**
+     * @return Nombre de la estrategia, tal como aparece en los resultados.
+     */
+    public String getNombre();
+
+    /**
+     * Elige una casilla vacía para el número.
+     *
+     * @param tablero Tablero de la partida. No debe modificarse.
+     * @param numero Número que se va a colocar.
+     * @param aleatorio Generador propio de la partida, independiente del que produce los pares.
+     * @param casilla Arreglo de dos elementos donde se escriben las coordenadas x y y de la casilla.
+     */
+    public void elegirCasilla(Tablero tablero, int numero, RandomGenerator aleatorio, int[] casilla);
+
+}
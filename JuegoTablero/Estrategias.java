@@ -0,0 +1,147 @@
+package JuegoTablero;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Estrategias de colocación incluidas con el juego.
+ *
+ * <ul>
+ * <li> <code>primera-libre</code>: la primera casilla vacía, recorriendo por filas. </li>
+ * <li> <code>aleatoria</code>: una casilla vacía cualquiera, con la misma probabilidad para todas. </li>
+ * <li> <code>agrupadora</code>: la casilla vacía con más vecinos consecutivos iguales al número, en su fila
+ *      y su columna; en caso de empate, la primera por filas. </li>
+ * </ul>
+ */
+public final class Estrategias {
+
+    private Estrategias() {
+    }
+
+    /**
+     * Busca una estrategia incluida por su nombre.
+     *
+     * @param nombre Nombre de la estrategia.
+     * @return La estrategia.
+     * @throws IllegalArgumentException Si no hay ninguna estrategia con ese nombre.
+     */
+    public static EstrategiaColocacion porNombre(String nombre) {
+
+        switch (nombre) {
+            case "primera-libre":
+                return new PrimeraLibre();
+            case "aleatoria":
+                return new Aleatoria();
+            case "agrupadora":
+                return new Agrupadora();
+            default:
+                throw new IllegalArgumentException("Estrategia no válida: " + nombre);
+        }
+
+    }
+
+    private static class PrimeraLibre implements EstrategiaColocacion {
+
+        @Override
+        public String getNombre() {
+            return "primera-libre";
+        }
+
+        @Override
+        public void elegirCasilla(Tablero tablero, int numero, RandomGenerator aleatorio, int[] casilla) {
+
+            int dimension = tablero.getDimension();
+
+            for (int y = 1; y <= dimension; y++) {
+                for (int x = 1; x <= dimension; x++) {
+                    if (tablero.obtenerValor(x, y) == 0) {
+                        casilla[0] = x;
+                        casilla[1] = y;
+                        return;
+                    }
+                }
+            }
+
+        }
+
+    }
+
+    private static class Aleatoria implements EstrategiaColocacion {
+
+        @Override
+        public String getNombre() {
+            return "aleatoria";
+        }
+
+        @Override
+        public void elegirCasilla(Tablero tablero, int numero, RandomGenerator aleatorio, int[] casilla) {
+
+            int dimension = tablero.getDimension();
+            int vacias = 0;
+
+            // Se recorre el tablero una vez: la k-ésima casilla vacía reemplaza a la elegida con probabilidad 1/k
+            for (int y = 1; y <= dimension; y++) {
+                for (int x = 1; x <= dimension; x++) {
+                    if (tablero.obtenerValor(x, y) == 0 && aleatorio.nextInt(++vacias) == 0) {
+                        casilla[0] = x;
+                        casilla[1] = y;
+                    }
+                }
+            }
+
+        }
+
+    }
+
+    private static class Agrupadora implements EstrategiaColocacion {
+
+        @Override
+        public String getNombre() {
+            return "agrupadora";
+        }
+
+        @Override
+        public void elegirCasilla(Tablero tablero, int numero, RandomGenerator aleatorio, int[] casilla) {
+
+            int dimension = tablero.getDimension();
+            int mejorPuntaje = -1;
+
+            for (int y = 1; y <= dimension; y++) {
+                for (int x = 1; x <= dimension; x++) {
+
+                    if (tablero.obtenerValor(x, y) != 0)
+                        continue;
+
+                    int puntaje = contarIguales(tablero, x, y, -1, 0, numero) + contarIguales(tablero, x, y, 1, 0, numero)
+                        + contarIguales(tablero, x, y, 0, -1, numero) + contarIguales(tablero, x, y, 0, 1, numero);
+
+                    if (puntaje > mejorPuntaje) {
+                        mejorPuntaje = puntaje;
+                        casilla[0] = x;
+                        casilla[1] = y;
+                    }
+                }
+            }
+
+        }
+
+        private static int contarIguales(Tablero tablero, int x, int y, int dx, int dy, int numero) {
+
+            int dimension = tablero.getDimension();
+            int cuenta = 0;
+
+            x += dx;
+            y += dy;
+
+            while (x >= 1 && x <= dimension && y >= 1 && y <= dimension && tablero.obtenerValor(x, y) == numero) {
+                cuenta++;
+                x += dx;
+                y += dy;
+            }
+
+            return cuenta;
+
+        }
+
+    }
+
+}
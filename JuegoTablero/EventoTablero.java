@@ -0,0 +1,143 @@
+package JuegoTablero;
+
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Cambio ocurrido en un tablero, tal como lo reciben los observadores de {@link Tablero#getEventos()}.
+ *
+ * <p>
+ * Los campos que no aplican a un tipo de evento valen 0, <code>false</code> o <code>null</code>.
+ * </p>
+ */
+public final class EventoTablero {
+
+    public enum Tipo {
+
+        /**
+         * Se colocó un número en la casilla (x, y).
+         */
+        CASILLA_COLOCADA,
+
+        /**
+         * Se mezcló un tramo de casillas: las casillas de <code>inicio</code> a <code>fin</code> sobre la fila
+         * (si es horizontal) o la columna de (x, y) quedaron vacías, y (x, y) quedó con <code>valor</code>.
+         */
+        CASILLAS_MEZCLADAS,
+
+        /**
+         * La casilla (x, y) terminó con <code>valor</code>. Sólo aparece en lotes combinados para observadores
+         * lentos, en lugar de las colocaciones y mezclas que afectaron a la casilla.
+         */
+        CASILLA_ACTUALIZADA,
+
+        /**
+         * Se agregó <code>valor</code> al grupo de números.
+         */
+        NUMERO_AGREGADO,
+
+        /**
+         * El juego cambió al <code>estado</code> indicado.
+         */
+        ESTADO_CAMBIADO,
+
+        /**
+         * El tablero se reinició: todas las casillas quedaron vacías, el grupo volvió a ser 1 y 2, y la
+         * dimensión es <code>valor</code>.
+         */
+        TABLERO_REINICIADO
+    }
+
+    private final Tipo tipo;
+    private final int x;
+    private final int y;
+    private final int valor;
+    private final boolean horizontal;
+    private final int inicio;
+    private final int fin;
+    private final Estado estado;
+
+    private EventoTablero(Tipo tipo, int x, int y, int valor, boolean horizontal, int inicio, int fin, Estado estado) {
+        this.tipo = tipo;
+        this.x = x;
+        this.y = y;
+        this.valor = valor;
+        this.horizontal = horizontal;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.estado = estado;
+    }
+
+    static EventoTablero casillaColocada(int x, int y, int valor) {
+        return new EventoTablero(Tipo.CASILLA_COLOCADA, x, y, valor, false, 0, 0, null);
+    }
+
+    static EventoTablero casillasMezcladas(int x, int y, int valor, boolean horizontal, int inicio, int fin) {
+        return new EventoTablero(Tipo.CASILLAS_MEZCLADAS, x, y, valor, horizontal, inicio, fin, null);
+    }
+
+    static EventoTablero casillaActualizada(int x, int y, int valor) {
+        return new EventoTablero(Tipo.CASILLA_ACTUALIZADA, x, y, valor, false, 0, 0, null);
+    }
+
+    static EventoTablero numeroAgregado(int valor) {
+        return new EventoTablero(Tipo.NUMERO_AGREGADO, 0, 0, valor, false, 0, 0, null);
+    }
+
+    static EventoTablero estadoCambiado(Estado estado) {
+        return new EventoTablero(Tipo.ESTADO_CAMBIADO, 0, 0, 0, false, 0, 0, estado);
+    }
+
+    static EventoTablero tableroReiniciado(int dimension) {
+        return new EventoTablero(Tipo.TABLERO_REINICIADO, 0, 0, dimension, false, 0, 0, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getValor() {
+        return valor;
+    }
+
+    public boolean esHorizontal() {
+        return horizontal;
+    }
+
+    public int getInicio() {
+        return inicio;
+    }
+
+    public int getFin() {
+        return fin;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    @Override
+    public String toString() {
+
+        switch (tipo) {
+            case CASILLA_COLOCADA:
+            case CASILLA_ACTUALIZADA:
+                return tipo + "(" + x + "," + y + ")=" + valor;
+            case CASILLAS_MEZCLADAS:
+                return tipo + "(" + x + "," + y + ")=" + valor + (horizontal ? " x:" : " y:") + inicio + ".." + fin;
+            case ESTADO_CAMBIADO:
+                return tipo + " " + estado;
+            default:
+                return tipo + " " + valor;
+        }
+
+    }
+
+}
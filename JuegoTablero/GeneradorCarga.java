@@ -0,0 +1,447 @@
+package JuegoTablero;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import JuegoTablero.Metricas.Operacion;
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Generador de carga de lazo cerrado para medir cuántos movimientos por segundo puede atender un proceso.
+ *
+ * <p>
+ * Se simulan muchas sesiones de juego a la vez, cada una con su propio tablero. Una sesión juega un turno
+ * (pide un par, coloca ambos números con una {@link EstrategiaColocacion} y revisa los consecutivos), espera
+ * un tiempo de reflexión y juega el siguiente; al terminar una partida empieza otra sobre el mismo tablero.
+ * Las sesiones no tienen un hilo propio: cada turno es una tarea de un {@link ScheduledThreadPoolExecutor},
+ * y la espera se programa en él, por lo que miles de sesiones caben en unos cuantos hilos.
+ * </p>
+ *
+ * <p>
+ * Se mide la latencia de {@link Tablero#pedirParAleatorio(int[])}, {@link Tablero#insertarNumero(int, int, int)}
+ * y {@link Tablero#revisarConsecutivos(int, int)} en histogramas independientes de {@link Metricas}. El tiempo que
+ * tarda la estrategia en elegir la casilla no se cuenta. Cada turno decide al empezar si se mide, de modo que sus
+ * operaciones y el turno mismo se cuentan juntos aunque la medición empiece o termine a la mitad; un turno que
+ * se interrumpe porque el tablero se llenó también cuenta.
+ * </p>
+ *
+ * <p>
+ * Se ejecuta una etapa por cada número de sesiones indicado: primero un calentamiento que no se mide, y luego
+ * la medición. Cada etapa imprime una fila con el rendimiento y los percentiles 50, 99 y 99.9 de cada operación,
+ * de modo que la tabla completa es la curva de rendimiento contra latencia.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>GeneradorCarga [--sesiones n,n,...] [--duracion s] [--calentamiento s] [--pensar ms]
+ * [--pensar-distribucion fija|exponencial] [--estrategia nombre] [--hilos n] [--semilla n] [--dimension n]
+ * [--maximo n] [--consecutivos n] [--almacenamiento forma]</code>. Por defecto, etapas de 1, 10, 100 y 1000
+ * sesiones de 5 segundos, 1 segundo de calentamiento, 1 ms de reflexión fija, la estrategia
+ * <code>aleatoria</code> y un tablero de 7x7.
+ * </p>
+ */
+public class GeneradorCarga {
+
+    private static final Operacion[] OPERACIONES_MEDIDAS = {
+        Operacion.PEDIR_PAR_ALEATORIO, Operacion.INSERTAR_NUMERO, Operacion.REVISAR_CONSECUTIVOS
+    };
+
+    private int[] etapas = { 1, 10, 100, 1000 };
+    private double duracion = 5;
+    private double calentamiento = 1;
+    private double pensarMilis = 1;
+    private boolean pensarExponencial = false;
+    private EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private long semilla = System.nanoTime();
+    private int dimension = 7;
+    private int numeroMaximo = 7;
+    private int consecutivosNecesarios = 3;
+    private Almacenamiento almacenamiento = Almacenamiento.COLAS;
+
+    private final Map<Operacion, Histograma> latencias = new EnumMap<Operacion, Histograma>(Operacion.class);
+    private final LongAdder turnos = new LongAdder();
+    private final LongAdder partidas = new LongAdder();
+    private final List<ResultadoEtapa> resultados = new ArrayList<ResultadoEtapa>();
+
+    private ScheduledThreadPoolExecutor ejecutor;
+
+    /**
+     * Indica si las sesiones de la etapa deben seguir jugando.
+     */
+    private volatile boolean activa;
+
+    /**
+     * Indica si ya terminó el calentamiento y se están registrando las latencias.
+     */
+    private volatile boolean midiendo;
+
+    private CountDownLatch sesionesTerminadas;
+    private final AtomicReference<RuntimeException> error = new AtomicReference<RuntimeException>();
+
+    /**
+     * Resultado de la medición de una etapa.
+     */
+    static class ResultadoEtapa {
+
+        private final int sesiones;
+        private final double segundos;
+        private final long turnos;
+        private final long partidas;
+        private final int tareasPendientes;
+        private final Map<Operacion, Histograma> latencias = new EnumMap<Operacion, Histograma>(Operacion.class);
+
+        private ResultadoEtapa(int sesiones, double segundos, long turnos, long partidas, int tareasPendientes,
+                Map<Operacion, Histograma> medidas) {
+
+            this.sesiones = sesiones;
+            this.segundos = segundos;
+            this.turnos = turnos;
+            this.partidas = partidas;
+            this.tareasPendientes = tareasPendientes;
+
+            for (Map.Entry<Operacion, Histograma> medida : medidas.entrySet()) {
+                Histograma copia = new Histograma();
+                copia.agregar(medida.getValue());
+                latencias.put(medida.getKey(), copia);
+            }
+
+        }
+
+        int getSesiones() {
+            return sesiones;
+        }
+
+        long getTurnos() {
+            return turnos;
+        }
+
+        long getPartidas() {
+            return partidas;
+        }
+
+        /**
+         * @return Tareas que quedaban en el ejecutor cuando terminaron todas las sesiones; debe ser 0.
+         */
+        int getTareasPendientes() {
+            return tareasPendientes;
+        }
+
+        /**
+         * @return Latencias medidas de la operación, en nanosegundos.
+         */
+        Histograma getLatencias(Operacion operacion) {
+            return latencias.get(operacion);
+        }
+
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        new GeneradorCarga(args).ejecutar();
+
+    }
+
+    /**
+     * @return Resultados de las etapas ejecutadas, en orden.
+     */
+    List<ResultadoEtapa> getResultados() {
+        return resultados;
+    }
+
+    /**
+     * Constructor de la clase GeneradorCarga.
+     *
+     * @param argumentos Opciones de línea de comandos.
+     * @throws IllegalArgumentException Si alguna opción no es válida.
+     */
+    public GeneradorCarga(String[] argumentos) {
+
+        for (int i = 0; i < argumentos.length; i++) {
+
+            String opcion = argumentos[i];
+
+            if (i + 1 >= argumentos.length)
+                throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+
+            String valor = argumentos[++i];
+
+            switch (opcion) {
+                case "--sesiones":
+                    String[] partes = valor.split(",");
+                    etapas = new int[partes.length];
+                    for (int j = 0; j < partes.length; j++)
+                        etapas[j] = Integer.parseInt(partes[j].strip());
+                    break;
+                case "--duracion":
+                    duracion = Double.parseDouble(valor);
+                    break;
+                case "--calentamiento":
+                    calentamiento = Double.parseDouble(valor);
+                    break;
+                case "--pensar":
+                    pensarMilis = Double.parseDouble(valor);
+                    break;
+                case "--pensar-distribucion":
+                    if (valor.equals("exponencial"))
+                        pensarExponencial = true;
+                    else if (valor.equals("fija"))
+                        pensarExponencial = false;
+                    else
+                        throw new IllegalArgumentException("Distribución no válida: " + valor);
+                    break;
+                case "--estrategia":
+                    estrategia = Estrategias.porNombre(valor);
+                    break;
+                case "--hilos":
+                    hilos = Math.max(1, Integer.parseInt(valor));
+                    break;
+                case "--semilla":
+                    semilla = Long.parseLong(valor);
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(valor);
+                    break;
+                case "--maximo":
+                    numeroMaximo = Integer.parseInt(valor);
+                    break;
+                case "--consecutivos":
+                    consecutivosNecesarios = Integer.parseInt(valor);
+                    break;
+                case "--almacenamiento":
+                    almacenamiento = Almacenamiento.valueOf(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción no válida: " + opcion);
+            }
+        }
+
+        for (int sesiones : etapas)
+            if (sesiones < 1)
+                throw new IllegalArgumentException("El número de sesiones debe ser mayor o igual a 1.");
+
+        // Se validan los parámetros del tablero antes de empezar
+        Tablero.validarParametros(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento);
+
+        for (Operacion operacion : OPERACIONES_MEDIDAS)
+            latencias.put(operacion, new Histograma());
+
+    }
+
+    /**
+     * Ejecuta todas las etapas e imprime una fila por cada una.
+     *
+     * @throws IllegalStateException Si alguna sesión falló.
+     */
+    public void ejecutar() throws InterruptedException {
+
+        ejecutor = new ScheduledThreadPoolExecutor(hilos);
+        ejecutor.setRemoveOnCancelPolicy(true);
+
+        SplittableRandom semillas = new SplittableRandom(semilla);
+
+        imprimirEncabezado();
+
+        try {
+            for (int sesiones : etapas)
+                ejecutarEtapa(sesiones, semillas.split());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+    }
+
+    private void ejecutarEtapa(int cantidadSesiones, SplittableRandom semillas) throws InterruptedException {
+
+        for (Histograma histograma : latencias.values())
+            histograma.reiniciar();
+
+        turnos.reset();
+        partidas.reset();
+        midiendo = false;
+        activa = true;
+        sesionesTerminadas = new CountDownLatch(cantidadSesiones);
+
+        List<Sesion> sesiones = new ArrayList<Sesion>(cantidadSesiones);
+
+        for (int i = 0; i < cantidadSesiones; i++)
+            sesiones.add(new Sesion(semillas.split()));
+
+        // Las sesiones empiezan escalonadas a lo largo de un tiempo de reflexión, para no llegar todas juntas
+        for (Sesion sesion : sesiones)
+            ejecutor.schedule(sesion, sesion.tiempoPensar(), TimeUnit.NANOSECONDS);
+
+        Thread.sleep((long) (calentamiento * 1000));
+
+        for (Histograma histograma : latencias.values())
+            histograma.reiniciar();
+
+        turnos.reset();
+        partidas.reset();
+        midiendo = true;
+
+        long inicio = System.nanoTime();
+        Thread.sleep((long) (duracion * 1000));
+
+        midiendo = false;
+        long duracionNanos = System.nanoTime() - inicio;
+
+        activa = false;
+        sesionesTerminadas.await();
+
+        // Los turnos que empezaron midiéndose ya terminaron, así que los totales coinciden con las latencias
+        long turnosEtapa = turnos.sum();
+        long partidasEtapa = partidas.sum();
+
+        RuntimeException fallo = error.get();
+
+        if (fallo != null)
+            throw new IllegalStateException("Una sesión falló durante la etapa de " + cantidadSesiones + " sesiones.", fallo);
+
+        ResultadoEtapa resultado = new ResultadoEtapa(cantidadSesiones, duracionNanos / 1e9, turnosEtapa, partidasEtapa,
+            ejecutor.getQueue().size(), latencias);
+
+        resultados.add(resultado);
+        imprimirEtapa(resultado);
+
+    }
+
+    /**
+     * Sesión de juego. Cada ejecución juega un turno y programa la siguiente; nunca hay dos ejecuciones de la
+     * misma sesión al mismo tiempo, por lo que su tablero no se comparte entre hilos.
+     */
+    private class Sesion implements Runnable {
+
+        private final SplittableRandom aleatorio;
+        private final Tablero tablero;
+        private final int[] par = new int[2];
+        private final int[][] coordenadas = new int[2][2];
+
+        private Sesion(SplittableRandom aleatorio) {
+            this.aleatorio = aleatorio;
+            tablero = new Tablero(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, aleatorio.nextLong());
+        }
+
+        @Override
+        public void run() {
+
+            if (!activa || error.get() != null) {
+                sesionesTerminadas.countDown();
+                return;
+            }
+
+            try {
+                jugarTurno();
+            } catch (RuntimeException e) {
+                error.compareAndSet(null, e);
+                sesionesTerminadas.countDown();
+                return;
+            }
+
+            ejecutor.schedule(this, tiempoPensar(), TimeUnit.NANOSECONDS);
+
+        }
+
+        private void jugarTurno() {
+
+            boolean medir = midiendo;
+
+            if (tablero.getEstado() != Estado.JUGANDO) {
+
+                tablero.reiniciar(dimension, numeroMaximo, consecutivosNecesarios, aleatorio.nextLong());
+
+                if (medir)
+                    partidas.increment();
+            }
+
+            if (medir)
+                turnos.increment();
+
+            long inicio = System.nanoTime();
+            tablero.pedirParAleatorio(par);
+            registrar(medir, Operacion.PEDIR_PAR_ALEATORIO, inicio);
+
+            for (int i = 0; i < 2; i++) {
+
+                // Con la primera inserción se llenó el tablero
+                if (tablero.getEstado() != Estado.JUGANDO)
+                    return;
+
+                estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenadas[i]);
+
+                inicio = System.nanoTime();
+                boolean insertado = tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]);
+                registrar(medir, Operacion.INSERTAR_NUMERO, inicio);
+
+                if (!insertado)
+                    throw new IllegalStateException("La estrategia " + estrategia.getNombre() + " eligió una casilla ocupada.");
+            }
+
+            for (int i = 0; i < 2; i++) {
+                inicio = System.nanoTime();
+                tablero.revisarConsecutivos(coordenadas[i][0], coordenadas[i][1]);
+                registrar(medir, Operacion.REVISAR_CONSECUTIVOS, inicio);
+            }
+
+        }
+
+        private long tiempoPensar() {
+
+            double milis = pensarExponencial ? -pensarMilis * Math.log(1 - aleatorio.nextDouble()) : pensarMilis;
+
+            return (long) (milis * 1e6);
+        }
+
+    }
+
+    private void registrar(boolean medir, Operacion operacion, long inicio) {
+
+        if (medir)
+            latencias.get(operacion).registrar(System.nanoTime() - inicio);
+
+    }
+
+    private void imprimirEncabezado() {
+
+        StringBuilder encabezado = new StringBuilder(String.format("%9s %12s %10s", "Sesiones", "Turnos/s", "Partidas/s"));
+
+        for (Operacion operacion : OPERACIONES_MEDIDAS)
+            encabezado.append(String.format(" | %-26s", operacion + " (µs)"));
+
+        System.out.println(encabezado);
+
+        StringBuilder percentiles = new StringBuilder(String.format("%9s %12s %10s", "", "", ""));
+
+        for (int i = 0; i < OPERACIONES_MEDIDAS.length; i++)
+            percentiles.append(String.format(" | %8s %8s %8s", "p50", "p99", "p99.9"));
+
+        System.out.println(percentiles);
+
+    }
+
+    private void imprimirEtapa(ResultadoEtapa resultado) {
+
+        StringBuilder fila = new StringBuilder(String.format("%9d %12.1f %10.1f", resultado.sesiones,
+            resultado.turnos / resultado.segundos, resultado.partidas / resultado.segundos));
+
+        for (Operacion operacion : OPERACIONES_MEDIDAS) {
+
+            Histograma histograma = resultado.getLatencias(operacion);
+
+            fila.append(String.format(" | %8.2f %8.2f %8.2f", histograma.percentil(50) / 1e3, histograma.percentil(99) / 1e3,
+                histograma.percentil(99.9) / 1e3));
+        }
+
+        System.out.println(fila);
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package JuegoTablero;
+
+import java.util.random.RandomGenerator;
+
+import ArbolBinario.ArbolBinario;
+
+/**
+ * Generador de pares de números distintos tomados de un grupo.
+ *
+ * <p>
+ * Los números aleatorios se generan por lotes en un arreglo de <code>long</code>, que se vuelve a llenar en el
+ * hilo que pide el par cuando se termina de consumir. Cada par usa exactamente un <code>long</code>: los 32 bits
+ * altos eligen el primer número y los 32 bajos el segundo entre los restantes, por lo que nunca hay que repetir
+ * el sorteo cuando salen dos números iguales.
+ * </p>
+ *
+ * <p>
+ * Los lotes guardan los números aleatorios sin convertir, y la conversión a un par se hace al consumirlos: los
+ * índices se calculan con el tamaño actual del grupo y los valores se toman de él por su posición
+ * ({@link ArbolBinario#obtenerValorEnPosicion(int)}). Así, cuando el grupo crece después de una mezcla, no hay
+ * que avisar ni copiar sus valores, y lo que ya estaba generado sigue sirviendo.
+ * </p>
+ *
+ * <p>
+ * Con la misma semilla se obtiene la misma secuencia de pares que tomando un <code>long</code> de la fuente por
+ * cada par. El generador no es seguro para usarse desde varios hilos a la vez, igual que {@link Tablero}.
+ * </p>
+ */
+class GeneradorPares {
+
+    /**
+     * Número de <code>long</code> que se generan en cada lote.
+     */
+    static final int TAMANO_LOTE = 256;
+
+    private RandomGenerator generador;
+
+    private final long[] lote;
+    private int posicion;
+
+    private final ArbolBinario grupo;
+
+    /**
+     * @param generador Fuente de números aleatorios. Sólo la usa el generador de pares.
+     * @param grupo Grupo del que se eligen los pares. No se copia, así que cada par se elige entre sus valores del
+     *              momento.
+     */
+    GeneradorPares(RandomGenerator generador, ArbolBinario grupo) {
+
+        this.generador = generador;
+        this.grupo = grupo;
+
+        lote = new long[TAMANO_LOTE];
+
+        // El primer lote se genera hasta que se pide el primer par
+        posicion = TAMANO_LOTE;
+
+    }
+
+    /**
+     * Cambia la fuente de números aleatorios y descarta lo que ya estaba generado.
+     *
+     * @param generador Nueva fuente de números aleatorios.
+     */
+    void reiniciar(RandomGenerator generador) {
+
+        this.generador = generador;
+        posicion = TAMANO_LOTE;
+
+    }
+
+    /**
+     * Elige dos valores distintos del grupo.
+     *
+     * @param destino Arreglo de al menos dos elementos donde se escribe el par.
+     * @throws IllegalStateException Si el grupo tiene menos de dos valores.
+     */
+    void siguientePar(int[] destino) {
+
+        int cantidad = grupo.getTamano();
+
+        if (cantidad < 2)
+            throw new IllegalStateException("Se necesitan al menos dos números para formar un par.");
+
+        long aleatorio = siguienteAleatorio();
+
+        // Multiplicar 32 bits aleatorios por n y quedarse con los 32 bits altos da un índice en [0, n)
+        int primero = (int) (((aleatorio >>> 32) * cantidad) >>> 32);
+        int segundo = (int) (((aleatorio & 0xFFFFFFFFL) * (cantidad - 1)) >>> 32);
+
+        // El segundo índice se elige entre los n - 1 restantes, saltando el primero
+        if (segundo >= primero)
+            segundo++;
+
+        destino[0] = grupo.obtenerValorEnPosicion(primero);
+        destino[1] = grupo.obtenerValorEnPosicion(segundo);
+
+    }
+
+    private long siguienteAleatorio() {
+
+        if (posicion == TAMANO_LOTE) {
+            llenar(generador, lote);
+            posicion = 0;
+        }
+
+        return lote[posicion++];
+
+    }
+
+    private static void llenar(RandomGenerator fuente, long[] destino) {
+
+        for (int i = 0; i < destino.length; i++)
+            destino[i] = fuente.nextLong();
+
+    }
+
+}
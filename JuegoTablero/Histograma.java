@@ -0,0 +1,184 @@
+package JuegoTablero;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-lineal para registrar valores no negativos (por ejemplo, latencias en nanosegundos).
+ *
+ * <p>
+ * Los valores se agrupan en cubetas cuyo ancho crece con la magnitud del valor, de manera similar
+ * a un HdrHistogram: cada potencia de 2 se divide en 32 sub-cubetas, por lo que el error relativo
+ * de los percentiles reportados es menor al 3%. La memoria que ocupa el histograma es fija,
+ * sin importar cuántos valores se registren.
+ * </p>
+ *
+ * <p>
+ * El registro es seguro entre hilos y no reserva memoria.
+ * </p>
+ */
+public class Histograma {
+
+    /**
+     * Bits de precisión por cada potencia de 2.
+     */
+    private static final int BITS_SUBCUBETA = 5;
+
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+
+    private static final int CUBETAS = (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray conteos;
+    private final AtomicLong suma;
+    private final AtomicLong maximo;
+
+    public Histograma() {
+        conteos = new AtomicLongArray(CUBETAS);
+        suma = new AtomicLong();
+        maximo = new AtomicLong();
+    }
+
+    /**
+     * Registra un valor en el histograma. Los valores negativos se registran como 0.
+     *
+     * @param valor Valor a registrar.
+     */
+    public void registrar(long valor) {
+
+        if (valor < 0)
+            valor = 0;
+
+        conteos.incrementAndGet(indiceCubeta(valor));
+        suma.addAndGet(valor);
+
+        long maximoActual = maximo.get();
+
+        while (valor > maximoActual && !maximo.compareAndSet(maximoActual, valor))
+            maximoActual = maximo.get();
+
+    }
+
+    /**
+     * Devuelve el percentil solicitado, como el límite superior de la cubeta en la que cae.
+     *
+     * @param percentil Percentil entre 0 y 100.
+     * @return Valor del percentil, o 0 si no hay registros.
+     */
+    public long percentil(double percentil) {
+
+        long registros = getTotal();
+
+        if (registros == 0)
+            return 0;
+
+        long objetivo = (long) Math.ceil(registros * Math.min(100.0, Math.max(0.0, percentil)) / 100.0);
+
+        if (objetivo < 1)
+            objetivo = 1;
+
+        long acumulado = 0;
+
+        for (int i = 0; i < CUBETAS; i++) {
+
+            acumulado += conteos.get(i);
+
+            if (acumulado >= objetivo)
+                return Math.min(limiteSuperior(i), maximo.get());
+        }
+
+        return maximo.get();
+
+    }
+
+    /**
+     * Devuelve el número de registros. Se calcula sumando las cubetas, para que registrar un valor
+     * no tenga que actualizar un contador más.
+     */
+    public long getTotal() {
+
+        long registros = 0;
+
+        for (int i = 0; i < CUBETAS; i++)
+            registros += conteos.get(i);
+
+        return registros;
+    }
+
+    public long getSuma() {
+        return suma.get();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getPromedio() {
+
+        long registros = getTotal();
+
+        return registros == 0 ? 0 : (double) suma.get() / registros;
+    }
+
+    /**
+     * Suma los registros de otro histograma a este.
+     *
+     * @param otro Histograma cuyos registros se agregarán.
+     */
+    public void agregar(Histograma otro) {
+
+        for (int i = 0; i < CUBETAS; i++) {
+
+            long conteo = otro.conteos.get(i);
+
+            if (conteo != 0)
+                conteos.addAndGet(i, conteo);
+        }
+
+        suma.addAndGet(otro.suma.get());
+
+        long maximoOtro = otro.maximo.get();
+        long maximoActual = maximo.get();
+
+        while (maximoOtro > maximoActual && !maximo.compareAndSet(maximoActual, maximoOtro))
+            maximoActual = maximo.get();
+
+    }
+
+    /**
+     * Elimina todos los registros del histograma.
+     */
+    public void reiniciar() {
+
+        for (int i = 0; i < CUBETAS; i++)
+            conteos.set(i, 0);
+
+        suma.set(0);
+        maximo.set(0);
+
+    }
+
+    private static int indiceCubeta(long valor) {
+
+        int bits = 64 - Long.numberOfLeadingZeros(valor);
+
+        // Los valores pequeños tienen una cubeta por valor
+        if (bits <= BITS_SUBCUBETA + 1)
+            return (int) valor;
+
+        int desplazamiento = bits - BITS_SUBCUBETA - 1;
+
+        return desplazamiento * SUBCUBETAS + (int) (valor >>> desplazamiento);
+    }
+
+    private static long limiteSuperior(int indice) {
+
+        if (indice < 2 * SUBCUBETAS)
+            return indice;
+
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long subcubeta = indice % SUBCUBETAS + SUBCUBETAS;
+
+        return ((subcubeta + 1) << desplazamiento) - 1;
+    }
+
+}
@@ -0,0 +1,288 @@
+package JuegoTablero;
+
+import java.util.Arrays;
+
+/**
+ * Índice de las casillas vacías en las que colocar un valor provocaría una mezcla.
+ *
+ * <p>
+ * Por cada casilla vacía se guarda, en cada una de las cuatro direcciones, el valor de la casilla vecina y
+ * cuántas casillas seguidas tienen ese valor, contando hasta <code>consecutivosNecesarios - 1</code>, que es lo
+ * más que puede hacer falta para completar un tramo. Con eso se sabe qué valores (a lo más cuatro) se mezclarían
+ * al colocarlos en la casilla, y la casilla se agrega a la lista de cada uno de esos valores.
+ * </p>
+ *
+ * <p>
+ * Cuando una casilla cambia, sólo pueden cambiar sus propios tramos y los de la primera casilla vacía en cada
+ * dirección, a una distancia de a lo más <code>consecutivosNecesarios - 1</code>: los tramos no cruzan casillas
+ * vacías y más lejos ya no se cuentan. Por eso cada cambio se actualiza en O(consecutivosNecesarios).
+ * </p>
+ *
+ * <p>
+ * Las listas por valor permiten agregar y quitar casillas en O(1): cada casilla recuerda su posición en cada
+ * lista, y al quitarla su lugar lo ocupa el último elemento. Ocupa unos 64 bytes por casilla del tablero.
+ * </p>
+ */
+class IndiceMezclas {
+
+    private static final int[] PASO_X = { -1, 1, 0, 0 };
+    private static final int[] PASO_Y = { 0, 0, -1, 1 };
+
+    private final AlmacenamientoCasillas casillas;
+    private final int dimension;
+    private final int consecutivosNecesarios;
+    private final int tope;
+
+    /**
+     * Por cada casilla y dirección (izquierda, derecha, arriba, abajo): valor de la vecina y largo del tramo.
+     */
+    private final int[] valorVecino;
+    private final int[] largoVecino;
+
+    /**
+     * Por cada casilla, hasta cuatro valores que se mezclarían en ella (0 si el lugar está libre), y la posición
+     * de la casilla en la lista de cada uno.
+     */
+    private final int[] valoresQueMezclan;
+    private final int[] posicionEnLista;
+
+    /**
+     * Por cada valor, las casillas en las que se mezclaría. Cada elemento es <code>casilla * 4 + lugar</code>.
+     */
+    private final int[][] listas;
+    private final int[] tamanos;
+
+    /**
+     * Construye el índice a partir del contenido actual de las casillas.
+     *
+     * @param casillas Casillas del tablero.
+     * @param dimension Dimensión del tablero.
+     * @param consecutivosNecesarios Largo de los tramos que se mezclan.
+     * @param numeroMaximo Valor más grande que puede haber en una casilla.
+     * @throws ArithmeticException Si el tablero es demasiado grande para indexarse.
+     */
+    IndiceMezclas(AlmacenamientoCasillas casillas, int dimension, int consecutivosNecesarios, int numeroMaximo) {
+
+        this.casillas = casillas;
+        this.dimension = dimension;
+        this.consecutivosNecesarios = consecutivosNecesarios;
+        tope = consecutivosNecesarios - 1;
+
+        int espacios = Math.multiplyExact(Math.multiplyExact(dimension, dimension), 4);
+
+        valorVecino = new int[espacios];
+        largoVecino = new int[espacios];
+        valoresQueMezclan = new int[espacios];
+        posicionEnLista = new int[espacios];
+
+        listas = new int[numeroMaximo + 1][];
+        tamanos = new int[numeroMaximo + 1];
+
+        for (int valor = 1; valor <= numeroMaximo; valor++)
+            listas[valor] = new int[8];
+
+        for (int y = 1; y <= dimension; y++)
+            for (int x = 1; x <= dimension; x++)
+                if (casillas.obtener(x, y) == 0)
+                    calcular(x, y);
+
+    }
+
+    /**
+     * Indica si las casillas y los parámetros son los mismos con los que se construyó el índice.
+     */
+    boolean esCompatible(AlmacenamientoCasillas casillas, int dimension, int consecutivosNecesarios, int numeroMaximo) {
+        return casillas == this.casillas && dimension == this.dimension
+            && consecutivosNecesarios == this.consecutivosNecesarios && numeroMaximo == listas.length - 1;
+    }
+
+    /**
+     * Vacía el índice después de que se vaciaron todas las casillas: en un tablero vacío no hay mezclas.
+     */
+    void vaciar() {
+
+        Arrays.fill(valorVecino, 0);
+        Arrays.fill(largoVecino, 0);
+        Arrays.fill(valoresQueMezclan, 0);
+        Arrays.fill(tamanos, 0);
+
+    }
+
+    /**
+     * Actualiza el índice después de que cambió el valor de una casilla.
+     *
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     */
+    void actualizar(int x, int y) {
+
+        if (casillas.obtener(x, y) == 0)
+            calcular(x, y);
+        else
+            quitarDeListas(indice(x, y));
+
+        // Sólo la primera casilla vacía en cada dirección puede tener un tramo que pase por esta casilla
+        for (int direccion = 0; direccion < 4; direccion++) {
+
+            int vecinoX = x;
+            int vecinoY = y;
+
+            for (int distancia = 1; distancia <= tope; distancia++) {
+
+                vecinoX += PASO_X[direccion];
+                vecinoY += PASO_Y[direccion];
+
+                if (!dentro(vecinoX, vecinoY))
+                    break;
+
+                if (casillas.obtener(vecinoX, vecinoY) == 0) {
+                    calcular(vecinoX, vecinoY);
+                    break;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * @return Número de casillas vacías en las que el valor se mezclaría.
+     */
+    int contar(int valor) {
+        return valor >= 1 && valor < listas.length ? tamanos[valor] : 0;
+    }
+
+    /**
+     * @return Coordenadas {x, y} de las casillas vacías en las que el valor se mezclaría, sin un orden particular.
+     */
+    int[][] casillasQueMezclan(int valor) {
+
+        int cantidad = contar(valor);
+        int[][] resultado = new int[cantidad][];
+
+        for (int i = 0; i < cantidad; i++) {
+            int casilla = listas[valor][i] >>> 2;
+            resultado[i] = new int[] { casilla % dimension + 1, casilla / dimension + 1 };
+        }
+
+        return resultado;
+
+    }
+
+    /**
+     * @return <code>true</code> si la casilla está vacía y colocar el valor en ella provocaría una mezcla.
+     */
+    boolean mezclaEn(int x, int y, int valor) {
+
+        int base = indice(x, y) * 4;
+
+        for (int lugar = 0; lugar < 4; lugar++)
+            if (valoresQueMezclan[base + lugar] == valor && valor != 0)
+                return true;
+
+        return false;
+
+    }
+
+    /**
+     * Largo del tramo que se formaría al colocar el valor en una casilla vacía, contando la casilla y hasta
+     * <code>consecutivosNecesarios - 1</code> casillas a cada lado.
+     *
+     * @param horizontal <code>true</code> para el tramo de la fila, <code>false</code> para el de la columna.
+     */
+    int largoTramo(int x, int y, int valor, boolean horizontal) {
+
+        int base = indice(x, y) * 4 + (horizontal ? 0 : 2);
+        int largo = 1;
+
+        if (valorVecino[base] == valor)
+            largo += largoVecino[base];
+
+        if (valorVecino[base + 1] == valor)
+            largo += largoVecino[base + 1];
+
+        return largo;
+
+    }
+
+    /**
+     * Recalcula los tramos vecinos de una casilla vacía y los valores que se mezclarían en ella.
+     */
+    private void calcular(int x, int y) {
+
+        int casilla = indice(x, y);
+        int base = casilla * 4;
+
+        for (int direccion = 0; direccion < 4; direccion++) {
+
+            int vecinoX = x + PASO_X[direccion];
+            int vecinoY = y + PASO_Y[direccion];
+            int valor = dentro(vecinoX, vecinoY) ? casillas.obtener(vecinoX, vecinoY) : 0;
+
+            int largo = 0;
+
+            // Se cuentan a lo más tope casillas, aunque el tramo sea más largo
+            while (valor != 0 && largo < tope && dentro(vecinoX, vecinoY) && casillas.obtener(vecinoX, vecinoY) == valor) {
+                largo++;
+                vecinoX += PASO_X[direccion];
+                vecinoY += PASO_Y[direccion];
+            }
+
+            valorVecino[base + direccion] = valor;
+            largoVecino[base + direccion] = largo;
+        }
+
+        quitarDeListas(casilla);
+
+        for (int direccion = 0; direccion < 4; direccion++) {
+
+            int valor = valorVecino[base + direccion];
+
+            if (valor != 0 && !mezclaEn(x, y, valor)
+                    && (largoTramo(x, y, valor, true) >= consecutivosNecesarios || largoTramo(x, y, valor, false) >= consecutivosNecesarios))
+                agregarALista(casilla, direccion, valor);
+        }
+
+    }
+
+    private void agregarALista(int casilla, int lugar, int valor) {
+
+        if (tamanos[valor] == listas[valor].length)
+            listas[valor] = Arrays.copyOf(listas[valor], listas[valor].length * 2);
+
+        int espacio = casilla * 4 + lugar;
+
+        valoresQueMezclan[espacio] = valor;
+        posicionEnLista[espacio] = tamanos[valor];
+        listas[valor][tamanos[valor]++] = espacio;
+
+    }
+
+    private void quitarDeListas(int casilla) {
+
+        for (int espacio = casilla * 4; espacio < casilla * 4 + 4; espacio++) {
+
+            int valor = valoresQueMezclan[espacio];
+
+            if (valor == 0)
+                continue;
+
+            // El último elemento de la lista ocupa el lugar del que se quita
+            int posicion = posicionEnLista[espacio];
+            int ultimo = listas[valor][--tamanos[valor]];
+
+            listas[valor][posicion] = ultimo;
+            posicionEnLista[ultimo] = posicion;
+            valoresQueMezclan[espacio] = 0;
+        }
+
+    }
+
+    private boolean dentro(int x, int y) {
+        return x >= 1 && x <= dimension && y >= 1 && y <= dimension;
+    }
+
+    private int indice(int x, int y) {
+        return (y - 1) * dimension + (x - 1);
+    }
+
+}
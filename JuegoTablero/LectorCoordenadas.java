@@ -0,0 +1,164 @@
+package JuegoTablero;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lector de coordenadas con el formato <code>x,y</code>, una por línea.
+ *
+ * <p>
+ * Lee el flujo de entrada por bloques en un arreglo de bytes reutilizable y convierte las
+ * coordenadas directamente desde los bytes, sin crear cadenas ni objetos por línea.
+ * Las líneas vacías o con sólo espacios se ignoran; se toleran espacios alrededor de los números y finales de línea
+ * <code>\r\n</code>.
+ * </p>
+ */
+public class LectorCoordenadas {
+
+    private static final int TAMANO_BUFFER = 1 << 16;
+
+    /**
+     * Máximo de dígitos que se aceptan por coordenada, para evitar desbordamientos.
+     */
+    private static final int MAXIMO_DIGITOS = 9;
+
+    private final InputStream entrada;
+    private final byte[] buffer;
+    private int posicion;
+    private int limite;
+    private boolean finEntrada;
+
+    private int x;
+    private int y;
+    private boolean valida;
+
+    public LectorCoordenadas(InputStream entrada) {
+        this.entrada = entrada;
+        buffer = new byte[TAMANO_BUFFER];
+        posicion = 0;
+        limite = 0;
+        finEntrada = false;
+    }
+
+    /**
+     * Avanza a la siguiente línea no vacía de la entrada. Las líneas con sólo espacios y tabuladores
+     * cuentan como vacías.
+     *
+     * @return <code>true</code> si se leyó una línea, <code>false</code> si se llegó al final de la entrada.
+     * @throws IOException Si ocurre un error al leer la entrada.
+     */
+    public boolean siguiente() throws IOException {
+
+        int caracter = leerByte();
+
+        // Se omiten las líneas vacías, junto con los espacios al inicio de la línea
+        while (caracter == '\n' || caracter == '\r' || caracter == ' ' || caracter == '\t')
+            caracter = leerByte();
+
+        if (caracter == -1)
+            return false;
+
+        valida = true;
+        x = 0;
+        y = 0;
+
+        caracter = omitirEspacios(leerNumero(caracter, true));
+
+        if (valida && caracter == ',') {
+            caracter = omitirEspacios(leerByte());
+            caracter = leerNumero(caracter, false);
+        } else {
+            valida = false;
+        }
+
+        if (valida)
+            caracter = omitirEspacios(caracter);
+
+        if (caracter != '\n' && caracter != '\r' && caracter != -1)
+            valida = false;
+
+        // Se descarta lo que quede de la línea
+        while (caracter != '\n' && caracter != -1)
+            caracter = leerByte();
+
+        return true;
+
+    }
+
+    /**
+     * @return <code>true</code> si la última línea leída tenía el formato <code>x,y</code>.
+     */
+    public boolean esValida() {
+        return valida;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Lee un número entero no negativo a partir del caracter dado, y lo guarda en x o en y.
+     *
+     * @return El primer caracter después del número.
+     */
+    private int leerNumero(int caracter, boolean esX) throws IOException {
+
+        int valor = 0;
+        int digitos = 0;
+
+        while (caracter >= '0' && caracter <= '9') {
+
+            if (++digitos > MAXIMO_DIGITOS)
+                valida = false;
+            else
+                valor = valor * 10 + (caracter - '0');
+
+            caracter = leerByte();
+        }
+
+        if (digitos == 0)
+            valida = false;
+
+        if (esX)
+            x = valor;
+        else
+            y = valor;
+
+        return caracter;
+
+    }
+
+    private int omitirEspacios(int caracter) throws IOException {
+
+        while (caracter == ' ' || caracter == '\t')
+            caracter = leerByte();
+
+        return caracter;
+    }
+
+    private int leerByte() throws IOException {
+
+        if (posicion == limite) {
+
+            if (finEntrada)
+                return -1;
+
+            limite = entrada.read(buffer, 0, buffer.length);
+            posicion = 0;
+
+            if (limite <= 0) {
+                limite = 0;
+                finEntrada = true;
+                return -1;
+            }
+        }
+
+        return buffer[posicion++] & 0xFF;
+
+    }
+
+}
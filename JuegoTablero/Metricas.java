@@ -0,0 +1,360 @@
+package JuegoTablero;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Métricas de las operaciones del tablero.
+ *
+ * <p>
+ * Las métricas están desactivadas por defecto; mientras lo estén, cada operación instrumentada
+ * sólo revisa una bandera. Una vez activadas, se registran:
+ * <ul>
+ * <li> Conteos e histogramas de latencia de <code>insertarNumero</code>, <code>revisarConsecutivos</code>,
+ *      <code>pedirParAleatorio</code> y <code>mostrarTablero</code>. </li>
+ * <li> Mezclas por movimiento y longitud de cascada (casillas absorbidas por cada mezcla). </li>
+ * <li> Profundidad del árbol del grupo de números al generar pares aleatorios. </li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Los conteos son exactos, pero las latencias y las distribuciones se registran sólo para una muestra al
+ * azar de las operaciones (una de cada 16 por defecto, ajustable con
+ * <code>-Djuegotablero.metricas.muestreo=n</code>): leer el reloj dos veces por operación costaría por sí
+ * solo más del 2% del tiempo de un movimiento.
+ * </p>
+ *
+ * <p>
+ * Los datos se consultan con {@link #tomarInstantanea()}, y además se emiten como eventos de
+ * JFR (Java Flight Recorder) en la categoría "Juego de tablero" cuando hay una grabación activa.
+ * </p>
+ */
+public final class Metricas {
+
+    /**
+     * Operaciones instrumentadas del tablero.
+     */
+    public enum Operacion {
+        INSERTAR_NUMERO,
+        REVISAR_CONSECUTIVOS,
+        PEDIR_PAR_ALEATORIO,
+        MOSTRAR_TABLERO
+    }
+
+    /**
+     * Las métricas pueden activarse desde el arranque con <code>-Djuegotablero.metricas=true</code>.
+     */
+    private static volatile boolean activas = Boolean.getBoolean("juegotablero.metricas");
+
+    /**
+     * Se mide una de cada <code>MUESTREO</code> operaciones, en promedio.
+     */
+    private static final int MUESTREO = Math.max(1, Integer.getInteger("juegotablero.metricas.muestreo", 16));
+
+    /**
+     * Valor de {@link #inicio()} para una operación que se cuenta pero no se cronometra.
+     */
+    private static final long SIN_MEDIR = Long.MIN_VALUE;
+
+    private static final Map<Operacion, LongAdder> conteos = new EnumMap<Operacion, LongAdder>(Operacion.class);
+    private static final Map<Operacion, Histograma> latencias = new EnumMap<Operacion, Histograma>(Operacion.class);
+
+    private static final Histograma mezclasPorMovimiento = new Histograma();
+    private static final Histograma longitudCascada = new Histograma();
+    private static final Histograma profundidadArbol = new Histograma();
+
+    static {
+        for (Operacion operacion : Operacion.values()) {
+            conteos.put(operacion, new LongAdder());
+            latencias.put(operacion, new Histograma());
+        }
+    }
+
+    private Metricas() {
+    }
+
+    public static void activar() {
+        activas = true;
+    }
+
+    public static void desactivar() {
+        activas = false;
+    }
+
+    public static boolean estanActivas() {
+        return activas;
+    }
+
+    /**
+     * Elimina todos los registros acumulados.
+     */
+    public static void reiniciar() {
+
+        for (Operacion operacion : Operacion.values()) {
+            conteos.get(operacion).reset();
+            latencias.get(operacion).reiniciar();
+        }
+
+        mezclasPorMovimiento.reiniciar();
+        longitudCascada.reiniciar();
+        profundidadArbol.reiniciar();
+
+    }
+
+    /**
+     * Marca el inicio de una operación.
+     *
+     * @return Marca de tiempo en nanosegundos, 0 si las métricas están desactivadas, o
+     *         {@link #SIN_MEDIR} si la operación no quedó en la muestra.
+     */
+    static long inicio() {
+
+        if (!activas)
+            return 0;
+
+        return muestrear() ? System.nanoTime() : SIN_MEDIR;
+    }
+
+    /**
+     * Decide si el registro actual entra en la muestra. Cada hilo usa su propio generador, para que
+     * los hilos no compitan por un contador compartido.
+     */
+    private static boolean muestrear() {
+        return MUESTREO == 1 || ThreadLocalRandom.current().nextInt(MUESTREO) == 0;
+    }
+
+    /**
+     * Registra el fin de una operación iniciada con {@link #inicio()}.
+     *
+     * @param operacion Operación que terminó.
+     * @param inicio Marca de tiempo devuelta por {@link #inicio()}.
+     */
+    static void registrar(Operacion operacion, long inicio) {
+
+        if (inicio == 0)
+            return;
+
+        conteos.get(operacion).increment();
+
+        if (inicio == SIN_MEDIR)
+            return;
+
+        long duracion = System.nanoTime() - inicio;
+
+        latencias.get(operacion).registrar(duracion);
+
+        EventoOperacion evento = new EventoOperacion();
+
+        if (evento.shouldCommit()) {
+            evento.operacion = operacion.name();
+            evento.duracionOperacion = duracion;
+            evento.commit();
+        }
+
+    }
+
+    /**
+     * Registra una mezcla ejecutada en el tablero.
+     *
+     * @param valorResultante Valor que quedó en la casilla tras la mezcla.
+     * @param casillas Número de casillas que se combinaron.
+     */
+    static void registrarMezcla(int valorResultante, int casillas) {
+
+        if (!activas)
+            return;
+
+        longitudCascada.registrar(casillas);
+
+        EventoMezcla evento = new EventoMezcla();
+
+        if (evento.shouldCommit()) {
+            evento.valorResultante = valorResultante;
+            evento.casillas = casillas;
+            evento.commit();
+        }
+
+    }
+
+    /**
+     * Registra cuántas mezclas produjo una revisión de consecutivos.
+     *
+     * @param mezclas Número de mezclas ejecutadas.
+     */
+    static void registrarMezclasPorMovimiento(int mezclas) {
+
+        if (activas && muestrear())
+            mezclasPorMovimiento.registrar(mezclas);
+
+    }
+
+    /**
+     * Registra el estado del grupo de números tras generar un par aleatorio.
+     *
+     * @param profundidad Profundidad del árbol del grupo de números.
+     */
+    static void registrarSeleccionAleatoria(int profundidad) {
+
+        if (!activas || !muestrear())
+            return;
+
+        profundidadArbol.registrar(profundidad);
+
+        EventoSeleccionAleatoria evento = new EventoSeleccionAleatoria();
+
+        if (evento.shouldCommit()) {
+            evento.profundidadArbol = profundidad;
+            evento.commit();
+        }
+
+    }
+
+    /**
+     * Toma una instantánea de las métricas acumuladas hasta el momento.
+     *
+     * @return Instantánea de las métricas.
+     */
+    public static Instantanea tomarInstantanea() {
+        return new Instantanea();
+    }
+
+    /**
+     * Copia inmutable de las métricas en un momento dado.
+     */
+    public static final class Instantanea {
+
+        private final Map<Operacion, long[]> operaciones;
+        private final double mezclasPorMovimientoPromedio;
+        private final long longitudCascadaMaxima;
+        private final double longitudCascadaPromedio;
+        private final long profundidadArbolMaxima;
+
+        private Instantanea() {
+
+            operaciones = new EnumMap<Operacion, long[]>(Operacion.class);
+
+            for (Operacion operacion : Operacion.values()) {
+
+                Histograma latencia = latencias.get(operacion);
+
+                operaciones.put(operacion, new long[] {
+                    conteos.get(operacion).sum(),
+                    latencia.percentil(50),
+                    latencia.percentil(99),
+                    latencia.getMaximo()
+                });
+            }
+
+            mezclasPorMovimientoPromedio = mezclasPorMovimiento.getPromedio();
+            longitudCascadaMaxima = longitudCascada.getMaximo();
+            longitudCascadaPromedio = longitudCascada.getPromedio();
+            profundidadArbolMaxima = profundidadArbol.getMaximo();
+
+        }
+
+        public long getConteo(Operacion operacion) {
+            return operaciones.get(operacion)[0];
+        }
+
+        public long getLatenciaP50(Operacion operacion) {
+            return operaciones.get(operacion)[1];
+        }
+
+        public long getLatenciaP99(Operacion operacion) {
+            return operaciones.get(operacion)[2];
+        }
+
+        public long getLatenciaMaxima(Operacion operacion) {
+            return operaciones.get(operacion)[3];
+        }
+
+        public double getMezclasPorMovimientoPromedio() {
+            return mezclasPorMovimientoPromedio;
+        }
+
+        public long getLongitudCascadaMaxima() {
+            return longitudCascadaMaxima;
+        }
+
+        public double getLongitudCascadaPromedio() {
+            return longitudCascadaPromedio;
+        }
+
+        public long getProfundidadArbolMaxima() {
+            return profundidadArbolMaxima;
+        }
+
+        @Override
+        public String toString() {
+
+            StringBuilder texto = new StringBuilder();
+
+            for (Operacion operacion : Operacion.values()) {
+                texto.append(String.format(
+                    "%-20s conteo=%d p50=%dns p99=%dns max=%dns%n",
+                    operacion,
+                    getConteo(operacion),
+                    getLatenciaP50(operacion),
+                    getLatenciaP99(operacion),
+                    getLatenciaMaxima(operacion)
+                ));
+            }
+
+            texto.append(String.format("Mezclas por movimiento: %.3f%n", mezclasPorMovimientoPromedio));
+            texto.append(String.format("Longitud de cascada: promedio=%.2f max=%d%n", longitudCascadaPromedio, longitudCascadaMaxima));
+            texto.append(String.format("Profundidad del árbol: max=%d%n", profundidadArbolMaxima));
+
+            return texto.toString();
+        }
+
+    }
+
+    @Name("juegotablero.Operacion")
+    @Label("Operación del tablero")
+    @Category("Juego de tablero")
+    static class EventoOperacion extends Event {
+
+        @Label("Operación")
+        String operacion;
+
+        @Label("Duración")
+        @Timespan(Timespan.NANOSECONDS)
+        long duracionOperacion;
+
+    }
+
+    @Name("juegotablero.Mezcla")
+    @Label("Mezcla")
+    @Category("Juego de tablero")
+    @Description("Mezcla de números consecutivos en el tablero")
+    static class EventoMezcla extends Event {
+
+        @Label("Valor resultante")
+        int valorResultante;
+
+        @Label("Casillas combinadas")
+        int casillas;
+
+    }
+
+    @Name("juegotablero.SeleccionAleatoria")
+    @Label("Selección aleatoria")
+    @Category("Juego de tablero")
+    @Description("Generación de un par aleatorio del grupo de números")
+    static class EventoSeleccionAleatoria extends Event {
+
+        @Label("Profundidad del árbol")
+        int profundidadArbol;
+
+    }
+
+}
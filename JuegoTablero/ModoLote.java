@@ -0,0 +1,326 @@
+package JuegoTablero;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Modo no interactivo del juego, que toma los movimientos de un archivo o de la entrada estándar.
+ *
+ * <p>
+ * Los movimientos se leen como en el modo interactivo: una casilla <code>x,y</code> por línea, primero
+ * la del primer número del par y luego la del segundo. Las líneas con formato incorrecto, fuera del
+ * tablero o que apuntan a una casilla ocupada se descartan y se usa la siguiente, igual que cuando
+ * el jugador vuelve a escribir la casilla.
+ * </p>
+ *
+ * <p>
+ * Se juegan varias partidas seguidas con los mismos movimientos de entrada: al terminar una partida,
+ * la siguiente continúa leyendo desde donde se quedó la anterior. Al final sólo se imprime un resumen.
+ * </p>
+ *
+ * <p>
+ * Opciones:
+ * <ul>
+ * <li> <code>--archivo ruta</code>: archivo de movimientos. Por defecto, la entrada estándar. </li>
+ * <li> <code>--partidas n</code>: número máximo de partidas. Por defecto, hasta agotar la entrada. </li>
+ * <li> <code>--dimension n</code>, <code>--maximo n</code>, <code>--consecutivos n</code>: parámetros del
+ *      tablero. Por defecto, 7, 7 y 3, como en el modo interactivo. </li>
+ * <li> <code>--almacenamiento forma</code>: <code>COLAS</code>, <code>EMPAQUETADO</code> o <code>POR_BLOQUES</code>.
+ *      Por defecto, <code>COLAS</code>. </li>
+ * <li> <code>--tableros nuevos|reutilizados</code>: si cada partida crea su tablero o lo toma de un
+ *      {@link PoolTableros}. Por defecto, <code>nuevos</code>. </li>
+ * <li> <code>--semilla n</code>: semilla de los pares aleatorios. La partida <i>i</i> (desde 0) usa la semilla
+ *      <code>n + i</code>, así que con la misma entrada se repiten las mismas partidas. Por defecto, una semilla
+ *      tomada del reloj, que se imprime en el resumen. </li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * El resumen incluye la memoria reservada por el hilo que juega y las recolecciones de basura ocurridas
+ * durante la ejecución, para comparar ambas formas de obtener los tableros.
+ * </p>
+ */
+public class ModoLote {
+
+    private String archivo = null;
+    private long partidasMaximas = Long.MAX_VALUE;
+    private int dimension = 7;
+    private int numeroMaximo = 7;
+    private int consecutivosNecesarios = 3;
+    private Almacenamiento almacenamiento = Almacenamiento.COLAS;
+    private PoolTableros pool = null;
+    private long semilla = System.nanoTime();
+
+    private long partidas;
+    private long ganadas;
+    private long perdidas;
+    private long incompletas;
+    private long turnos;
+    private long movimientos;
+    private long movimientosDescartados;
+
+    /**
+     * Constructor de la clase ModoLote.
+     *
+     * @param argumentos Opciones de línea de comandos, sin incluir <code>--lote</code>.
+     * @throws IllegalArgumentException Si alguna opción no es válida.
+     */
+    public ModoLote(String[] argumentos) {
+
+        for (int i = 0; i < argumentos.length; i++) {
+
+            String opcion = argumentos[i];
+
+            if (i + 1 >= argumentos.length)
+                throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+
+            String valor = argumentos[++i];
+
+            switch (opcion) {
+                case "--archivo":
+                    archivo = valor;
+                    break;
+                case "--partidas":
+                    partidasMaximas = Long.parseLong(valor);
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(valor);
+                    break;
+                case "--maximo":
+                    numeroMaximo = Integer.parseInt(valor);
+                    break;
+                case "--consecutivos":
+                    consecutivosNecesarios = Integer.parseInt(valor);
+                    break;
+                case "--almacenamiento":
+                    almacenamiento = Almacenamiento.valueOf(valor);
+                    break;
+                case "--tableros":
+                    if (valor.equals("reutilizados"))
+                        pool = new PoolTableros(1);
+                    else if (valor.equals("nuevos"))
+                        pool = null;
+                    else
+                        throw new IllegalArgumentException("Valor no válido para --tableros: " + valor);
+                    break;
+                case "--semilla":
+                    semilla = Long.parseLong(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción no válida: " + opcion);
+            }
+        }
+
+        // Se validan los parámetros del tablero antes de empezar a leer la entrada
+        Tablero.validarParametros(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento);
+
+    }
+
+    /**
+     * Juega las partidas con los movimientos de la entrada e imprime el resumen.
+     *
+     * @throws IOException Si ocurre un error al leer la entrada.
+     */
+    public void ejecutar() throws IOException {
+
+        long recoleccionesIniciales = contarRecolecciones();
+        long tiempoRecoleccionInicial = tiempoRecoleccion();
+        long memoriaInicial = memoriaReservada();
+        long inicio = System.nanoTime();
+
+        InputStream entrada = archivo == null ? System.in : new FileInputStream(archivo);
+
+        try {
+
+            LectorCoordenadas lector = new LectorCoordenadas(entrada);
+            boolean hayEntrada = true;
+
+            while (hayEntrada && partidas < partidasMaximas)
+                hayEntrada = jugarPartida(lector);
+
+        } finally {
+            if (archivo != null)
+                entrada.close();
+        }
+
+        long duracion = System.nanoTime() - inicio;
+        long memoria = memoriaReservada();
+
+        imprimirResumen(duracion, memoria < 0 ? -1 : memoria - memoriaInicial,
+            contarRecolecciones() - recoleccionesIniciales, tiempoRecoleccion() - tiempoRecoleccionInicial);
+
+    }
+
+    /**
+     * Juega una partida hasta que se gane, se pierda o se acabe la entrada.
+     *
+     * @return <code>false</code> si la entrada se agotó durante la partida.
+     */
+    private boolean jugarPartida(LectorCoordenadas lector) throws IOException {
+
+        long semillaPartida = semilla + partidas;
+
+        Tablero tablero = pool == null
+            ? new Tablero(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, semillaPartida)
+            : pool.obtener(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, semillaPartida);
+
+        try {
+            return jugarPartida(lector, tablero);
+        } finally {
+            if (pool != null)
+                pool.devolver(tablero);
+        }
+
+    }
+
+    private boolean jugarPartida(LectorCoordenadas lector, Tablero tablero) throws IOException {
+
+        int[][] coordenadas = new int[2][2];
+        int[] parNumeros = new int[2];
+        int turnosPartida = 0;
+
+        while (true) {
+
+            tablero.pedirParAleatorio(parNumeros);
+
+            for (int i = 0; i < 2; i++) {
+
+                if (tablero.getEstado() != Estado.JUGANDO) {
+                    // Con la primera inserción se llenó el tablero
+                    terminarPartida(tablero.getEstado());
+                    return true;
+                }
+
+                if (!insertarSiguiente(lector, tablero, parNumeros[i], coordenadas[i])) {
+
+                    // La entrada terminó antes que la partida. Si no se llegó a insertar ningún
+                    // número, la partida no se cuenta.
+                    if (turnosPartida > 0 || i > 0)
+                        terminarPartida(null);
+
+                    return false;
+                }
+            }
+
+            tablero.revisarConsecutivos(coordenadas[0][0], coordenadas[0][1]);
+            tablero.revisarConsecutivos(coordenadas[1][0], coordenadas[1][1]);
+            turnos++;
+            turnosPartida++;
+
+            if (tablero.getEstado() != Estado.JUGANDO) {
+                terminarPartida(tablero.getEstado());
+                return true;
+            }
+        }
+
+    }
+
+    /**
+     * Inserta el número en la siguiente casilla válida de la entrada.
+     *
+     * @return <code>false</code> si se agotó la entrada.
+     */
+    private boolean insertarSiguiente(LectorCoordenadas lector, Tablero tablero, int numero, int[] coordenada) throws IOException {
+
+        while (lector.siguiente()) {
+
+            int x = lector.getX();
+            int y = lector.getY();
+
+            if (lector.esValida() && x >= 1 && x <= dimension && y >= 1 && y <= dimension
+                    && tablero.insertarNumero(x, y, numero)) {
+
+                coordenada[0] = x;
+                coordenada[1] = y;
+                movimientos++;
+                return true;
+            }
+
+            movimientosDescartados++;
+        }
+
+        return false;
+
+    }
+
+    private void terminarPartida(Estado estado) {
+
+        partidas++;
+
+        if (estado == Estado.GANADO)
+            ganadas++;
+        else if (estado == Estado.PERDIDO)
+            perdidas++;
+        else
+            incompletas++;
+
+    }
+
+    private static long contarRecolecciones() {
+
+        long total = 0;
+
+        for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans())
+            total += Math.max(0, recolector.getCollectionCount());
+
+        return total;
+    }
+
+    private static long tiempoRecoleccion() {
+
+        long total = 0;
+
+        for (GarbageCollectorMXBean recolector : ManagementFactory.getGarbageCollectorMXBeans())
+            total += Math.max(0, recolector.getCollectionTime());
+
+        return total;
+    }
+
+    /**
+     * @return Bytes reservados hasta el momento por el hilo actual, o -1 si la máquina virtual no los mide.
+     */
+    private static long memoriaReservada() {
+
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+
+        if (!(hilos instanceof com.sun.management.ThreadMXBean))
+            return -1;
+
+        return ((com.sun.management.ThreadMXBean) hilos).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void imprimirResumen(long duracionNanos, long memoriaReservada, long recolecciones, long tiempoRecoleccionMilis) {
+
+        double segundos = duracionNanos / 1e9;
+
+        System.out.println("Semilla: " + semilla);
+        System.out.println("Partidas: " + partidas);
+        System.out.println("Ganadas: " + ganadas);
+        System.out.println("Perdidas: " + perdidas);
+        System.out.println("Incompletas: " + incompletas);
+        System.out.println("Turnos: " + turnos);
+        System.out.println(String.format("Turnos por partida: %.2f", partidas == 0 ? 0.0 : (double) turnos / partidas));
+        System.out.println("Movimientos: " + movimientos);
+        System.out.println("Movimientos descartados: " + movimientosDescartados);
+        System.out.println(String.format("Tiempo: %.3f s", segundos));
+        System.out.println(String.format("Partidas por segundo: %.1f", partidas / segundos));
+        System.out.println(String.format("Movimientos por segundo: %.1f", movimientos / segundos));
+
+        if (memoriaReservada >= 0) {
+            System.out.println(String.format("Memoria reservada: %.1f MB", memoriaReservada / 1048576.0));
+            System.out.println(String.format("Memoria reservada por partida: %.0f bytes", partidas == 0 ? 0.0 : (double) memoriaReservada / partidas));
+        }
+
+        System.out.println("Recolecciones de basura: " + recolecciones);
+        System.out.println("Tiempo de recolección: " + tiempoRecoleccionMilis + " ms");
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package JuegoTablero;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+import JuegoTablero.Tablero.Almacenamiento;
+
+/**
+ * Reserva de tableros listos para reutilizarse, una por hilo.
+ *
+ * <p>
+ * Al pedir un tablero se toma uno devuelto previamente por el mismo hilo con la misma forma de
+ * almacenamiento, y se reinicia con {@link Tablero#reiniciar(int, int, int)}; si no hay ninguno,
+ * se crea uno nuevo. Como cada hilo tiene su propia reserva, no se necesita sincronización, pero un
+ * tablero debe devolverse desde el hilo que lo usó.
+ * </p>
+ *
+ * <p>
+ * Al devolver un tablero terminan las suscripciones a sus eventos ({@link Tablero#getEventos()}), para que quien
+ * lo reciba después no comparta los eventos de su juego con los observadores del juego anterior.
+ * </p>
+ */
+public class PoolTableros {
+
+    private final int capacidadPorHilo;
+
+    private final ThreadLocal<Map<Almacenamiento, ArrayDeque<Tablero>>> reservas;
+
+    /**
+     * Constructor de la clase PoolTableros.
+     *
+     * @param capacidadPorHilo Número máximo de tableros que se guardan por hilo y forma de almacenamiento.
+     */
+    public PoolTableros(int capacidadPorHilo) {
+
+        this.capacidadPorHilo = capacidadPorHilo;
+
+        reservas = ThreadLocal.withInitial(() -> {
+
+            Map<Almacenamiento, ArrayDeque<Tablero>> reserva = new EnumMap<Almacenamiento, ArrayDeque<Tablero>>(Almacenamiento.class);
+
+            for (Almacenamiento almacenamiento : Almacenamiento.values())
+                reserva.put(almacenamiento, new ArrayDeque<Tablero>());
+
+            return reserva;
+        });
+
+    }
+
+    /**
+     * Obtiene un tablero con casillas en colas.
+     *
+     * @see #obtener(int, int, int, Almacenamiento)
+     */
+    public Tablero obtener(int dimension, int numeroMaximo, int consecutivosNecesarios) {
+        return obtener(dimension, numeroMaximo, consecutivosNecesarios, Almacenamiento.COLAS);
+    }
+
+    /**
+     * Obtiene un tablero listo para comenzar un juego.
+     *
+     * @param dimension Dimensión del tablero.
+     * @param numeroMaximo Número máximo que puede generarse en el tablero para ganar el juego.
+     * @param consecutivosNecesarios Número de veces que se deben generar de manera consecutiva un número para que se mezclen.
+     * @param almacenamiento Forma en la que se almacenan las casillas.
+     * @return Un tablero reiniciado de la reserva del hilo, o uno nuevo si la reserva está vacía.
+     * @throws IllegalArgumentException Si alguno de los parámetros no es válido.
+     */
+    public Tablero obtener(int dimension, int numeroMaximo, int consecutivosNecesarios, Almacenamiento almacenamiento) {
+
+        Tablero tablero = reservas.get().get(almacenamiento).pollLast();
+
+        if (tablero == null)
+            return new Tablero(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento);
+
+        tablero.reiniciar(dimension, numeroMaximo, consecutivosNecesarios);
+
+        return tablero;
+
+    }
+
+    /**
+     * Obtiene un tablero listo para comenzar un juego, con una semilla para los pares aleatorios.
+     *
+     * @param dimension Dimensión del tablero.
+     * @param numeroMaximo Número máximo que puede generarse en el tablero para ganar el juego.
+     * @param consecutivosNecesarios Número de veces que se deben generar de manera consecutiva un número para que se mezclen.
+     * @param almacenamiento Forma en la que se almacenan las casillas.
+     * @param semilla Semilla del generador de pares aleatorios.
+     * @return Un tablero reiniciado de la reserva del hilo, o uno nuevo si la reserva está vacía.
+     * @throws IllegalArgumentException Si alguno de los parámetros no es válido.
+     */
+    public Tablero obtener(int dimension, int numeroMaximo, int consecutivosNecesarios, Almacenamiento almacenamiento, long semilla) {
+
+        Tablero tablero = reservas.get().get(almacenamiento).pollLast();
+
+        if (tablero == null)
+            return new Tablero(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, semilla);
+
+        tablero.reiniciar(dimension, numeroMaximo, consecutivosNecesarios, semilla);
+
+        return tablero;
+
+    }
+
+    /**
+     * Devuelve un tablero a la reserva del hilo actual y termina las suscripciones a sus eventos. Si la reserva
+     * está llena, el tablero se descarta.
+     *
+     * @param tablero Tablero que ya no se usará.
+     */
+    public void devolver(Tablero tablero) {
+
+        tablero.terminarEventos();
+
+        ArrayDeque<Tablero> reserva = reservas.get().get(tablero.getAlmacenamiento());
+
+        if (reserva.size() < capacidadPorHilo)
+            reserva.addLast(tablero);
+
+    }
+
+}
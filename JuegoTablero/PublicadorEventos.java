@@ -0,0 +1,343 @@
+package JuegoTablero;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Publicador de los lotes de eventos de un tablero.
+ *
+ * <p>
+ * Cada suscriptor tiene su propia cola de lotes pendientes, y los lotes se le entregan en el ejecutor según la
+ * demanda que pida, uno a la vez. Publicar un lote sólo lo agrega a las colas, por lo que el tablero nunca espera
+ * a sus observadores.
+ * </p>
+ *
+ * <p>
+ * Cuando un suscriptor acumula más de {@value #LOTES_PENDIENTES_MAXIMOS} lotes sin pedirlos, sus lotes pendientes
+ * se combinan en uno solo que contiene el valor final de cada casilla afectada ({@link EventoTablero.Tipo#CASILLA_ACTUALIZADA}),
+ * los números agregados y el último estado. Así, un observador lento recibe menos lotes pero sigue pudiendo
+ * reconstruir el tablero, y la memoria que ocupa su cola no crece más allá de las casillas del tablero.
+ * </p>
+ *
+ * <p>
+ * Al terminar el publicador ({@link #terminar()}), cada suscriptor recibe los lotes que ya tenía pendientes y
+ * después <code>onComplete</code>; quien se suscriba más tarde recibe <code>onComplete</code> de inmediato.
+ * </p>
+ */
+class PublicadorEventos implements Flow.Publisher<List<EventoTablero>> {
+
+    static final int LOTES_PENDIENTES_MAXIMOS = 16;
+
+    private final Executor ejecutor;
+    private final List<Suscripcion> suscripciones = new CopyOnWriteArrayList<Suscripcion>();
+    private volatile boolean terminado = false;
+
+    PublicadorEventos(Executor ejecutor) {
+        this.ejecutor = ejecutor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<EventoTablero>> suscriptor) {
+
+        Suscripcion suscripcion = new Suscripcion(suscriptor);
+
+        if (terminado) {
+            suscripcion.terminar();
+        } else {
+            suscripciones.add(suscripcion);
+        }
+
+        suscripcion.iniciar();
+
+    }
+
+    boolean tieneSuscriptores() {
+        return !suscripciones.isEmpty();
+    }
+
+    /**
+     * Agrega un lote a la cola de cada suscriptor.
+     *
+     * @param lote Eventos de un turno. No debe modificarse después de publicarse.
+     */
+    void publicar(List<EventoTablero> lote) {
+
+        List<EventoTablero> inmutable = Collections.unmodifiableList(lote);
+
+        for (Suscripcion suscripcion : suscripciones)
+            suscripcion.agregar(inmutable);
+
+    }
+
+    /**
+     * Deja de aceptar lotes y termina todas las suscripciones, después de entregar lo que ya se había publicado.
+     */
+    void terminar() {
+
+        terminado = true;
+
+        for (Suscripcion suscripcion : suscripciones)
+            suscripcion.terminar();
+
+        suscripciones.clear();
+
+    }
+
+    /**
+     * Suscripción de un observador. Las señales al suscriptor se envían desde una sola tarea del ejecutor a la vez,
+     * por lo que nunca se traslapan.
+     */
+    private class Suscripcion implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super List<EventoTablero>> suscriptor;
+
+        // Protegidos por el monitor de la suscripción
+        private final ArrayDeque<List<EventoTablero>> pendientes = new ArrayDeque<List<EventoTablero>>();
+        private long demanda = 0;
+        private boolean cancelada = false;
+        private boolean terminada = false;
+        private boolean programada = false;
+        private Throwable error = null;
+
+        private boolean iniciada = false;
+
+        private Suscripcion(Flow.Subscriber<? super List<EventoTablero>> suscriptor) {
+            this.suscriptor = suscriptor;
+        }
+
+        private void iniciar() {
+
+            synchronized (this) {
+                programada = true;
+            }
+
+            // onSubscribe también se envía desde el ejecutor, antes que cualquier lote
+            ejecutor.execute(this);
+
+        }
+
+        private void terminar() {
+
+            synchronized (this) {
+
+                if (cancelada)
+                    return;
+
+                terminada = true;
+
+                if (!programar())
+                    return;
+            }
+
+            ejecutor.execute(this);
+
+        }
+
+        private void agregar(List<EventoTablero> lote) {
+
+            synchronized (this) {
+
+                if (cancelada)
+                    return;
+
+                pendientes.addLast(lote);
+
+                if (pendientes.size() > LOTES_PENDIENTES_MAXIMOS) {
+                    List<EventoTablero> combinado = combinar(pendientes);
+                    pendientes.clear();
+                    pendientes.addLast(combinado);
+                }
+
+                if (!programar())
+                    return;
+            }
+
+            ejecutor.execute(this);
+
+        }
+
+        @Override
+        public void request(long n) {
+
+            synchronized (this) {
+
+                if (cancelada)
+                    return;
+
+                if (n <= 0) {
+                    error = new IllegalArgumentException("La demanda debe ser positiva.");
+                    cancelada = true;
+                    pendientes.clear();
+                } else {
+                    demanda = demanda + n < 0 ? Long.MAX_VALUE : demanda + n;
+                }
+
+                if (!programar())
+                    return;
+            }
+
+            ejecutor.execute(this);
+
+        }
+
+        @Override
+        public void cancel() {
+
+            synchronized (this) {
+                cancelada = true;
+                pendientes.clear();
+            }
+
+            suscripciones.remove(this);
+
+        }
+
+        /**
+         * Marca la suscripción como programada si no lo estaba. Debe llamarse con el monitor tomado.
+         *
+         * @return <code>true</code> si quien llama debe enviar la tarea al ejecutor.
+         */
+        private boolean programar() {
+
+            if (programada)
+                return false;
+
+            programada = true;
+            return true;
+
+        }
+
+        @Override
+        public void run() {
+
+            if (!iniciada) {
+                iniciada = true;
+                suscriptor.onSubscribe(this);
+            }
+
+            while (true) {
+
+                List<EventoTablero> lote;
+                Throwable errorPendiente;
+                boolean completar = false;
+
+                synchronized (this) {
+
+                    errorPendiente = error;
+                    error = null;
+
+                    if (errorPendiente == null && terminada && !cancelada && pendientes.isEmpty()) {
+                        // Ya se entregó todo lo publicado antes de terminar
+                        cancelada = true;
+                        completar = true;
+                    } else if (errorPendiente == null && (cancelada || demanda == 0 || pendientes.isEmpty())) {
+                        programada = false;
+                        return;
+                    }
+
+                    lote = errorPendiente == null && !completar ? pendientes.pollFirst() : null;
+
+                    if (lote != null)
+                        demanda--;
+                }
+
+                if (completar) {
+                    suscriptor.onComplete();
+                    continue;
+                }
+
+                if (errorPendiente != null) {
+                    suscripciones.remove(this);
+                    suscriptor.onError(errorPendiente);
+                    continue;
+                }
+
+                try {
+                    suscriptor.onNext(lote);
+                } catch (RuntimeException e) {
+                    // Un suscriptor que falla deja de recibir eventos
+                    cancel();
+                }
+            }
+
+        }
+
+    }
+
+    /**
+     * Combina varios lotes en uno con el valor final de cada casilla afectada, los números agregados y el último estado.
+     */
+    static List<EventoTablero> combinar(Iterable<List<EventoTablero>> lotes) {
+
+        EventoTablero reinicio = null;
+        Map<Long, EventoTablero> casillas = new LinkedHashMap<Long, EventoTablero>();
+        Set<Integer> numeros = new LinkedHashSet<Integer>();
+        Estado estado = null;
+
+        for (List<EventoTablero> lote : lotes) {
+            for (EventoTablero evento : lote) {
+
+                switch (evento.getTipo()) {
+                    case TABLERO_REINICIADO:
+                        // Lo anterior al reinicio ya no importa
+                        reinicio = evento;
+                        casillas.clear();
+                        numeros.clear();
+                        estado = null;
+                        break;
+                    case CASILLA_COLOCADA:
+                    case CASILLA_ACTUALIZADA:
+                        actualizar(casillas, evento.getX(), evento.getY(), evento.getValor());
+                        break;
+                    case CASILLAS_MEZCLADAS:
+                        for (int i = evento.getInicio(); i <= evento.getFin(); i++) {
+                            if (evento.esHorizontal())
+                                actualizar(casillas, i, evento.getY(), 0);
+                            else
+                                actualizar(casillas, evento.getX(), i, 0);
+                        }
+                        actualizar(casillas, evento.getX(), evento.getY(), evento.getValor());
+                        break;
+                    case NUMERO_AGREGADO:
+                        numeros.add(evento.getValor());
+                        break;
+                    case ESTADO_CAMBIADO:
+                        estado = evento.getEstado();
+                        break;
+                }
+            }
+        }
+
+        List<EventoTablero> combinado = new ArrayList<EventoTablero>(casillas.size() + numeros.size() + 2);
+
+        if (reinicio != null)
+            combinado.add(reinicio);
+
+        combinado.addAll(casillas.values());
+
+        for (int numero : numeros)
+            combinado.add(EventoTablero.numeroAgregado(numero));
+
+        if (estado != null)
+            combinado.add(EventoTablero.estadoCambiado(estado));
+
+        return Collections.unmodifiableList(combinado);
+
+    }
+
+    private static void actualizar(Map<Long, EventoTablero> casillas, int x, int y, int valor) {
+        casillas.put(((long) x << 32) | y, EventoTablero.casillaActualizada(x, y, valor));
+    }
+
+}
@@ -0,0 +1,281 @@
+package JuegoTablero;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Clase que dibuja un tablero en un flujo de salida.
+ *
+ * <p>
+ * Cada cuadro se escribe en un único arreglo de bytes que se reutiliza entre cuadros, y se envía
+ * al flujo con una sola escritura. Se tienen dos modos:
+ * <ul>
+ * <li> Completo: se escribe el tablero entero, con el mismo formato que {@link Tablero#mostrarTablero()}. </li>
+ * <li> ANSI incremental: el primer cuadro limpia la pantalla y dibuja el tablero entero; los siguientes
+ *      sólo mueven el cursor a las casillas que cambiaron desde el cuadro anterior y las reescriben. </li>
+ * </ul>
+ * </p>
+ */
+public class Renderizador {
+
+    public enum Modo {
+        COMPLETO,
+        ANSI_INCREMENTAL
+    }
+
+    private static final byte ESC = 0x1B;
+
+    private final Tablero tablero;
+    private final OutputStream salida;
+    private final Modo modo;
+
+    /**
+     * Arreglo en el que se construye cada cuadro antes de escribirlo.
+     */
+    private byte[] buffer;
+    private int posicion;
+
+    /**
+     * Valores de las casillas en el cuadro anterior, por filas. Sólo se usa en modo incremental.
+     */
+    private int[] cuadroAnterior;
+    private int[] filaActual;
+    private boolean hayCuadroAnterior;
+
+    /**
+     * Constructor de la clase Renderizador.
+     *
+     * @param tablero Tablero a dibujar.
+     * @param salida Flujo en el que se escribirán los cuadros.
+     * @param modo Modo de dibujo.
+     */
+    public Renderizador(Tablero tablero, OutputStream salida, Modo modo) {
+        this.tablero = tablero;
+        this.salida = salida;
+        this.modo = modo;
+        buffer = new byte[256];
+        hayCuadroAnterior = false;
+    }
+
+    /**
+     * Dibuja el estado actual del tablero.
+     *
+     * @throws IOException Si ocurre un error al escribir en el flujo de salida.
+     */
+    public void dibujar() throws IOException {
+
+        int dimension = tablero.getDimension();
+        int espacio = contarDigitos(tablero.getNumeroMaximo());
+
+        if (filaActual == null || filaActual.length != dimension) {
+            filaActual = new int[dimension];
+            cuadroAnterior = new int[dimension * dimension];
+            hayCuadroAnterior = false;
+        }
+
+        posicion = 0;
+
+        if (modo == Modo.ANSI_INCREMENTAL && hayCuadroAnterior)
+            escribirCambios(dimension, espacio);
+        else
+            escribirCompleto(dimension, espacio);
+
+        if (posicion > 0) {
+            salida.write(buffer, 0, posicion);
+            salida.flush();
+        }
+
+    }
+
+    /**
+     * Olvida el cuadro anterior, de modo que el siguiente cuadro se dibuje completo.
+     */
+    public void invalidar() {
+        hayCuadroAnterior = false;
+    }
+
+    private void escribirCompleto(int dimension, int espacio) {
+
+        if (modo == Modo.ANSI_INCREMENTAL) {
+            // Se limpia la pantalla y se coloca el cursor al inicio
+            escribirByte(ESC);
+            escribirAscii("[2J");
+            escribirByte(ESC);
+            escribirAscii("[H");
+        }
+
+        // Números de las columnas
+        escribirAscii("   ");
+
+        for (int i = 0; i < dimension; i++) {
+            escribirEntero(i + 1);
+            escribirRepetido((byte) ' ', espacio);
+        }
+
+        escribirByte((byte) '\n');
+        escribirLimite(dimension, espacio);
+
+        for (int i = 0; i < dimension; i++) {
+
+            escribirEntero(i + 1);
+            escribirByte((byte) ' ');
+            escribirByte((byte) '|');
+
+            tablero.copiarFila(i + 1, filaActual);
+
+            for (int j = 0; j < dimension; j++) {
+                escribirCasilla(filaActual[j], espacio);
+                escribirByte((byte) '|');
+            }
+
+            escribirByte((byte) '\n');
+
+            if (modo == Modo.ANSI_INCREMENTAL)
+                System.arraycopy(filaActual, 0, cuadroAnterior, i * dimension, dimension);
+
+        }
+
+        escribirLimite(dimension, espacio);
+        escribirByte((byte) '\n');
+
+        hayCuadroAnterior = true;
+
+    }
+
+    /**
+     * Escribe únicamente las casillas que cambiaron desde el cuadro anterior, colocando el cursor
+     * en cada una con secuencias ANSI. Al terminar, el cursor se deja debajo del tablero.
+     */
+    private void escribirCambios(int dimension, int espacio) {
+
+        boolean huboCambios = false;
+
+        for (int i = 0; i < dimension; i++) {
+
+            tablero.copiarFila(i + 1, filaActual);
+
+            int inicioFila = i * dimension;
+
+            if (Arrays.equals(filaActual, 0, dimension, cuadroAnterior, inicioFila, inicioFila + dimension))
+                continue;
+
+            // La fila i + 1 se dibuja en la línea i + 3 (después de los números de columna y el límite).
+            // Cada casilla comienza después de la etiqueta de la fila, la barra inicial y las casillas previas.
+            int columnaInicial = contarDigitos(i + 1) + 3;
+
+            for (int j = 0; j < dimension; j++) {
+
+                if (filaActual[j] == cuadroAnterior[inicioFila + j])
+                    continue;
+
+                moverCursor(i + 3, columnaInicial + j * (espacio + 1));
+                escribirCasilla(filaActual[j], espacio);
+
+                cuadroAnterior[inicioFila + j] = filaActual[j];
+                huboCambios = true;
+            }
+
+        }
+
+        if (huboCambios)
+            moverCursor(dimension + 5, 1);
+
+    }
+
+    private void escribirLimite(int dimension, int espacio) {
+
+        escribirAscii("  ");
+        escribirRepetido((byte) '-', dimension * (espacio + 1) + 1);
+        escribirByte((byte) '\n');
+
+    }
+
+    /**
+     * Escribe el valor de una casilla alineado a la derecha en un espacio fijo, o sólo espacios si está vacía.
+     */
+    private void escribirCasilla(int valor, int espacio) {
+
+        if (valor == 0) {
+            escribirRepetido((byte) ' ', espacio);
+            return;
+        }
+
+        escribirRepetido((byte) ' ', espacio - contarDigitos(valor));
+        escribirEntero(valor);
+
+    }
+
+    private void moverCursor(int linea, int columna) {
+
+        escribirByte(ESC);
+        escribirByte((byte) '[');
+        escribirEntero(linea);
+        escribirByte((byte) ';');
+        escribirEntero(columna);
+        escribirByte((byte) 'H');
+
+    }
+
+    private void escribirEntero(int valor) {
+
+        int digitos = contarDigitos(valor);
+
+        asegurarCapacidad(digitos);
+
+        for (int i = posicion + digitos - 1; i >= posicion; i--) {
+            buffer[i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        }
+
+        posicion += digitos;
+
+    }
+
+    private void escribirAscii(String texto) {
+
+        asegurarCapacidad(texto.length());
+
+        for (int i = 0; i < texto.length(); i++)
+            buffer[posicion++] = (byte) texto.charAt(i);
+
+    }
+
+    private void escribirRepetido(byte caracter, int veces) {
+
+        if (veces <= 0)
+            return;
+
+        asegurarCapacidad(veces);
+        Arrays.fill(buffer, posicion, posicion + veces, caracter);
+        posicion += veces;
+
+    }
+
+    private void escribirByte(byte caracter) {
+
+        asegurarCapacidad(1);
+        buffer[posicion++] = caracter;
+
+    }
+
+    private void asegurarCapacidad(int adicional) {
+
+        if (posicion + adicional > buffer.length)
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, posicion + adicional));
+
+    }
+
+    private static int contarDigitos(int valor) {
+
+        int digitos = 1;
+
+        while (valor >= 10) {
+            valor /= 10;
+            digitos++;
+        }
+
+        return digitos;
+    }
+
+}
@@ -0,0 +1,482 @@
+package JuegoTablero;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Calcula la probabilidad exacta de ganar con la mejor colocación posible en tableros pequeños.
+ *
+ * <p>
+ * Se recorre todo el árbol del juego: en cada turno se promedian los pares posibles, que son igual de probables
+ * (como en {@link GeneradorPares}), y para cada par se elige la mejor casilla para cada número. Las reglas son las
+ * de {@link Tablero}: si el primer número llena el tablero se pierde sin colocar el segundo; si lo llena el segundo,
+ * la partida se pierde salvo que las mezclas del turno generen el número máximo.
+ * </p>
+ *
+ * <p>
+ * Cada estado (las casillas y el número más grande del grupo) se empaqueta en dos <code>long</code>, con 4 bits por
+ * casilla, y se reduce a su forma canónica: la menor de sus 8 versiones rotadas y reflejadas, que tienen el mismo
+ * valor porque las reglas no distinguen entre filas y columnas ni entre un lado y otro. Los valores se guardan en
+ * una {@link TablaEstados}, fuera del heap y, si no cabe en el presupuesto de memoria, en archivos mapeados.
+ * </p>
+ *
+ * <p>
+ * Aunque las mezclas vacían casillas, un estado nunca vuelve a aparecer en la misma partida: si se cuentan las
+ * casillas de cada valor, del más grande al más chico, colocar un número aumenta una cuenta, y una mezcla quita
+ * casillas de un valor pero agrega una de un valor mayor. Así, cada turno deja un estado mayor en orden
+ * lexicográfico, y basta con un recorrido en profundidad que guarde el valor de cada estado.
+ * </p>
+ *
+ * <p>
+ * Los estados que resultan del primer turno se reparten entre varios hilos, que comparten la tabla; después, el
+ * estado inicial se calcula con esos resultados.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>Resolvedor [--dimension n] [--maximo n] [--consecutivos n] [--hilos n] [--memoria MB]
+ * [--directorio ruta]</code>. La dimensión debe estar entre 2 y 5 y el número máximo entre 3 y 15. Por defecto,
+ * un tablero de 3x3 con número máximo 4 y 3 consecutivos.
+ * </p>
+ */
+public class Resolvedor {
+
+    private static final int CASILLAS_MAXIMAS = 25;
+    private static final int CASILLAS_EN_BAJO = 16;
+
+    /**
+     * Tamaño de pila de los hilos, porque el recorrido es recursivo y puede ser profundo.
+     */
+    private static final long TAMANO_PILA = 512L << 20;
+
+    private int dimension = 3;
+    private int numeroMaximo = 4;
+    private int consecutivosNecesarios = 3;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private long memoriaBytes = 256L << 20;
+    private Path directorio = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    private int casillas;
+
+    /**
+     * Por cada una de las 8 simetrías del cuadrado, la casilla a la que se mueve cada casilla.
+     */
+    private int[][] simetrias;
+
+    private TablaEstados tabla;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+
+        Resolvedor resolvedor = new Resolvedor(args);
+        long inicio = System.nanoTime();
+        double probabilidad = resolvedor.resolver();
+
+        System.out.println(String.format("Probabilidad de ganar: %.12f", probabilidad));
+        System.out.println("Estados: " + resolvedor.tabla.getTamano());
+        System.out.println(String.format("Memoria directa: %.1f MB", resolvedor.tabla.getBytesDirectos() / 1048576.0));
+        System.out.println(String.format("Memoria mapeada: %.1f MB", resolvedor.tabla.getBytesMapeados() / 1048576.0));
+        System.out.println(String.format("Tiempo: %.3f s", (System.nanoTime() - inicio) / 1e9));
+
+    }
+
+    /**
+     * Constructor de la clase Resolvedor.
+     *
+     * @param argumentos Opciones de línea de comandos.
+     * @throws IllegalArgumentException Si alguna opción no es válida.
+     */
+    public Resolvedor(String[] argumentos) {
+
+        for (int i = 0; i < argumentos.length; i++) {
+
+            String opcion = argumentos[i];
+
+            if (i + 1 >= argumentos.length)
+                throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+
+            String valor = argumentos[++i];
+
+            switch (opcion) {
+                case "--dimension":
+                    dimension = Integer.parseInt(valor);
+                    break;
+                case "--maximo":
+                    numeroMaximo = Integer.parseInt(valor);
+                    break;
+                case "--consecutivos":
+                    consecutivosNecesarios = Integer.parseInt(valor);
+                    break;
+                case "--hilos":
+                    hilos = Math.max(1, Integer.parseInt(valor));
+                    break;
+                case "--memoria":
+                    memoriaBytes = Long.parseLong(valor) << 20;
+                    break;
+                case "--directorio":
+                    directorio = Paths.get(valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción no válida: " + opcion);
+            }
+        }
+
+        // Mismas restricciones que el tablero, más las del empaquetado
+        Tablero.validarParametros(dimension, numeroMaximo, consecutivosNecesarios);
+
+        if (dimension * dimension > CASILLAS_MAXIMAS)
+            throw new IllegalArgumentException("La dimensión del tablero debe ser a lo más 5.");
+
+        if (numeroMaximo < 3 || numeroMaximo > 15)
+            throw new IllegalArgumentException("El número máximo debe estar entre 3 y 15.");
+
+        casillas = dimension * dimension;
+        simetrias = calcularSimetrias(dimension);
+
+    }
+
+    /**
+     * Calcula la probabilidad de ganar desde el tablero vacío con el grupo {1, 2}.
+     *
+     * @return Probabilidad de ganar jugando de la mejor manera.
+     */
+    public double resolver() throws InterruptedException, ExecutionException {
+
+        tabla = new TablaEstados(memoriaBytes, directorio);
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(null, tarea, "resolvedor", TAMANO_PILA);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        try {
+            return resolver(ejecutor);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+
+    }
+
+    private double resolver(ExecutorService ejecutor) throws InterruptedException, ExecutionException {
+
+        int[] vacio = new int[casillas];
+        long[] raiz = new long[2];
+
+        canonizar(vacio, 2, raiz);
+
+        // Se calculan primero, en paralelo, los estados distintos a los que lleva el primer turno
+        List<long[]> hijos = new ArrayList<long[]>();
+        int[] trabajo = new int[casillas];
+        long[] hijo = new long[2];
+
+        for (int primero = 0; primero < casillas; primero++) {
+            for (int segundo = 0; segundo < casillas; segundo++) {
+
+                if (segundo == primero)
+                    continue;
+
+                for (int a = 1; a <= 2; a++) {
+
+                    Arrays.fill(trabajo, 0);
+                    trabajo[primero] = a;
+                    trabajo[segundo] = 3 - a;
+
+                    canonizar(trabajo, 2, hijo);
+
+                    if (!contiene(hijos, hijo))
+                        hijos.add(hijo.clone());
+                }
+            }
+        }
+
+        List<Future<?>> tareas = new ArrayList<Future<?>>();
+
+        for (long[] estado : hijos)
+            tareas.add(ejecutor.submit(() -> new Recorrido().valor(estado[0], estado[1])));
+
+        for (Future<?> tarea : tareas)
+            tarea.get();
+
+        return ejecutor.submit(() -> new Recorrido().valor(raiz[0], raiz[1])).get();
+
+    }
+
+    private static boolean contiene(List<long[]> estados, long[] estado) {
+
+        for (long[] otro : estados)
+            if (otro[0] == estado[0] && otro[1] == estado[1])
+                return true;
+
+        return false;
+
+    }
+
+    /**
+     * Recorrido en profundidad de un hilo. Dos hilos pueden llegar al mismo estado y calcularlo a la vez; ambos
+     * obtienen el mismo valor, así que no hace falta coordinarlos.
+     */
+    private class Recorrido {
+
+        /**
+         * Probabilidad de ganar desde un estado canónico, al inicio de un turno.
+         */
+        private double valor(long alto, long bajo) {
+
+            double guardado = tabla.buscar(alto, bajo);
+
+            if (!Double.isNaN(guardado))
+                return guardado;
+
+            double valor = calcular(alto, bajo);
+
+            tabla.guardar(alto, bajo, valor);
+
+            return valor;
+
+        }
+
+        private double calcular(long alto, long bajo) {
+
+            int[] tablero = new int[casillas];
+            int[] trabajo = new int[casillas];
+            long[] hijo = new long[2];
+
+            int grupo = desempaquetar(alto, bajo, tablero);
+            int vacias = 0;
+
+            for (int valor : tablero)
+                if (valor == 0)
+                    vacias++;
+
+            double suma = 0;
+
+            for (int a = 1; a <= grupo; a++) {
+                for (int b = 1; b <= grupo; b++) {
+
+                    if (a == b)
+                        continue;
+
+                    suma += mejorColocacion(tablero, trabajo, hijo, vacias, grupo, a, b);
+                }
+            }
+
+            return suma / (grupo * (grupo - 1));
+
+        }
+
+        /**
+         * Probabilidad de ganar con la mejor colocación del par (a, b).
+         */
+        private double mejorColocacion(int[] tablero, int[] trabajo, long[] hijo, int vacias, int grupo, int a, int b) {
+
+            // Si el primer número llena el tablero, se pierde
+            if (vacias == 1)
+                return 0;
+
+            double mejor = 0;
+
+            for (int primera = 0; primera < casillas; primera++) {
+
+                if (tablero[primera] != 0)
+                    continue;
+
+                for (int segunda = 0; segunda < casillas; segunda++) {
+
+                    if (segunda == primera || tablero[segunda] != 0)
+                        continue;
+
+                    System.arraycopy(tablero, 0, trabajo, 0, casillas);
+                    trabajo[primera] = a;
+                    trabajo[segunda] = b;
+
+                    boolean perdido = vacias == 2;
+                    int grupoNuevo = grupo;
+                    boolean ganado = false;
+
+                    // Se mezcla primero la casilla del primer número y luego la del segundo
+                    for (int paso = 0; paso < 2; paso++) {
+
+                        int resultado = mezclar(trabajo, paso == 0 ? primera : segunda);
+
+                        if (resultado == numeroMaximo)
+                            ganado = true;
+                        else if (resultado > grupoNuevo)
+                            grupoNuevo = resultado;
+                    }
+
+                    double valor;
+
+                    if (ganado) {
+                        valor = 1;
+                    } else if (perdido) {
+                        valor = 0;
+                    } else {
+                        canonizar(trabajo, grupoNuevo, hijo);
+                        valor = valor(hijo[0], hijo[1]);
+                    }
+
+                    if (valor > mejor) {
+                        mejor = valor;
+
+                        if (mejor == 1)
+                            return 1;
+                    }
+                }
+            }
+
+            return mejor;
+
+        }
+
+    }
+
+    /**
+     * Ejecuta las mezclas horizontal y vertical de una casilla, como {@link Tablero#revisarConsecutivos(int, int)}.
+     *
+     * @return Valor que quedó en la casilla, o 0 si no hubo mezcla.
+     */
+    private int mezclar(int[] tablero, int casilla) {
+
+        int valor = tablero[casilla];
+
+        if (valor == 0)
+            return 0;
+
+        int x = casilla % dimension;
+        int y = casilla / dimension;
+
+        int izquierda = contarIguales(tablero, x, y, -1, 0, valor);
+        int derecha = contarIguales(tablero, x, y, 1, 0, valor);
+        int arriba = contarIguales(tablero, x, y, 0, -1, valor);
+        int abajo = contarIguales(tablero, x, y, 0, 1, valor);
+
+        boolean horizontal = 1 + izquierda + derecha >= consecutivosNecesarios;
+        boolean vertical = 1 + arriba + abajo >= consecutivosNecesarios;
+
+        if (!horizontal && !vertical)
+            return 0;
+
+        if (horizontal)
+            for (int i = x - izquierda; i <= x + derecha; i++)
+                tablero[y * dimension + i] = 0;
+
+        if (vertical)
+            for (int i = y - arriba; i <= y + abajo; i++)
+                tablero[i * dimension + x] = 0;
+
+        tablero[casilla] = valor + 1;
+
+        return valor + 1;
+
+    }
+
+    private int contarIguales(int[] tablero, int x, int y, int dx, int dy, int valor) {
+
+        int cuenta = 0;
+
+        x += dx;
+        y += dy;
+
+        while (x >= 0 && x < dimension && y >= 0 && y < dimension && tablero[y * dimension + x] == valor) {
+            cuenta++;
+            x += dx;
+            y += dy;
+        }
+
+        return cuenta;
+
+    }
+
+    /**
+     * Empaqueta el estado en su forma canónica: la menor de sus 8 versiones simétricas.
+     *
+     * @param estado Arreglo donde se escriben la parte alta y la baja.
+     */
+    void canonizar(int[] tablero, int grupo, long[] estado) {
+
+        long mejorAlto = 0;
+        long mejorBajo = 0;
+
+        for (int s = 0; s < simetrias.length; s++) {
+
+            int[] destino = simetrias[s];
+            long alto = (long) grupo << 60;
+            long bajo = 0;
+
+            for (int casilla = 0; casilla < casillas; casilla++) {
+
+                long valor = tablero[casilla];
+                int posicion = destino[casilla];
+
+                if (posicion < CASILLAS_EN_BAJO)
+                    bajo |= valor << (4 * posicion);
+                else
+                    alto |= valor << (4 * (posicion - CASILLAS_EN_BAJO));
+            }
+
+            int comparacion = s == 0 ? -1 : Long.compareUnsigned(alto, mejorAlto);
+
+            if (comparacion < 0 || (comparacion == 0 && Long.compareUnsigned(bajo, mejorBajo) < 0)) {
+                mejorAlto = alto;
+                mejorBajo = bajo;
+            }
+        }
+
+        estado[0] = mejorAlto;
+        estado[1] = mejorBajo;
+
+    }
+
+    /**
+     * @return El número más grande del grupo.
+     */
+    int desempaquetar(long alto, long bajo, int[] tablero) {
+
+        for (int casilla = 0; casilla < casillas; casilla++) {
+            if (casilla < CASILLAS_EN_BAJO)
+                tablero[casilla] = (int) (bajo >>> (4 * casilla)) & 0xF;
+            else
+                tablero[casilla] = (int) (alto >>> (4 * (casilla - CASILLAS_EN_BAJO))) & 0xF;
+        }
+
+        return (int) (alto >>> 60);
+
+    }
+
+    /**
+     * Calcula las 8 simetrías del cuadrado (4 rotaciones, cada una con y sin reflejo) como permutaciones de casillas.
+     */
+    private static int[][] calcularSimetrias(int dimension) {
+
+        int[][] simetrias = new int[8][dimension * dimension];
+
+        for (int s = 0; s < 8; s++) {
+            for (int y = 0; y < dimension; y++) {
+                for (int x = 0; x < dimension; x++) {
+
+                    int nuevoX = (s & 4) != 0 ? dimension - 1 - x : x;
+                    int nuevoY = y;
+
+                    // Se rota 90 grados tantas veces como indiquen los dos bits bajos
+                    for (int giro = 0; giro < (s & 3); giro++) {
+                        int temporal = nuevoX;
+                        nuevoX = dimension - 1 - nuevoY;
+                        nuevoY = temporal;
+                    }
+
+                    simetrias[s][y * dimension + x] = nuevoY * dimension + nuevoX;
+                }
+            }
+        }
+
+        return simetrias;
+
+    }
+
+}
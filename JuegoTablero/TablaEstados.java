@@ -0,0 +1,300 @@
+package JuegoTablero;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tabla hash fuera del heap que asocia estados de 128 bits con un valor.
+ *
+ * <p>
+ * Cada entrada ocupa 24 bytes (dos <code>long</code> de llave y un <code>double</code>), y
+ * se resuelven las colisiones con sondeo lineal. La tabla se divide en segmentos independientes, cada uno con su
+ * propio candado y su propio arreglo, que crece al pasar de 70% de ocupación sin detener a los demás segmentos.
+ * </p>
+ *
+ * <p>
+ * Mientras la memoria reservada no pase del presupuesto, los segmentos se guardan en buffers directos. Cuando un
+ * segmento crece más allá del presupuesto, su nuevo arreglo se guarda en un archivo mapeado en memoria, de modo que
+ * el sistema operativo puede llevar a disco las partes que no se usan. El archivo se borra en cuanto se mapea; si el
+ * sistema no lo permite mientras está mapeado, se vuelve a intentar al pasar el segmento a un arreglo nuevo. La
+ * llave (0, 0) no es válida, porque marca los lugares vacíos.
+ * </p>
+ */
+class TablaEstados {
+
+    private static final int BYTES_ENTRADA = 24;
+    private static final int BITS_SEGMENTOS = 6;
+    private static final int SEGMENTOS = 1 << BITS_SEGMENTOS;
+    private static final int CAPACIDAD_INICIAL = 1 << 10;
+
+    /**
+     * Capacidad máxima de un segmento, una potencia de dos para que su arreglo quepa en un solo buffer.
+     */
+    private static final int CAPACIDAD_MAXIMA = Integer.highestOneBit((1 << 30) / BYTES_ENTRADA);
+
+    private final long presupuestoBytes;
+    private final Path directorio;
+    private final AtomicLong bytesDirectos = new AtomicLong();
+    private final AtomicLong bytesMapeados = new AtomicLong();
+    private final Segmento[] segmentos = new Segmento[SEGMENTOS];
+
+    /**
+     * @param presupuestoBytes Memoria fuera del heap que puede reservarse antes de usar archivos mapeados.
+     * @param directorio Directorio donde se crean los archivos mapeados.
+     */
+    TablaEstados(long presupuestoBytes, Path directorio) {
+
+        this.presupuestoBytes = presupuestoBytes;
+        this.directorio = directorio;
+
+        for (int i = 0; i < SEGMENTOS; i++)
+            segmentos[i] = new Segmento();
+
+    }
+
+    /**
+     * Busca un estado.
+     *
+     * @return El valor guardado, o <code>NaN</code> si el estado no está en la tabla.
+     */
+    double buscar(long alto, long bajo) {
+
+        long hash = mezclar(alto, bajo);
+
+        return segmentos[(int) (hash >>> (64 - BITS_SEGMENTOS))].buscar(alto, bajo, hash);
+    }
+
+    /**
+     * Guarda o reemplaza el valor de un estado.
+     */
+    void guardar(long alto, long bajo, double valor) {
+
+        long hash = mezclar(alto, bajo);
+
+        segmentos[(int) (hash >>> (64 - BITS_SEGMENTOS))].guardar(alto, bajo, hash, valor);
+    }
+
+    /**
+     * @return Número de estados guardados.
+     */
+    long getTamano() {
+
+        long total = 0;
+
+        for (Segmento segmento : segmentos) {
+            synchronized (segmento) {
+                total += segmento.ocupadas;
+            }
+        }
+
+        return total;
+    }
+
+    long getBytesDirectos() {
+        return bytesDirectos.get();
+    }
+
+    long getBytesMapeados() {
+        return bytesMapeados.get();
+    }
+
+    private static long mezclar(long alto, long bajo) {
+
+        long hash = alto * 0x9E3779B97F4A7C15L ^ bajo;
+
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    private class Segmento {
+
+        private ByteBuffer entradas;
+        private boolean mapeado;
+
+        /**
+         * Archivo mapeado del segmento que no se pudo borrar al mapearlo, o <code>null</code>.
+         */
+        private Path archivo;
+        private int capacidad;
+        private int ocupadas;
+
+        private Segmento() {
+            capacidad = CAPACIDAD_INICIAL;
+            entradas = reservar(capacidad);
+        }
+
+        private synchronized double buscar(long alto, long bajo, long hash) {
+
+            int lugar = buscarLugar(alto, bajo, hash);
+            int base = lugar * BYTES_ENTRADA;
+
+            if (entradas.getLong(base) == 0 && entradas.getLong(base + 8) == 0)
+                return Double.NaN;
+
+            return entradas.getDouble(base + 16);
+        }
+
+        private synchronized void guardar(long alto, long bajo, long hash, double valor) {
+
+            int lugar = buscarLugar(alto, bajo, hash);
+            int base = lugar * BYTES_ENTRADA;
+
+            if (entradas.getLong(base) == 0 && entradas.getLong(base + 8) == 0) {
+
+                if ((ocupadas + 1) * 10L > capacidad * 7L) {
+                    crecer();
+                    guardar(alto, bajo, hash, valor);
+                    return;
+                }
+
+                entradas.putLong(base, alto);
+                entradas.putLong(base + 8, bajo);
+                ocupadas++;
+            }
+
+            entradas.putDouble(base + 16, valor);
+
+        }
+
+        /**
+         * @return El lugar donde está el estado, o el lugar vacío donde debe ir.
+         */
+        private int buscarLugar(long alto, long bajo, long hash) {
+
+            int mascara = capacidad - 1;
+            int lugar = (int) hash & mascara;
+
+            while (true) {
+
+                int base = lugar * BYTES_ENTRADA;
+                long altoGuardado = entradas.getLong(base);
+                long bajoGuardado = entradas.getLong(base + 8);
+
+                if ((altoGuardado == alto && bajoGuardado == bajo) || (altoGuardado == 0 && bajoGuardado == 0))
+                    return lugar;
+
+                lugar = (lugar + 1) & mascara;
+            }
+
+        }
+
+        private void crecer() {
+
+            if (capacidad >= CAPACIDAD_MAXIMA)
+                throw new IllegalStateException("Un segmento de la tabla de estados alcanzó su capacidad máxima.");
+
+            ByteBuffer anteriores = entradas;
+            int capacidadAnterior = capacidad;
+            boolean anterioresMapeadas = mapeado;
+            Path archivoAnterior = archivo;
+
+            capacidad *= 2;
+            entradas = reservar(capacidad);
+            ocupadas = 0;
+
+            for (int lugar = 0; lugar < capacidadAnterior; lugar++) {
+
+                int base = lugar * BYTES_ENTRADA;
+                long alto = anteriores.getLong(base);
+                long bajo = anteriores.getLong(base + 8);
+
+                if (alto == 0 && bajo == 0)
+                    continue;
+
+                int nuevoLugar = buscarLugar(alto, bajo, mezclar(alto, bajo));
+                int nuevaBase = nuevoLugar * BYTES_ENTRADA;
+
+                entradas.putLong(nuevaBase, alto);
+                entradas.putLong(nuevaBase + 8, bajo);
+                entradas.putDouble(nuevaBase + 16, anteriores.getDouble(base + 16));
+                ocupadas++;
+            }
+
+            long bytesAnteriores = (long) capacidadAnterior * BYTES_ENTRADA;
+
+            if (anterioresMapeadas)
+                bytesMapeados.addAndGet(-bytesAnteriores);
+            else
+                bytesDirectos.addAndGet(-bytesAnteriores);
+
+            if (archivoAnterior != null)
+                borrar(archivoAnterior);
+
+        }
+
+        /**
+         * Reserva el arreglo del segmento: en memoria directa si cabe en el presupuesto, o en un archivo mapeado.
+         */
+        private ByteBuffer reservar(int nuevaCapacidad) {
+
+            long bytes = (long) nuevaCapacidad * BYTES_ENTRADA;
+
+            mapeado = false;
+            archivo = null;
+
+            if (bytesDirectos.addAndGet(bytes) <= presupuestoBytes)
+                return ByteBuffer.allocateDirect((int) bytes);
+
+            bytesDirectos.addAndGet(-bytes);
+            mapeado = true;
+
+            try {
+
+                Path nuevo = Files.createTempFile(directorio, "estados", ".tabla");
+                ByteBuffer buffer;
+
+                try (FileChannel canal = FileChannel.open(nuevo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+                    // Un archivo recién creado se llena de ceros al mapearlo, que es como se marcan los lugares vacíos
+                    buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+
+                } catch (IOException | RuntimeException e) {
+                    borrar(nuevo);
+                    throw e;
+                }
+
+                bytesMapeados.addAndGet(bytes);
+
+                // En POSIX el mapeo sigue siendo válido sin el nombre del archivo, y el espacio se libera al soltarlo
+                if (!borrar(nuevo))
+                    archivo = nuevo;
+
+                return buffer;
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+        /**
+         * Borra un archivo mapeado. Si no se puede, se deja para borrarse al terminar la máquina virtual.
+         *
+         * @return <code>true</code> si el archivo se borró.
+         */
+        private boolean borrar(Path ruta) {
+
+            try {
+                Files.deleteIfExists(ruta);
+                return true;
+            } catch (IOException e) {
+                ruta.toFile().deleteOnExit();
+                return false;
+            }
+
+        }
+
+    }
+
+}
@@ -1,10 +1,16 @@
 package JuegoTablero;
 
-import java.util.List;
-import java.util.Queue;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.ArrayDeque;
-import ArbolBinario.ABEnterosPositivos;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import ArbolBinario.ArbolBinario;
+import ArbolBinario.ConjuntoAdaptativo;
+import JuegoTablero.Metricas.Operacion;
 
 /**
  * Clase que representa un tablero de mxm casillas con números que se mezclan.
@@ -26,40 +32,16 @@ import ArbolBinario.ABEnterosPositivos;
  *      puede colocarse). </li>
  * </ul>
  * 
- * Para representar el tablero, se emplea una lista de colas, mismas que almacenan objetos de casillas.
+ * Para representar el tablero, por defecto se emplea una lista de colas, mismas que almacenan objetos de casillas.
+ * También pueden empaquetarse las casillas en un arreglo de enteros (ver {@link Almacenamiento}).
  * 
- * Para representar el grupo de números, se emplea un árbol binario.
+ * Para representar el grupo de números, se emplea un {@link ArbolBinario}; por defecto, un
+ * {@link ConjuntoAdaptativo}, que se guarda en un arreglo, un mapa de bits o un árbol según su tamaño y densidad.
  */
 public class Tablero {
 
-    private class Casilla {
-
-        private int valor;
-
-        private Casilla() {
-            valor = 0;
-        }
-
-        private int getValor() {
-            return valor;
-        }
-        
-        private void setValor(int valor) {
-            this.valor = valor;
-        }
-
-        private void vaciar() {
-            valor = 0;
-        }
-
-        private boolean estaVacia() {
-            return valor == 0;
-        }
-
-    }
-    
     /**
-     * Clase que representa un grupo de números a través de un árbol binario.
+     * Clase que representa un grupo de números a través de un {@link ArbolBinario}.
      * 
      * <p>
      * Esta clase se encarga de mantener un registro de los números que pueden insertarse en el tablero,
@@ -69,32 +51,43 @@ public class Tablero {
      */
     private class GrupoNumeros {
         
-        private ABEnterosPositivos numeros;
+        private ArbolBinario numeros;
+
+        /**
+         * Generador de los pares. Elige los números por su posición en el árbol, así que ve los cambios del grupo
+         * sin que se le avise.
+         */
+        private GeneradorPares generador;
 
-        private GrupoNumeros() {
-            numeros = new ABEnterosPositivos();
+        private GrupoNumeros(RandomGenerator aleatorio) {
+            numeros = new ConjuntoAdaptativo();
+            generador = new GeneradorPares(aleatorio, numeros);
         }
 
         private void agregar(int... numerosPorAgregar) {
             numeros.insertar(numerosPorAgregar);
         }
 
-        private boolean contiene(int numero) {
-            return numeros.buscar(numero);
+        private void vaciar() {
+            numeros.vaciar();
         }
 
-        private int[] obtenerParAleatorio() {
+        private void reiniciarGenerador(RandomGenerator aleatorio) {
+            generador.reiniciar(aleatorio);
+        }
 
-            int[] par = new int[2];
+        private boolean contiene(int numero) {
+            return numeros.buscar(numero);
+        }
 
-            par[0] = numeros.obtenerValorAleatorio();
-            par[1] = numeros.obtenerValorAleatorio();
+        private void obtenerParAleatorio(int[] par) {
 
-            while(par[0] == par[1])
-                par[1] = numeros.obtenerValorAleatorio();
+            generador.siguientePar(par);
 
-            return par;
+        }
 
+        private int obtenerProfundidad() {
+            return numeros.getProfundidad();
         }
 
         private int obtenerValorMaximo() {
@@ -103,24 +96,49 @@ public class Tablero {
 
     }
 
+    /**
+     * Mezcla de un tramo horizontal o vertical de casillas consecutivas con el mismo valor.
+     */
     private class ProcesoMezcla {
 
-        private List<Casilla> casillasPorVaciar;
-        private Casilla casillaPorMantener;
+        private int x;
+        private int y;
+        private boolean horizontal;
+        private int inicio;
+        private int fin;
         private int valorMezcla;
-        
-        private ProcesoMezcla(List<Casilla> casillasPorVaciar, Casilla casillaPorMantener, int valorMezcla) {
-            this.casillasPorVaciar = casillasPorVaciar;
-            this.casillaPorMantener = casillaPorMantener;
+
+        /**
+         * @param x Coordenada x de la casilla que se mantiene.
+         * @param y Coordenada y de la casilla que se mantiene.
+         * @param horizontal <code>true</code> si el tramo está en la fila de la casilla, <code>false</code> si está en su columna.
+         * @param inicio Primera coordenada del tramo sobre su eje.
+         * @param fin Última coordenada del tramo sobre su eje.
+         * @param valorMezcla Valor que queda en la casilla que se mantiene.
+         */
+        private ProcesoMezcla(int x, int y, boolean horizontal, int inicio, int fin, int valorMezcla) {
+            this.x = x;
+            this.y = y;
+            this.horizontal = horizontal;
+            this.inicio = inicio;
+            this.fin = fin;
             this.valorMezcla = valorMezcla;
         }
 
         private void ejecutar(){
             
-            for(Casilla casilla : casillasPorVaciar)
-                casilla.vaciar();
+            for(int i = inicio; i <= fin; i++) {
+
+                if (horizontal)
+                    establecerValor(i, y, 0);
+                else
+                    establecerValor(x, i, 0);
+            }
 
-            casillaPorMantener.setValor(valorMezcla);
+            establecerValor(x, y, valorMezcla);
+
+            Metricas.registrarMezcla(valorMezcla, fin - inicio + 1);
+            emitir(EventoTablero.casillasMezcladas(x, y, valorMezcla, horizontal, inicio, fin));
         }
 
     }
@@ -128,9 +146,42 @@ public class Tablero {
     private int dimension;
 
     /**
-     * Lista de colas que representa el tablero.
+     * Número de casillas ocupadas. Se actualiza cada vez que cambia el valor de una casilla.
+     */
+    private long casillasOcupadas;
+
+    /**
+     * Mezclas, horizontal y vertical, que se ejecutaron en la última revisión de consecutivos.
+     */
+    private int mezclasUltimaRevision;
+
+    /**
+     * Casillas del tablero.
+     */
+    private AlmacenamientoCasillas casillas;
+
+    private Almacenamiento almacenamiento;
+
+    /**
+     * Renderizador con el que se imprime el tablero en consola. Se crea al mostrar el tablero por primera vez.
+     */
+    private Renderizador renderizador;
+
+    /**
+     * Índice de las casillas vacías donde cada valor se mezclaría. Sólo existe si se activó.
+     */
+    private IndiceMezclas indiceMezclas;
+
+    /**
+     * Publicador de los eventos del tablero. Se crea al pedirlo por primera vez.
      */
-    private List<Queue<Casilla>> tablero;
+    private PublicadorEventos publicador;
+
+    /**
+     * Eventos del turno en curso, que se publican juntos al pedir el siguiente par o al terminar el juego.
+     * Sólo se acumulan si hay suscriptores.
+     */
+    private List<EventoTablero> loteEventos = new ArrayList<EventoTablero>();
 
     /**
      * Grupo de números que pueden insertarse en el tablero.
@@ -157,6 +208,24 @@ public class Tablero {
 
     private Estado estado;
 
+    /**
+     * Forma en la que se almacenan las casillas del tablero.
+     * 
+     * <ul>
+     * <li>Colas: una cola de objetos de casillas por fila.</li>
+     * <li>Empaquetado: las casillas se guardan en un arreglo de <code>long</code>, con 4, 8 o 16 bits por
+     *     casilla según el número máximo. Ocupa una fracción de la memoria de las colas.</li>
+     * <li>Por bloques: las casillas empaquetadas se dividen en bloques que se reservan al ocuparse y se liberan
+     *     al vaciarse. La memoria depende de las casillas ocupadas, por lo que permite tableros muy grandes
+     *     y casi vacíos.</li>
+     * </ul>
+     */
+    public enum Almacenamiento {
+        COLAS,
+        EMPAQUETADO,
+        POR_BLOQUES
+    }
+
     /**
      * Número máximo que puede generarse en el tablero para ganar el juego.
      */
@@ -176,6 +245,129 @@ public class Tablero {
      * @throws IllegalArgumentException Si la dimensión del tablero es menor a 2, si el número máximo esperado para ganar es menor a 2 o si el número de consecutivos necesarios es menor a 2 o mayor a la dimensión del tablero.
      */
     public Tablero(int dimension, int numeroMaximo, int consecutivosNecesarios) {
+        this(dimension, numeroMaximo, consecutivosNecesarios, Almacenamiento.COLAS);
+    }
+
+    /**
+     * Constructor de la clase Tablero, indicando cómo se almacenan las casillas.
+     * 
+     * @param dimension Dimensión del tablero.
+     * @param numeroMaximo Número máximo que puede generarse en el tablero para ganar el juego.
+     * @param consecutivosNecesarios Número de veces que se deben generar de manera consecutiva un número para que se mezclen.
+     * @param almacenamiento Forma en la que se almacenan las casillas.
+     * @throws IllegalArgumentException Si alguno de los parámetros no es válido, o si el número máximo no puede almacenarse empaquetado.
+     */
+    public Tablero(int dimension, int numeroMaximo, int consecutivosNecesarios, Almacenamiento almacenamiento) {
+        this(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, new SplittableRandom());
+    }
+
+    /**
+     * Constructor de la clase Tablero con una semilla para los pares aleatorios.
+     * 
+     * <p>
+     * Dos tableros con la misma semilla piden los mismos pares mientras sus grupos de números sean iguales,
+     * lo que permite repetir una partida o comparar estrategias con los mismos pares.
+     * </p>
+     * 
+     * @param dimension Dimensión del tablero.
+     * @param numeroMaximo Número máximo que puede generarse en el tablero para ganar el juego.
+     * @param consecutivosNecesarios Número de veces que se deben generar de manera consecutiva un número para que se mezclen.
+     * @param almacenamiento Forma en la que se almacenan las casillas.
+     * @param semilla Semilla del generador de pares aleatorios.
+     * @throws IllegalArgumentException Si alguno de los parámetros no es válido, o si el número máximo no puede almacenarse empaquetado.
+     */
+    public Tablero(int dimension, int numeroMaximo, int consecutivosNecesarios, Almacenamiento almacenamiento, long semilla) {
+        this(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, new SplittableRandom(semilla));
+    }
+
+    private Tablero(int dimension, int numeroMaximo, int consecutivosNecesarios, Almacenamiento almacenamiento, RandomGenerator aleatorio) {
+
+        validarParametros(dimension, numeroMaximo, consecutivosNecesarios);
+
+        this.almacenamiento = almacenamiento;
+        casillas = crearCasillas(almacenamiento, dimension, numeroMaximo);
+
+        numeros = new GrupoNumeros(aleatorio);
+        numeros.agregar(1, 2);
+
+        this.dimension = dimension;
+        estado = Estado.JUGANDO;
+        this.numeroMaximo = numeroMaximo;
+        this.consecutivosNecesarios = consecutivosNecesarios;
+    }
+
+    /**
+     * Reinicia el tablero para comenzar un juego nuevo, posiblemente con otros parámetros.
+     * 
+     * <p>
+     * Si la dimensión es la misma y el número máximo cabe en las casillas actuales, éstas se vacían
+     * en lugar de reservarse de nuevo. El grupo de números también se reutiliza.
+     * </p>
+     * 
+     * @param dimension Dimensión del tablero.
+     * @param numeroMaximo Número máximo que puede generarse en el tablero para ganar el juego.
+     * @param consecutivosNecesarios Número de veces que se deben generar de manera consecutiva un número para que se mezclen.
+     * @throws IllegalArgumentException Si alguno de los parámetros no es válido.
+     */
+    public void reiniciar(int dimension, int numeroMaximo, int consecutivosNecesarios) {
+
+        validarParametros(dimension, numeroMaximo, consecutivosNecesarios);
+
+        if (casillas.esCompatible(dimension, numeroMaximo)) {
+            casillas.vaciarTodo();
+        } else {
+            casillas = crearCasillas(almacenamiento, dimension, numeroMaximo);
+        }
+
+        casillasOcupadas = 0;
+
+        if (indiceMezclas != null) {
+            if (indiceMezclas.esCompatible(casillas, dimension, consecutivosNecesarios, numeroMaximo))
+                indiceMezclas.vaciar();
+            else
+                indiceMezclas = new IndiceMezclas(casillas, dimension, consecutivosNecesarios, numeroMaximo);
+        }
+
+        numeros.vaciar();
+        numeros.agregar(1, 2);
+
+        if (renderizador != null)
+            renderizador.invalidar();
+
+        this.dimension = dimension;
+        estado = Estado.JUGANDO;
+        this.numeroMaximo = numeroMaximo;
+        this.consecutivosNecesarios = consecutivosNecesarios;
+
+        // Lo que quedaba del juego anterior se publica en su propio lote
+        publicarLote();
+        emitir(EventoTablero.tableroReiniciado(dimension));
+    }
+
+    /**
+     * Reinicia el tablero y cambia la semilla de los pares aleatorios.
+     * 
+     * @param dimension Dimensión del tablero.
+     * @param numeroMaximo Número máximo que puede generarse en el tablero para ganar el juego.
+     * @param consecutivosNecesarios Número de veces que se deben generar de manera consecutiva un número para que se mezclen.
+     * @param semilla Semilla del generador de pares aleatorios.
+     * @throws IllegalArgumentException Si alguno de los parámetros no es válido.
+     * @see #reiniciar(int, int, int)
+     * @see #Tablero(int, int, int, Almacenamiento, long)
+     */
+    public void reiniciar(int dimension, int numeroMaximo, int consecutivosNecesarios, long semilla) {
+
+        reiniciar(dimension, numeroMaximo, consecutivosNecesarios);
+        numeros.reiniciarGenerador(new SplittableRandom(semilla));
+
+    }
+
+    /**
+     * Revisa que los parámetros del tablero sean válidos.
+     * 
+     * @throws IllegalArgumentException Si la dimensión del tablero es menor a 2, si el número máximo esperado para ganar es menor a 2 o si el número de consecutivos necesarios es menor a 2 o mayor a la dimensión del tablero.
+     */
+    static void validarParametros(int dimension, int numeroMaximo, int consecutivosNecesarios) {
 
         if (dimension < 2)
             // Si la dimensión del tablero es menor a 2, no se podrían colocar números consecutivos.
@@ -189,29 +381,36 @@ public class Tablero {
             // El número de consecutivos necesarios debe ser mayor o igual a 2, porque al menos se deben generar dos números para que se mezclen.
             // Además, debe ser menor a la dimensión del tablero, porque si no, no se podrían colocar suficientes números consecutivos.
             throw new IllegalArgumentException("El número de consecutivos necesarios debe ser mayor o igual a 2 y menor o igual a la dimensión del tablero.");
-        
-        this.dimension = dimension;
 
-        tablero = new ArrayList<Queue<Casilla>>(dimension);
+    }
 
-        for(int i = 0; i < dimension; i++) {
-            
-            Queue<Casilla> fila = new ArrayDeque<Casilla>();
+    /**
+     * Revisa que los parámetros del tablero sean válidos y que el número máximo quepa en la forma de almacenamiento,
+     * sin crear el tablero.
+     * 
+     * @throws IllegalArgumentException Si los parámetros no son válidos (ver {@link #validarParametros(int, int, int)})
+     * o si el número máximo no cabe en las casillas empaquetadas.
+     */
+    static void validarParametros(int dimension, int numeroMaximo, int consecutivosNecesarios, Almacenamiento almacenamiento) {
 
-            for(int j = 0; j < dimension; j++) {
-                fila.add(new Casilla());
-            }
+        validarParametros(dimension, numeroMaximo, consecutivosNecesarios);
 
-            tablero.add(fila);
+        if (almacenamiento != Almacenamiento.COLAS)
+            CasillasEmpaquetadas.bitsNecesarios(numeroMaximo);
 
-        }
+    }
 
-        numeros = new GrupoNumeros();
-        numeros.agregar(1, 2);
+    private static AlmacenamientoCasillas crearCasillas(Almacenamiento almacenamiento, int dimension, int numeroMaximo) {
+
+        switch (almacenamiento) {
+            case EMPAQUETADO:
+                return new CasillasEmpaquetadas(dimension, numeroMaximo);
+            case POR_BLOQUES:
+                return new CasillasPorBloques(dimension, numeroMaximo);
+            default:
+                return new CasillasEnColas(dimension);
+        }
 
-        estado = Estado.JUGANDO;
-        this.numeroMaximo = numeroMaximo;
-        this.consecutivosNecesarios = consecutivosNecesarios;
     }
 
     /** 
@@ -231,26 +430,19 @@ public class Tablero {
      * </p>
     */
     public void mostrarTablero() {
-        
-        // Se obtiene la cantidad de dígitos del número máximo para poder imprimir el tablero
-        // de forma ordenada.
-        int digitosNumeroMaximo = String.valueOf(numeroMaximo).length();
-        
-        imprimirNumerosColumnas(digitosNumeroMaximo);
-        System.out.println();
-        imprimirLimite(digitosNumeroMaximo);
-       
-        for(int i = 0; i < dimension; i++) {
-            
-            System.out.print(i + 1 + " ");
-            Queue<Casilla> fila = tablero.get(i);
-            imprimirFila(fila, digitosNumeroMaximo);
-            System.out.println();
 
+        long inicio = Metricas.inicio();
+
+        if (renderizador == null)
+            renderizador = new Renderizador(this, System.out, Renderizador.Modo.COMPLETO);
+
+        try {
+            renderizador.dibujar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        imprimirLimite(digitosNumeroMaximo);
-        System.out.println();
+
+        Metricas.registrar(Operacion.MOSTRAR_TABLERO, inicio);
 
     }
 
@@ -260,78 +452,163 @@ public class Tablero {
      * @return Par de números aleatorios que pueden insertarse en el tablero.
      */
     public int[] pedirParAleatorio() {
-        return numeros.obtenerParAleatorio();
+
+        int[] par = new int[2];
+
+        pedirParAleatorio(par);
+
+        return par;
     }
 
-    private void imprimirNumerosColumnas(int espacioRequerido) {
-        
-        System.out.print("   ");
+    /**
+     * Escribe en un arreglo un par de números distintos que pueden insertarse en el tablero, sin reservar memoria.
+     * 
+     * @param destino Arreglo de al menos dos elementos donde se escribe el par.
+     */
+    public void pedirParAleatorio(int[] destino) {
+
+        // Empieza un turno nuevo, por lo que se publican los eventos del anterior
+        publicarLote();
+
+        long inicio = Metricas.inicio();
 
-        for(int i = 0; i < dimension; i++) {
+        numeros.obtenerParAleatorio(destino);
 
-            System.out.print(i + 1);
+        Metricas.registrar(Operacion.PEDIR_PAR_ALEATORIO, inicio);
 
-            for(int j = 0; j < espacioRequerido; j++)
-                System.out.print(" ");
-                    }
+        if (inicio != 0)
+            Metricas.registrarSeleccionAleatoria(numeros.obtenerProfundidad());
 
     }
 
-    /** 
-     * Imprime en consola una línea horizontal que sirve como límite para el tablero.
-     * 
-     * @param espacioRequerido Espacio adicional que deberá compensar la línea horizontal para que el tablero luzca ordenado.
+    /**
+     * Obtiene el valor de una casilla.
      * 
-    */
-    private void imprimirLimite(int espacioRequerido) {
-        
-        System.out.print("  ");
-        
-        for(int i = 0; i < dimension; i++) {
-            System.out.print("-");
-            for(int j = 0; j < espacioRequerido; j++)
-                System.out.print("-");
-        }
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @return Valor de la casilla, o 0 si está vacía.
+     * @throws IndexOutOfBoundsException Si las coordenadas están fuera del tablero.
+     */
+    public int obtenerValor(int x, int y) throws IndexOutOfBoundsException {
 
-        System.out.println("-");
+        if(x < 1 || x > dimension || y < 1 || y > dimension)
+            throw new IndexOutOfBoundsException("Las coordenadas están fuera del tablero.");
+
+        return casillas.obtener(x, y);
 
     }
 
     /**
-     * Imprime una fila del tablero con un formato de matriz.
+     * Activa el índice de mezclas, que permite consultar en qué casillas vacías se mezclaría cada valor sin
+     * tener que probar colocándolo.
      * 
      * <p>
-     * El formato de matriz luce de la siguiente forma:
-     * <pre>
-     * | 1| 2| 3|
-     * </pre>
+     * El índice se construye con el contenido actual del tablero y después se actualiza con cada cambio, en
+     * tiempo proporcional al número de consecutivos necesarios. Ocupa unos 64 bytes por casilla, por lo que no
+     * conviene en tableros muy grandes.
      * </p>
      * 
-     * @param fila Fila del tablero a imprimir.
-     * @param espacioRequerido Espacio mínimo que ocupará cada casilla en la fila.
-    */
-    private void imprimirFila(Queue<Casilla> fila, int espacioRequerido) {
+     * @throws ArithmeticException Si el tablero es demasiado grande para indexarse.
+     */
+    public void activarIndiceMezclas() {
 
-        Queue<Casilla> filaAuxiliar = new ArrayDeque<Casilla>(fila);
-        
-        System.out.print("|");
+        if (indiceMezclas == null)
+            indiceMezclas = new IndiceMezclas(casillas, dimension, consecutivosNecesarios, numeroMaximo);
+
+    }
 
-        while(!filaAuxiliar.isEmpty()) {
+    /**
+     * Desactiva el índice de mezclas y libera su memoria.
+     */
+    public void desactivarIndiceMezclas() {
 
-            Casilla casilla = filaAuxiliar.poll();
+        indiceMezclas = null;
 
-            // Se obtiene el valor de la casilla y se convierte a String, para imprimirlo
-            // con en un espacio de tamaño fijo. Si la casilla está vacía, se imprime un espacio.
-            String valorConEspacio =
-                casilla.estaVacia() ?
-                    String.format("%" + espacioRequerido + "s", " ")
-                    : // Si no esta vacía, imprimir el valor
-                    String.format("%" + espacioRequerido + "d", casilla.getValor());
-            
-            System.out.print(valorConEspacio + "|");
+    }
+
+    /**
+     * Cuenta las casillas vacías en las que colocar el valor provocaría una mezcla.
+     * 
+     * @param valor Valor a colocar.
+     * @return Número de casillas.
+     * @throws IllegalStateException Si el índice de mezclas no está activo.
+     */
+    public int contarCasillasQueMezclan(int valor) {
+
+        return obtenerIndiceMezclas().contar(valor);
+
+    }
+
+    /**
+     * Obtiene las casillas vacías en las que colocar el valor provocaría una mezcla, en tiempo proporcional
+     * al número de casillas.
+     * 
+     * @param valor Valor a colocar.
+     * @return Coordenadas {x, y} de las casillas, sin un orden particular.
+     * @throws IllegalStateException Si el índice de mezclas no está activo.
+     */
+    public int[][] casillasQueMezclan(int valor) {
+
+        return obtenerIndiceMezclas().casillasQueMezclan(valor);
+
+    }
+
+    /**
+     * Indica si colocar el valor en la casilla provocaría una mezcla.
+     * 
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @param valor Valor a colocar.
+     * @return <code>true</code> si la casilla está vacía y el valor se mezclaría en ella.
+     * @throws IllegalStateException Si el índice de mezclas no está activo.
+     * @throws IndexOutOfBoundsException Si las coordenadas están fuera del tablero.
+     */
+    public boolean mezclaEn(int x, int y, int valor) {
+
+        IndiceMezclas indice = obtenerIndiceMezclas();
+
+        return obtenerValor(x, y) == 0 && indice.mezclaEn(x, y, valor);
+
+    }
+
+    /**
+     * Obtiene el largo del tramo que se formaría al colocar el valor en una casilla vacía.
+     * 
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @param valor Valor a colocar.
+     * @param horizontal <code>true</code> para el tramo de la fila, <code>false</code> para el de la columna.
+     * @return Largo del tramo contando la casilla, hasta <code>2 * consecutivosNecesarios - 1</code>,
+     *         o 0 si la casilla está ocupada.
+     * @throws IllegalStateException Si el índice de mezclas no está activo.
+     * @throws IndexOutOfBoundsException Si las coordenadas están fuera del tablero.
+     */
+    public int largoTramo(int x, int y, int valor, boolean horizontal) {
+
+        IndiceMezclas indice = obtenerIndiceMezclas();
+
+        return obtenerValor(x, y) == 0 ? indice.largoTramo(x, y, valor, horizontal) : 0;
+
+    }
+
+    private IndiceMezclas obtenerIndiceMezclas() {
+
+        if (indiceMezclas == null)
+            throw new IllegalStateException("El índice de mezclas no está activo.");
+
+        return indiceMezclas;
+    }
+
+    /**
+     * Copia los valores de una fila del tablero en un arreglo, sin modificar la fila.
+     * 
+     * @param y Coordenada y de la fila.
+     * @param destino Arreglo de al menos <code>dimension</code> elementos. Las casillas vacías se copian como 0.
+    */
+    void copiarFila(int y, int[] destino) {
+
+        casillas.copiarFila(y, destino);
 
-        }
-        
     }
 
     /**
@@ -342,6 +619,7 @@ public class Tablero {
     private void agregarNumeroEnGrupo(int numero) {
 
         numeros.agregar(numero);
+        emitir(EventoTablero.numeroAgregado(numero));
 
     }
 
@@ -363,18 +641,30 @@ public class Tablero {
     */    
     public boolean insertarNumero(int x, int y, int numero) throws IllegalArgumentException, IndexOutOfBoundsException {
 
+        long inicio = Metricas.inicio();
+
+        try {
+            return insertarNumeroEnCasilla(x, y, numero);
+        } finally {
+            Metricas.registrar(Operacion.INSERTAR_NUMERO, inicio);
+            publicarSiTermino();
+        }
+
+    }
+
+    private boolean insertarNumeroEnCasilla(int x, int y, int numero) {
+
         if(x < 1 || x > dimension || y < 1 || y > dimension)
             throw new IndexOutOfBoundsException("Las coordenadas están fuera del tablero.");
 
         if(!numeros.contiene(numero))
             throw new IllegalArgumentException("El número no está en el grupo de números disponibles.");
 
-        Casilla casilla = getCasilla(x, y);
-
-        if(!casilla.estaVacia())
+        if(casillas.obtener(x, y) != 0)
             return false;
 
-        casilla.setValor(numero);
+        establecerValor(x, y, numero);
+        emitir(EventoTablero.casillaColocada(x, y, numero));
         
         if (!hayCasillasVacias())
             setEstado(Estado.PERDIDO);
@@ -384,56 +674,25 @@ public class Tablero {
     }
 
     /**
-     * Obtiene el valor de una casilla.
-     * 
-     * <p>
-     * Para obtener la casilla, se navega por el eje vertical (la lista de colas) hasta llegar a la fila
-     * correspondiente, y luego se navega por el eje horizontal (la cola) hasta llegar a la casilla.
-     * </p>
+     * Cambia el valor de una casilla, manteniendo el conteo de casillas ocupadas.
      * 
      * @param x Coordenada x de la casilla.
      * @param y Coordenada y de la casilla.
-     * @return Valor de la casilla.
+     * @param valor Nuevo valor de la casilla, o 0 para vaciarla.
     */
-    private Casilla getCasilla(int x, int y) {
+    private void establecerValor(int x, int y, int valor) {
 
-        // Se obtiene la columna correspondiente a la coordenada y
-        Queue<Casilla> columna = tablero.get(y - 1);
+        int valorAnterior = casillas.obtener(x, y);
 
-        // Si la casilla es la primera, se devuelve directamente
-        if (x == 1){
+        if (valorAnterior == 0 && valor != 0)
+            casillasOcupadas++;
+        else if (valorAnterior != 0 && valor == 0)
+            casillasOcupadas--;
 
-            return columna.peek();
-        }
-        // Si no, se recorre la columna hasta llegar a la casilla
-        else {
-            
-            Casilla casillaActual = null;
-            Casilla casillaObjetivo = null;
-            int i = 1;
-
-            // Se recorre toda la columna
-            while(i <= dimension) {
-                
-                casillaActual = columna.poll();
-
-                // Si se llega a la casilla, se guarda la referencia
-                if (i == x)
-                    casillaObjetivo = casillaActual;
-
-                // Se agrega la casilla actual al final de la columna
-                columna.add(casillaActual);
-                i++;
-            }
-            /*
-            * Este proceso se repite para todas las casillas, a fin de mantener el orden de la fila.
-            * Para entender mejor el proceso, se puede imaginar que se tiene un montón de papeles,
-            * si vamos tomando el que está encima y lo ponemos abajo, uno tras otro hasta llegar al
-            * primer papel que sacamos, el orden de los papeles se mantiene.
-            */ 
-
-            return casillaObjetivo;
-        }
+        casillas.establecer(x, y, valor);
+
+        if (indiceMezclas != null)
+            indiceMezclas.actualizar(x, y);
 
     }
 
@@ -456,31 +715,66 @@ public class Tablero {
      * 
      * @param x Coordenada x de la casilla.
      * @param y Coordenada y de la casilla.
+     * @return Valor que quedó en la casilla tras la mezcla, o 0 si no hubo mezcla.
+    */
+    public int revisarConsecutivos(int x, int y){
+
+        long inicio = Metricas.inicio();
+
+        int valorMezcla = mezclarConsecutivos(x, y);
+
+        Metricas.registrar(Operacion.REVISAR_CONSECUTIVOS, inicio);
+        publicarSiTermino();
+
+        return valorMezcla;
+
+    }
+
+    /**
+     * Ejecuta las mezclas horizontal y vertical de una casilla, si las hay.
+     * 
+     * @param x Coordenada x de la casilla.
+     * @param y Coordenada y de la casilla.
+     * @return Valor que quedó en la casilla tras la mezcla, o 0 si no hubo mezcla.
     */
-    public void revisarConsecutivos(int x, int y){
+    private int mezclarConsecutivos(int x, int y){
 
         ProcesoMezcla mezclaHorizontal = revisarConsecutivosH(x, y);
         ProcesoMezcla mezclaVertical = revisarConsecutivosV(x, y);
 
         // Si no hay elementos consecutivos, no se hace nada
-        if (mezclaHorizontal == null && mezclaVertical == null)
-            return;
+        if (mezclaHorizontal == null && mezclaVertical == null) {
+            mezclasUltimaRevision = 0;
+            Metricas.registrarMezclasPorMovimiento(0);
+            return 0;
+        }
+
+        int mezclas = 0;
         
-        if (mezclaHorizontal != null)
+        if (mezclaHorizontal != null) {
             mezclaHorizontal.ejecutar();
+            mezclas++;
+        }
 
-        if (mezclaVertical != null)
+        if (mezclaVertical != null) {
             mezclaVertical.ejecutar();
+            mezclas++;
+        }
 
         // Además, se revisa si el número resultante de la mezcla es mayor al mayor número
         // del grupo de números a escoger. De ser así, debe registrarse en el grupo de números.
-        int valorCasilla = getCasilla(x, y).getValor();
+        int valorCasilla = casillas.obtener(x, y);
 
         if (valorCasilla == numeroMaximo)
             setEstado(Estado.GANADO);
         else if (valorCasilla > numeros.obtenerValorMaximo())
             agregarNumeroEnGrupo(valorCasilla);
 
+        mezclasUltimaRevision = mezclas;
+        Metricas.registrarMezclasPorMovimiento(mezclas);
+
+        return valorCasilla;
+
     }
 
     /**
@@ -497,39 +791,17 @@ public class Tablero {
     */
     private ProcesoMezcla revisarConsecutivosH(int x, int y){
 
-        Casilla casillaActual = getCasilla(x, y);
-        
-        List<Casilla> casillasConsecutivas = new ArrayList<Casilla>();
-        casillasConsecutivas.add(casillaActual);
-
-        for (int i = x + 1; i <= dimension; i++) {
-            
-            Casilla casillaSiguiente = getCasilla(i, y);
+        int valor = casillas.obtener(x, y);
 
-            if (casillaSiguiente.estaVacia())
-                break;
-
-            if (casillaSiguiente.getValor() == casillaActual.getValor())
-                casillasConsecutivas.add(casillaSiguiente);
-            else
-                break;
-        }
+        // Una casilla vacía no se mezcla
+        if (valor == 0)
+            return null;
 
-        for (int i = x - 1; i > 0; i--) {
-            
-            Casilla casillaAnterior = getCasilla(i, y);
-
-            if (casillaAnterior.estaVacia())
-                break;
-
-            if (casillaAnterior.getValor() == casillaActual.getValor())
-                casillasConsecutivas.add(casillaAnterior);
-            else
-                break;
-        }
+        int siguientes = casillas.contarIguales(x, y, 1, 0, valor);
+        int anteriores = casillas.contarIguales(x, y, -1, 0, valor);
 
-        if (casillasConsecutivas.size() >= consecutivosNecesarios)
-            return new ProcesoMezcla(casillasConsecutivas, casillaActual, casillaActual.getValor() +1);
+        if (1 + siguientes + anteriores >= consecutivosNecesarios)
+            return new ProcesoMezcla(x, y, true, x - anteriores, x + siguientes, valor + 1);
 
         return null;
 
@@ -549,62 +821,30 @@ public class Tablero {
     */
     private ProcesoMezcla revisarConsecutivosV(int x, int y){
 
-        Casilla casillaActual = getCasilla(x, y);
-        
-        List<Casilla> casillasConsecutivas = new ArrayList<Casilla>();
-        casillasConsecutivas.add(casillaActual);
-
-        for (int i = y + 1; i <= dimension; i++) {
-            
-            Casilla casillaSiguiente = getCasilla(x, i);
+        int valor = casillas.obtener(x, y);
 
-            if (casillaSiguiente.estaVacia())
-                break;
-
-            if (casillaSiguiente.getValor() == casillaActual.getValor())
-                casillasConsecutivas.add(casillaSiguiente);
-            else
-                break;
-        }
+        // Una casilla vacía no se mezcla
+        if (valor == 0)
+            return null;
 
-        for (int i = y - 1; i > 0; i--) {
-            
-            Casilla casillaAnterior = getCasilla(x, i);
-
-            if (casillaAnterior.estaVacia())
-                break;
-
-            if (casillaAnterior.getValor() == casillaActual.getValor())
-                casillasConsecutivas.add(casillaAnterior);
-            else
-                break;
-        }
+        int siguientes = casillas.contarIguales(x, y, 0, 1, valor);
+        int anteriores = casillas.contarIguales(x, y, 0, -1, valor);
 
-        if (casillasConsecutivas.size() >= consecutivosNecesarios)
-            return new ProcesoMezcla(casillasConsecutivas, casillaActual, casillaActual.getValor() +1);
+        if (1 + siguientes + anteriores >= consecutivosNecesarios)
+            return new ProcesoMezcla(x, y, false, y - anteriores, y + siguientes, valor + 1);
 
         return null;
 
     }
 
     /**
-     * Revisa si hay casillas vacías en el tablero.
+     * Revisa si hay casillas vacías en el tablero, a partir del conteo de casillas ocupadas.
      * 
      * @return <code>true</code> si hay casillas vacías, <code>false</code> en caso contrario.
     */
     private boolean hayCasillasVacias(){
 
-        for (int i = 1; i <= dimension; i++) {
-            for (int j = 1; j <= dimension; j++) {
-                
-                Casilla casilla = getCasilla(i, j);
-
-                if (casilla.estaVacia())
-                    return true;
-            }
-        }
-
-        return false;
+        return casillasOcupadas < (long) dimension * dimension;
 
     }
 
@@ -612,8 +852,104 @@ public class Tablero {
         return estado;
     }
 
+    Almacenamiento getAlmacenamiento() {
+        return almacenamiento;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNumeroMaximo() {
+        return numeroMaximo;
+    }
+
+    long getCasillasOcupadas() {
+        return casillasOcupadas;
+    }
+
+    /**
+     * @return Mezclas que ejecutó la última llamada a {@link #revisarConsecutivos(int, int)}: 2 si la casilla se
+     *         mezcló en su fila y en su columna a la vez, aunque el valor que queda sea uno solo.
+     */
+    int getMezclasUltimaRevision() {
+        return mezclasUltimaRevision;
+    }
+
     private void setEstado(Estado estado) {
+
+        if (this.estado != estado)
+            emitir(EventoTablero.estadoCambiado(estado));
+
         this.estado = estado;
     }
 
+    /**
+     * Devuelve el publicador de los eventos del tablero.
+     * 
+     * <p>
+     * Los eventos de cada turno se entregan juntos en una lista: al pedir el siguiente par se publica lo que ocurrió
+     * desde el par anterior, y cuando el juego termina se publica de inmediato. Las entregas se hacen en el
+     * {@link ForkJoinPool#commonPool()}, por lo que un observador lento no detiene el juego; si se atrasa demasiado,
+     * sus lotes pendientes se combinan en uno solo (ver {@link PublicadorEventos}). Como el ejecutor se comparte,
+     * un observador que se bloquea al recibir un lote también retrasa a los demás.
+     * </p>
+     * 
+     * <p>
+     * Mientras no haya suscriptores, los eventos no se registran. Al reiniciar el tablero los suscriptores se
+     * conservan y reciben {@link EventoTablero.Tipo#TABLERO_REINICIADO}; al devolverlo a un {@link PoolTableros}
+     * sus suscripciones terminan, y los eventos del siguiente juego se piden a un publicador nuevo.
+     * </p>
+     * 
+     * @return Publicador de los lotes de eventos.
+     */
+    public Flow.Publisher<List<EventoTablero>> getEventos() {
+
+        if (publicador == null)
+            publicador = new PublicadorEventos(ForkJoinPool.commonPool());
+
+        return publicador;
+    }
+
+    /**
+     * Termina las suscripciones a los eventos del tablero, después de publicar lo que quedaba del turno en curso.
+     * La siguiente llamada a {@link #getEventos()} crea un publicador nuevo.
+     */
+    void terminarEventos() {
+
+        if (publicador == null)
+            return;
+
+        publicarLote();
+        publicador.terminar();
+        publicador = null;
+
+    }
+
+    private void emitir(EventoTablero evento) {
+
+        if (publicador != null && publicador.tieneSuscriptores())
+            loteEventos.add(evento);
+
+    }
+
+    private void publicarLote() {
+
+        if (loteEventos.isEmpty())
+            return;
+
+        List<EventoTablero> lote = loteEventos;
+        loteEventos = new ArrayList<EventoTablero>();
+
+        publicador.publicar(lote);
+
+    }
+
+    private void publicarSiTermino() {
+
+        if (estado != Estado.JUGANDO)
+            publicarLote();
+
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,391 @@
+package JuegoTablero;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Torneo que enfrenta varias estrategias de colocación con las mismas secuencias de pares.
+ *
+ * <p>
+ * Cada estrategia juega una partida por semilla, y todas las partidas de una misma semilla usan un tablero creado
+ * con esa semilla, por lo que reciben los mismos pares mientras sus grupos de números coincidan. Cuando los grupos
+ * difieren, los pares se siguen eligiendo con los mismos números aleatorios.
+ * </p>
+ *
+ * <p>
+ * Las semillas se reparten entre los hilos de un {@link ForkJoinPool}: el rango de semillas se divide a la mitad
+ * hasta quedar en bloques pequeños, y los hilos que terminan antes toman los bloques pendientes de los demás. Los
+ * tableros se reutilizan con un {@link PoolTableros}, y los resultados de cada bloque se escriben en cuanto termina,
+ * de modo que la memoria no depende del número de partidas.
+ * </p>
+ *
+ * <p>
+ * Por cada partida se escribe una línea CSV con las columnas <code>estrategia,semilla,resultado,turnos,valor_maximo</code>,
+ * en el orden en que terminan los bloques. Los nombres de estrategia con comas, comillas o saltos de línea se
+ * escriben entre comillas, duplicando las comillas que contengan. El resultado es <code>GANADO</code>, <code>PERDIDO</code> o
+ * <code>JUGANDO</code> si se alcanzó el límite de turnos. Al final se imprime un resumen por estrategia.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>Torneo [--estrategias a,b,...] [--semillas n] [--semilla-inicial n] [--dimension n] [--maximo n]
+ * [--consecutivos n] [--almacenamiento forma] [--hilos n] [--turnos-maximos n] [--salida ruta]</code>. Por defecto
+ * se usan todas las estrategias de {@link Estrategias}, 1000 semillas a partir de 0 y un tablero de 7x7 como en el
+ * modo interactivo. Sin <code>--salida</code>, el CSV se escribe en la salida estándar y el resumen en la salida
+ * de errores.
+ * </p>
+ */
+public class Torneo {
+
+    /**
+     * Número de semillas a partir del cual un bloque ya no se divide.
+     */
+    private static final int SEMILLAS_POR_BLOQUE = 8;
+
+    /**
+     * Se combina con la semilla de la partida para obtener la del generador de las estrategias, de modo que
+     * éste no repita los números de los pares.
+     */
+    private static final long MEZCLA_SEMILLA_ESTRATEGIAS = 0x9E3779B97F4A7C15L;
+
+    private final List<EstrategiaColocacion> estrategias = new ArrayList<EstrategiaColocacion>();
+    private long semillas = 1000;
+    private long semillaInicial = 0;
+    private int dimension = 7;
+    private int numeroMaximo = 7;
+    private int consecutivosNecesarios = 3;
+    private Almacenamiento almacenamiento = Almacenamiento.EMPAQUETADO;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private int turnosMaximos = 100_000;
+    private String salida = null;
+
+    private final PoolTableros pool = new PoolTableros(1);
+
+    private Resumen[] resumenes;
+    private String[] nombresCsv;
+    private Writer escritor;
+
+    /**
+     * Totales de una estrategia. Los actualizan varios hilos a la vez.
+     */
+    private static class Resumen {
+
+        private final LongAdder partidas = new LongAdder();
+        private final LongAdder ganadas = new LongAdder();
+        private final LongAdder perdidas = new LongAdder();
+        private final LongAdder turnos = new LongAdder();
+        private final LongAdder sumaValoresMaximos = new LongAdder();
+        private final LongAccumulator valorMaximo = new LongAccumulator(Math::max, 0);
+
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        new Torneo(args).ejecutar();
+
+    }
+
+    /**
+     * Constructor de la clase Torneo.
+     *
+     * @param argumentos Opciones de línea de comandos.
+     * @throws IllegalArgumentException Si alguna opción no es válida.
+     */
+    public Torneo(String[] argumentos) {
+
+        String nombres = "primera-libre,aleatoria,agrupadora";
+
+        for (int i = 0; i < argumentos.length; i++) {
+
+            String opcion = argumentos[i];
+
+            if (i + 1 >= argumentos.length)
+                throw new IllegalArgumentException("Falta el valor de la opción " + opcion);
+
+            String valor = argumentos[++i];
+
+            switch (opcion) {
+                case "--estrategias":
+                    nombres = valor;
+                    break;
+                case "--semillas":
+                    semillas = Long.parseLong(valor);
+                    break;
+                case "--semilla-inicial":
+                    semillaInicial = Long.parseLong(valor);
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(valor);
+                    break;
+                case "--maximo":
+                    numeroMaximo = Integer.parseInt(valor);
+                    break;
+                case "--consecutivos":
+                    consecutivosNecesarios = Integer.parseInt(valor);
+                    break;
+                case "--almacenamiento":
+                    almacenamiento = Almacenamiento.valueOf(valor);
+                    break;
+                case "--hilos":
+                    hilos = Math.max(1, Integer.parseInt(valor));
+                    break;
+                case "--turnos-maximos":
+                    turnosMaximos = Integer.parseInt(valor);
+                    break;
+                case "--salida":
+                    salida = valor;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción no válida: " + opcion);
+            }
+        }
+
+        for (String nombre : nombres.split(","))
+            if (!nombre.isBlank())
+                estrategias.add(Estrategias.porNombre(nombre.strip()));
+
+        // Se validan los parámetros del tablero antes de empezar
+        Tablero.validarParametros(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento);
+
+    }
+
+    /**
+     * Agrega una estrategia a las que participan en el torneo.
+     *
+     * @param estrategia Estrategia a agregar.
+     */
+    public void agregarEstrategia(EstrategiaColocacion estrategia) {
+        estrategias.add(estrategia);
+    }
+
+    /**
+     * Juega todas las partidas, escribe sus resultados e imprime el resumen.
+     *
+     * @throws IOException Si ocurre un error al escribir los resultados.
+     * @throws IllegalStateException Si alguna estrategia elige una casilla ocupada.
+     */
+    public void ejecutar() throws IOException {
+
+        if (estrategias.isEmpty())
+            throw new IllegalStateException("El torneo no tiene estrategias.");
+
+        resumenes = new Resumen[estrategias.size()];
+        nombresCsv = new String[estrategias.size()];
+
+        for (int i = 0; i < resumenes.length; i++) {
+            resumenes[i] = new Resumen();
+            nombresCsv[i] = campoCsv(estrategias.get(i).getNombre());
+        }
+
+        OutputStream destino = salida == null ? System.out : new FileOutputStream(salida);
+        escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), 1 << 16);
+
+        long inicio = System.nanoTime();
+        ForkJoinPool ejecutor = new ForkJoinPool(hilos);
+
+        try {
+
+            escritor.write("estrategia,semilla,resultado,turnos,valor_maximo\n");
+            ejecutor.invoke(new Bloque(semillaInicial, semillaInicial + semillas));
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            ejecutor.shutdown();
+
+            if (salida == null)
+                escritor.flush();
+            else
+                escritor.close();
+        }
+
+        imprimirResumen(salida == null ? System.err : System.out, System.nanoTime() - inicio);
+
+    }
+
+    /**
+     * Rango de semillas que se juega en un hilo o se divide en dos.
+     */
+    private class Bloque extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long desde;
+        private final long hasta;
+
+        private Bloque(long desde, long hasta) {
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (hasta - desde <= SEMILLAS_POR_BLOQUE) {
+                jugarBloque(desde, hasta);
+                return;
+            }
+
+            long mitad = desde + (hasta - desde) / 2;
+
+            invokeAll(new Bloque(desde, mitad), new Bloque(mitad, hasta));
+
+        }
+
+    }
+
+    private void jugarBloque(long desde, long hasta) {
+
+        StringBuilder lineas = new StringBuilder();
+        int[] resultado = new int[2];
+
+        for (long semilla = desde; semilla < hasta; semilla++) {
+
+            for (int i = 0; i < estrategias.size(); i++) {
+
+                EstrategiaColocacion estrategia = estrategias.get(i);
+                Estado estado = jugarPartida(estrategia, semilla, resultado);
+                int turnos = resultado[0];
+                int valorMaximo = resultado[1];
+
+                Resumen resumen = resumenes[i];
+                resumen.partidas.increment();
+                resumen.turnos.add(turnos);
+                resumen.sumaValoresMaximos.add(valorMaximo);
+                resumen.valorMaximo.accumulate(valorMaximo);
+
+                if (estado == Estado.GANADO)
+                    resumen.ganadas.increment();
+                else if (estado == Estado.PERDIDO)
+                    resumen.perdidas.increment();
+
+                lineas.append(nombresCsv[i]).append(',').append(semilla).append(',').append(estado)
+                    .append(',').append(turnos).append(',').append(valorMaximo).append('\n');
+            }
+        }
+
+        try {
+            synchronized (escritor) {
+                escritor.append(lineas);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+    }
+
+    /**
+     * Juega una partida con la estrategia, hasta que termine o se alcance el límite de turnos.
+     *
+     * @param resultado Arreglo donde se escriben los turnos jugados y el valor más grande que hubo en el tablero.
+     * @return Estado final del tablero.
+     */
+    private Estado jugarPartida(EstrategiaColocacion estrategia, long semilla, int[] resultado) {
+
+        Tablero tablero = pool.obtener(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, semilla);
+        RandomGenerator aleatorio = new SplittableRandom(semilla ^ MEZCLA_SEMILLA_ESTRATEGIAS);
+
+        int[] par = new int[2];
+        int[][] coordenadas = new int[2][2];
+        int turnos = 0;
+        int valorMaximo = 0;
+
+        try {
+
+            jugar:
+            while (tablero.getEstado() == Estado.JUGANDO && turnos < turnosMaximos) {
+
+                tablero.pedirParAleatorio(par);
+
+                for (int i = 0; i < 2; i++) {
+
+                    // Con la primera inserción se llenó el tablero
+                    if (tablero.getEstado() != Estado.JUGANDO)
+                        break jugar;
+
+                    estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenadas[i]);
+
+                    if (!tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]))
+                        throw new IllegalStateException("La estrategia " + estrategia.getNombre() + " eligió una casilla ocupada.");
+
+                    valorMaximo = Math.max(valorMaximo, par[i]);
+                }
+
+                valorMaximo = Math.max(valorMaximo, tablero.revisarConsecutivos(coordenadas[0][0], coordenadas[0][1]));
+                valorMaximo = Math.max(valorMaximo, tablero.revisarConsecutivos(coordenadas[1][0], coordenadas[1][1]));
+                turnos++;
+            }
+
+            resultado[0] = turnos;
+            resultado[1] = valorMaximo;
+
+            return tablero.getEstado();
+
+        } finally {
+            pool.devolver(tablero);
+        }
+
+    }
+
+    /**
+     * @return El texto como campo CSV: entre comillas y con las comillas duplicadas si contiene comas, comillas o
+     *         saltos de línea, o sin cambios si no.
+     */
+    static String campoCsv(String texto) {
+
+        for (int i = 0; i < texto.length(); i++) {
+
+            char caracter = texto.charAt(i);
+
+            if (caracter == ',' || caracter == '"' || caracter == '\n' || caracter == '\r')
+                return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+
+        return texto;
+
+    }
+
+    private void imprimirResumen(PrintStream flujo, long duracionNanos) {
+
+        double segundos = duracionNanos / 1e9;
+        long partidas = 0;
+
+        flujo.println(String.format("%-16s %10s %10s %10s %12s %12s %8s", "Estrategia", "Partidas", "Ganadas", "Perdidas",
+            "Turnos/part.", "Valor máx.", "Mayor"));
+
+        for (int i = 0; i < estrategias.size(); i++) {
+
+            Resumen resumen = resumenes[i];
+            long partidasEstrategia = resumen.partidas.sum();
+            double divisor = Math.max(1, partidasEstrategia);
+
+            partidas += partidasEstrategia;
+
+            flujo.println(String.format("%-16s %10d %10d %10d %12.2f %12.2f %8d", estrategias.get(i).getNombre(),
+                partidasEstrategia, resumen.ganadas.sum(), resumen.perdidas.sum(), resumen.turnos.sum() / divisor,
+                resumen.sumaValoresMaximos.sum() / divisor, resumen.valorMaximo.get()));
+        }
+
+        flujo.println(String.format("Tiempo: %.3f s", segundos));
+        flujo.println(String.format("Partidas por segundo: %.1f", partidas / segundos));
+
+    }
+
+}
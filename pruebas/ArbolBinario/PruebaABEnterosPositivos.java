@@ -0,0 +1,318 @@
+package ArbolBinario;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.TreeSet;
+
+/**
+ * Prueba de {@link ABEnterosPositivos} contra {@link TreeSet}: el iterador, el spliterator (dividido de varias
+ * formas), los flujos y la búsqueda por posición deben dar los mismos valores en el mismo orden, tras secuencias al
+ * azar de inserciones y eliminaciones.
+ *
+ * <p>
+ * La profundidad se compara con la de un árbol de referencia sin balancear que sigue las mismas reglas, calculada
+ * recorriéndolo completo. Además se comprueba que en un árbol degenerado, con decenas de miles de valores en línea,
+ * el spliterator se divide en mitades exactas y las operaciones no desbordan la pila.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaABEnterosPositivos [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaABEnterosPositivos {
+
+	private static final int RONDAS = 300;
+
+	public static void main(String[] args) {
+
+		SplittableRandom aleatorio = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 1);
+
+		for (int ronda = 0; ronda < RONDAS; ronda++) {
+			probarOperaciones(aleatorio, ronda);
+		}
+
+		probarArbolDegenerado();
+
+		System.out.println("PruebaABEnterosPositivos: OK");
+	}
+
+	private static void probarOperaciones(SplittableRandom aleatorio, int ronda) {
+
+		ABEnterosPositivos arbol = new ABEnterosPositivos();
+		Referencia referencia = new Referencia();
+		TreeSet<Integer> esperado = new TreeSet<Integer>();
+
+		int operaciones = 1 + aleatorio.nextInt(400);
+		int limite = 1 + aleatorio.nextInt(ronda % 2 == 0 ? 50 : 5000);
+
+		// En algunas rondas se inserta en orden, lo que produce árboles degenerados
+		boolean ordenado = ronda % 5 == 0;
+
+		for (int i = 0; i < operaciones; i++) {
+
+			int valor = ordenado ? i : aleatorio.nextInt(limite);
+
+			if (aleatorio.nextInt(3) == 0) {
+
+				boolean eliminado = arbol.eliminar(valor);
+				referencia.eliminar(valor);
+
+				if (eliminado != esperado.remove(valor)) {
+					throw new AssertionError("En la ronda " + ronda + ", eliminar(" + valor + ") devolvió " + eliminado);
+				}
+
+			} else {
+				arbol.insertar(valor);
+				referencia.insertar(valor);
+				esperado.add(valor);
+			}
+
+			if (arbol.getProfundidad() != referencia.profundidad()) {
+				throw new AssertionError("En la ronda " + ronda + ", la profundidad es " + arbol.getProfundidad()
+					+ " en lugar de " + referencia.profundidad());
+			}
+		}
+
+		comparar(arbol, esperado, aleatorio, "la ronda " + ronda);
+	}
+
+	private static void comparar(ABEnterosPositivos arbol, TreeSet<Integer> esperado, SplittableRandom aleatorio, String caso) {
+
+		int[] valores = esperado.stream().mapToInt(Integer::intValue).toArray();
+
+		if (arbol.getTamano() != valores.length) {
+			throw new AssertionError("En " + caso + ", el tamaño es " + arbol.getTamano() + " en lugar de " + valores.length);
+		}
+
+		if (valores.length > 0 && (arbol.getValorMinimo() != valores[0] || arbol.getValorMaximo() != valores[valores.length - 1])) {
+			throw new AssertionError("En " + caso + ", los extremos son " + arbol.getValorMinimo() + " y " + arbol.getValorMaximo());
+		}
+
+		comprobarIguales(caso + " (obtenerValores)", valores, arbol.obtenerValores());
+
+		int[] enPosicion = new int[valores.length];
+
+		for (int i = 0; i < enPosicion.length; i++) {
+			enPosicion[i] = arbol.obtenerValorEnPosicion(i);
+		}
+
+		comprobarIguales(caso + " (obtenerValorEnPosicion)", valores, enPosicion);
+
+		for (int posicion : new int[] { -1, valores.length }) {
+			try {
+				arbol.obtenerValorEnPosicion(posicion);
+				throw new AssertionError("En " + caso + ", obtenerValorEnPosicion(" + posicion + ") no lanzó una excepción");
+			} catch (IndexOutOfBoundsException e) {
+				// Se esperaba
+			}
+		}
+		comprobarIguales(caso + " (valores)", valores, arbol.valores().toArray());
+		comprobarIguales(caso + " (valoresEnParalelo)", valores, arbol.valoresEnParalelo().toArray());
+
+		PrimitiveIterator.OfInt iterador = arbol.iterador();
+		int[] iterados = new int[valores.length];
+
+		for (int i = 0; i < iterados.length; i++) {
+
+			if (!iterador.hasNext()) {
+				throw new AssertionError("En " + caso + ", el iterador terminó tras " + i + " valores");
+			}
+
+			iterados[i] = iterador.nextInt();
+		}
+
+		if (iterador.hasNext()) {
+			throw new AssertionError("En " + caso + ", el iterador tiene valores de más");
+		}
+
+		comprobarIguales(caso + " (iterador)", valores, iterados);
+
+		// Se divide al azar, también después de empezar a recorrer, y se concatenan las partes en orden
+		List<Integer> recorridos = new ArrayList<Integer>();
+		recorrerDividiendo(arbol.spliterator(), aleatorio, recorridos, caso);
+		comprobarIguales(caso + " (spliterator)", valores, recorridos.stream().mapToInt(Integer::intValue).toArray());
+	}
+
+	/**
+	 * Recorre el spliterator dividiéndolo al azar: a veces avanza un valor antes de dividir, y a veces recorre lo
+	 * que queda de una vez. Los valores se agregan en el orden que corresponde a cada parte.
+	 */
+	private static void recorrerDividiendo(Spliterator.OfInt divisor, SplittableRandom aleatorio, List<Integer> destino, String caso) {
+
+		long tamano = divisor.estimateSize();
+
+		if (divisor.getExactSizeIfKnown() != tamano) {
+			throw new AssertionError("En " + caso + ", el spliterator no reporta un tamaño exacto");
+		}
+
+		if (tamano > 0 && aleatorio.nextInt(4) == 0) {
+			divisor.tryAdvance((int valor) -> destino.add(valor));
+			tamano--;
+		}
+
+		if (aleatorio.nextInt(3) != 0) {
+
+			Spliterator.OfInt prefijo = divisor.trySplit();
+
+			if (prefijo != null) {
+
+				if (prefijo.estimateSize() + divisor.estimateSize() != tamano || prefijo.estimateSize() != tamano / 2) {
+					throw new AssertionError("En " + caso + ", se dividieron " + tamano + " valores en " + prefijo.estimateSize()
+						+ " y " + divisor.estimateSize());
+				}
+
+				recorrerDividiendo(prefijo, aleatorio, destino, caso);
+				recorrerDividiendo(divisor, aleatorio, destino, caso);
+				return;
+			}
+		}
+
+		int antes = destino.size();
+		divisor.forEachRemaining((int valor) -> destino.add(valor));
+
+		if (destino.size() - antes != tamano) {
+			throw new AssertionError("En " + caso + ", una parte de " + tamano + " valores recorrió " + (destino.size() - antes));
+		}
+	}
+
+	/**
+	 * En un árbol con todos los valores a la derecha, las divisiones deben seguir siendo mitades, por lo que bastan
+	 * log<sub>2</sub>(n) niveles para llegar a partes de un valor.
+	 */
+	private static void probarArbolDegenerado() {
+
+		int cantidad = 1 << 15;
+		ABEnterosPositivos arbol = new ABEnterosPositivos();
+
+		for (int valor = 0; valor < cantidad; valor++) {
+			arbol.insertar(valor);
+		}
+
+		int[] profundidadDivisiones = new int[1];
+		contarDivisiones(arbol.spliterator(), 0, profundidadDivisiones);
+
+		if (profundidadDivisiones[0] > 15) {
+			throw new AssertionError("El spliterator de un árbol degenerado necesitó " + profundidadDivisiones[0] + " niveles de divisiones");
+		}
+
+		if (arbol.valoresEnParalelo().asLongStream().sum() != (long) cantidad * (cantidad - 1) / 2) {
+			throw new AssertionError("La suma en paralelo de un árbol degenerado es incorrecta");
+		}
+
+		// Se eliminan la mitad de los valores desde la raíz y el último, al fondo del árbol
+		for (int valor = 0; valor < cantidad / 2; valor++) {
+			arbol.eliminar(valor);
+		}
+
+		arbol.eliminar(cantidad - 1);
+
+		if (arbol.getProfundidad() != cantidad / 2 - 1 || arbol.getTamano() != cantidad / 2 - 1 || !arbol.buscar(cantidad - 2)) {
+			throw new AssertionError("Tras eliminar la mitad, la profundidad es " + arbol.getProfundidad() + " y el tamaño "
+				+ arbol.getTamano());
+		}
+	}
+
+	private static void contarDivisiones(Spliterator.OfInt divisor, int nivel, int[] maximo) {
+
+		maximo[0] = Math.max(maximo[0], nivel);
+
+		Spliterator.OfInt prefijo = divisor.trySplit();
+
+		if (prefijo != null) {
+			contarDivisiones(prefijo, nivel + 1, maximo);
+			contarDivisiones(divisor, nivel + 1, maximo);
+		}
+	}
+
+	private static void comprobarIguales(String caso, int[] esperados, int[] obtenidos) {
+
+		if (!Arrays.equals(esperados, obtenidos)) {
+			throw new AssertionError("En " + caso + " se obtuvo " + Arrays.toString(obtenidos) + " en lugar de "
+				+ Arrays.toString(esperados));
+		}
+	}
+
+	/**
+	 * Árbol binario de búsqueda sin balancear, con la misma regla de eliminación que {@link ABEnterosPositivos}
+	 * (un nodo con dos hijos toma el valor de su sucesor). Su profundidad se calcula recorriéndolo completo.
+	 */
+	private static class Referencia {
+
+		private static class Nodo {
+
+			private int valor;
+			private Nodo izquierdo, derecho;
+
+			private Nodo(int valor) {
+				this.valor = valor;
+			}
+		}
+
+		private Nodo raiz;
+
+		private void insertar(int valor) {
+			raiz = insertar(raiz, valor);
+		}
+
+		private static Nodo insertar(Nodo nodo, int valor) {
+
+			if (nodo == null) {
+				return new Nodo(valor);
+			}
+
+			if (valor < nodo.valor) {
+				nodo.izquierdo = insertar(nodo.izquierdo, valor);
+			} else if (valor > nodo.valor) {
+				nodo.derecho = insertar(nodo.derecho, valor);
+			}
+
+			return nodo;
+		}
+
+		private void eliminar(int valor) {
+			raiz = eliminar(raiz, valor);
+		}
+
+		private static Nodo eliminar(Nodo nodo, int valor) {
+
+			if (nodo == null) {
+				return null;
+			}
+
+			if (valor < nodo.valor) {
+				nodo.izquierdo = eliminar(nodo.izquierdo, valor);
+			} else if (valor > nodo.valor) {
+				nodo.derecho = eliminar(nodo.derecho, valor);
+			} else if (nodo.izquierdo == null) {
+				return nodo.derecho;
+			} else if (nodo.derecho == null) {
+				return nodo.izquierdo;
+			} else {
+
+				Nodo sucesor = nodo.derecho;
+
+				while (sucesor.izquierdo != null) {
+					sucesor = sucesor.izquierdo;
+				}
+
+				nodo.valor = sucesor.valor;
+				nodo.derecho = eliminar(nodo.derecho, sucesor.valor);
+			}
+
+			return nodo;
+		}
+
+		private int profundidad() {
+			return profundidad(raiz);
+		}
+
+		private static int profundidad(Nodo nodo) {
+			return nodo == null ? 0 : 1 + Math.max(profundidad(nodo.izquierdo), profundidad(nodo.derecho));
+		}
+	}
+
+}
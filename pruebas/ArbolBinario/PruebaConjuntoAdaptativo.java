@@ -0,0 +1,284 @@
+package ArbolBinario;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import ArbolBinario.ConjuntoAdaptativo.Representacion;
+
+/**
+ * Prueba de {@link ConjuntoAdaptativo} contra {@link TreeSet}: tras cada operación de secuencias al azar, con valores
+ * densos, dispersos y mezclados, el conjunto debe tener los mismos valores, tamaño y extremos, y dar el mismo valor
+ * en algunas posiciones del orden.
+ *
+ * <p>
+ * Cada vez que el conjunto cambia de representación se comparan todos sus valores, también buscándolos por su
+ * posición, y al final se comprueba que se
+ * hayan visto los siete cambios posibles, incluido el recorte del mapa de bits. También se prueban los valores
+ * cercanos a 2<sup>31</sup>-1 en el mapa de bits y la altura del árbol AVL.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaConjuntoAdaptativo [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaConjuntoAdaptativo {
+
+	private static final int RONDAS = 250;
+
+	/**
+	 * Cambios de representación vistos, por representación de origen y de destino.
+	 */
+	private static final boolean[][] cambiosVistos = new boolean[3][3];
+
+	/**
+	 * Valores copiados por los cambios de representación de la ronda actual.
+	 */
+	private static long valoresCopiados;
+
+	public static void main(String[] args) {
+
+		SplittableRandom aleatorio = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 1);
+
+		for (int ronda = 0; ronda < RONDAS; ronda++) {
+			probarOperaciones(aleatorio, ronda);
+		}
+
+		probarValoresGrandes();
+		probarVaciar();
+
+		for (Representacion origen : Representacion.values()) {
+			for (Representacion destino : Representacion.values()) {
+
+				// Sólo el mapa de bits se cambia por uno de su misma forma, al recortarse tras muchas eliminaciones
+				boolean posible = !(origen == Representacion.ARREGLO && destino == Representacion.ARREGLO)
+					&& !(origen == Representacion.ARBOL && destino == Representacion.ARBOL);
+
+				verificar(cambiosVistos[origen.ordinal()][destino.ordinal()] == posible, "cambios",
+					"el cambio de " + origen + " a " + destino + (posible ? " no se vio" : " no debería ocurrir"));
+			}
+		}
+
+		System.out.println("PruebaConjuntoAdaptativo: OK");
+	}
+
+	/**
+	 * Aplica una secuencia de operaciones al azar. Según la ronda, los valores son densos, dispersos, mayormente
+	 * densos con algunos lejanos, o crecen en orden y después se eliminan casi todos.
+	 */
+	private static void probarOperaciones(SplittableRandom aleatorio, int ronda) {
+
+		ConjuntoAdaptativo conjunto = new ConjuntoAdaptativo();
+		TreeSet<Integer> esperado = new TreeSet<Integer>();
+		int escenario = ronda % 5;
+		int operaciones = 500 + aleatorio.nextInt(8000);
+		String caso = "ronda " + ronda;
+
+		valoresCopiados = 0;
+
+		for (int i = 0; i < operaciones; i++) {
+
+			int valor;
+
+			switch (escenario) {
+				case 0:
+					valor = aleatorio.nextInt(40);
+					break;
+				case 1:
+					valor = aleatorio.nextInt(5000);
+					break;
+				case 2:
+					valor = aleatorio.nextInt(Integer.MAX_VALUE);
+					break;
+				case 3:
+					valor = aleatorio.nextInt(10) < 9 ? aleatorio.nextInt(3000) : aleatorio.nextInt(Integer.MAX_VALUE);
+					break;
+				default:
+					valor = i < operaciones / 2 ? i : aleatorio.nextInt(operaciones);
+					break;
+			}
+
+			int operacion = aleatorio.nextInt(10);
+			boolean eliminar = escenario == 4 && i >= operaciones / 2 ? operacion < 7 : operacion < 3;
+
+			if (eliminar && !esperado.isEmpty() && aleatorio.nextBoolean()) {
+				// Eliminar los extremos obliga a buscar los nuevos en cada representación
+				valor = aleatorio.nextBoolean() ? esperado.first() : esperado.last();
+			}
+
+			aplicar(conjunto, esperado, eliminar ? 2 : operacion < 6 ? 0 : 1, valor, caso + ", operación " + i);
+		}
+
+		comparar(conjunto, esperado, caso + " al terminar");
+
+		// Un cambio que sólo mejora el desempeño espera a que se hagan tantas operaciones como la mitad de los
+		// valores, y uno forzado copia a lo más el arreglo lleno o lo que se juntó desde el cambio anterior
+		verificar(valoresCopiados <= 4L * operaciones + (long) ConjuntoAdaptativo.TAMANO_ARREGLO * conjunto.getMigraciones(),
+			caso, valoresCopiados + " valores copiados en " + operaciones + " operaciones");
+	}
+
+	/**
+	 * Llena el mapa de bits con valores cercanos al entero más grande, para que al ampliarlo no pase de 2<sup>31</sup>.
+	 */
+	private static void probarValoresGrandes() {
+
+		ConjuntoAdaptativo conjunto = new ConjuntoAdaptativo();
+		TreeSet<Integer> esperado = new TreeSet<Integer>();
+
+		for (int i = 0; i < 4000; i++) {
+			aplicar(conjunto, esperado, 0, Integer.MAX_VALUE - 3999 + i, "valores grandes crecientes");
+		}
+
+		verificar(conjunto.getRepresentacion() == Representacion.BITS, "valores grandes", "no se usa el mapa de bits");
+
+		for (int i = 0; i < 4000; i++) {
+			aplicar(conjunto, esperado, 0, Integer.MAX_VALUE - 8000 + i, "valores grandes decrecientes");
+		}
+
+		for (int i = 0; i < 7990; i++) {
+			aplicar(conjunto, esperado, 2, esperado.first(), "valores grandes eliminados");
+		}
+
+		comparar(conjunto, esperado, "valores grandes al terminar");
+	}
+
+	private static void probarVaciar() {
+
+		for (int escala : new int[] { 1, 1 << 20 }) {
+
+			ConjuntoAdaptativo conjunto = new ConjuntoAdaptativo();
+			TreeSet<Integer> esperado = new TreeSet<Integer>();
+
+			for (int i = 0; i < 1000; i++) {
+				aplicar(conjunto, esperado, 0, i * escala, "vaciar con escala " + escala);
+			}
+
+			conjunto.vaciar();
+			esperado.clear();
+
+			verificar(conjunto.getRepresentacion() == Representacion.ARREGLO, "vaciar", "no se vuelve al arreglo");
+			comparar(conjunto, esperado, "vaciar con escala " + escala);
+
+			for (int i = 0; i < 100; i++) {
+				aplicar(conjunto, esperado, 0, i * 7, "vaciar y volver a llenar");
+			}
+		}
+
+		try {
+			new ConjuntoAdaptativo().insertar(-1);
+			throw new AssertionError("vaciar: se insertó un valor negativo");
+		} catch (IllegalArgumentException e) {
+			// Se esperaba
+		}
+	}
+
+	/**
+	 * Aplica una operación al conjunto y a la referencia, y compara el resultado.
+	 *
+	 * @param operacion: 0 para insertar, 1 para buscar, 2 para eliminar
+	 */
+	private static void aplicar(ConjuntoAdaptativo conjunto, TreeSet<Integer> esperado, int operacion, int valor, String caso) {
+
+		Representacion antes = conjunto.getRepresentacion();
+		long migracionesAntes = conjunto.getMigraciones();
+
+		switch (operacion) {
+			case 0:
+				conjunto.insertar(valor);
+				esperado.add(valor);
+				break;
+			case 1:
+				verificar(conjunto.buscar(valor) == esperado.contains(valor), caso, "buscar(" + valor + ")");
+				break;
+			default:
+				verificar(conjunto.eliminar(valor) == esperado.remove(valor), caso, "eliminar(" + valor + ")");
+				break;
+		}
+
+		verificar(conjunto.getTamano() == esperado.size(), caso, "getTamano en " + conjunto.getRepresentacion());
+		verificar(conjunto.getValorMinimo() == (esperado.isEmpty() ? -1 : esperado.first()), caso,
+			"getValorMinimo en " + conjunto.getRepresentacion());
+		verificar(conjunto.getValorMaximo() == (esperado.isEmpty() ? -1 : esperado.last()), caso,
+			"getValorMaximo en " + conjunto.getRepresentacion());
+
+		if (!esperado.isEmpty()) {
+
+			verificar(conjunto.obtenerValorEnPosicion(0) == esperado.first(), caso,
+				"obtenerValorEnPosicion(0) en " + conjunto.getRepresentacion());
+			verificar(conjunto.obtenerValorEnPosicion(esperado.size() - 1) == esperado.last(), caso,
+				"obtenerValorEnPosicion(" + (esperado.size() - 1) + ") en " + conjunto.getRepresentacion());
+
+			// Contar en la referencia cuesta O(n), así que las posiciones intermedias se revisan en una de cada ocho
+			// operaciones; la posición depende del valor para recorrer todo el conjunto
+			if (valor % 8 == 0) {
+
+				int posicion = (valor >>> 3) % esperado.size();
+				int enPosicion = conjunto.obtenerValorEnPosicion(posicion);
+
+				verificar(esperado.contains(enPosicion) && esperado.headSet(enPosicion).size() == posicion, caso,
+					"obtenerValorEnPosicion(" + posicion + ") en " + conjunto.getRepresentacion());
+			}
+		}
+
+		long migraciones = conjunto.getMigraciones() - migracionesAntes;
+
+		// Vaciar el conjunto vuelve al arreglo sin contar como cambio
+		if (migraciones == 0 && !esperado.isEmpty()) {
+			verificar(conjunto.getRepresentacion() == antes, caso, "cambió de representación sin contarlo");
+		}
+
+		if (migraciones > 0) {
+			verificar(migraciones == 1, caso, "cambió de representación " + migraciones + " veces en una operación");
+			cambiosVistos[antes.ordinal()][conjunto.getRepresentacion().ordinal()] = true;
+			valoresCopiados += esperado.size();
+			comparar(conjunto, esperado, caso + " tras pasar de " + antes + " a " + conjunto.getRepresentacion());
+		}
+	}
+
+	/**
+	 * Compara todos los valores del conjunto con la referencia y revisa que la altura del árbol sea la de un AVL.
+	 */
+	private static void comparar(ConjuntoAdaptativo conjunto, TreeSet<Integer> esperado, String caso) {
+
+		int[] esperados = esperado.stream().mapToInt(Integer::intValue).toArray();
+		int[] obtenidos = conjunto.obtenerValores();
+
+		verificar(Arrays.equals(esperados, obtenidos), caso, "obtenerValores en " + conjunto.getRepresentacion());
+
+		for (int i = 0; i < esperados.length; i++) {
+			verificar(conjunto.buscar(esperados[i]), caso, "buscar(" + esperados[i] + ") en " + conjunto.getRepresentacion());
+			verificar(conjunto.obtenerValorEnPosicion(i) == esperados[i], caso,
+				"obtenerValorEnPosicion(" + i + ") en " + conjunto.getRepresentacion());
+		}
+
+		for (int posicion : new int[] { -1, esperados.length }) {
+			try {
+				conjunto.obtenerValorEnPosicion(posicion);
+				throw new AssertionError(caso + ": obtenerValorEnPosicion(" + posicion + ") en " + conjunto.getRepresentacion()
+					+ " no lanzó una excepción");
+			} catch (IndexOutOfBoundsException e) {
+				// Se esperaba
+			}
+		}
+
+		int profundidad = conjunto.getProfundidad();
+
+		if (esperado.isEmpty()) {
+			verificar(profundidad == 0, caso, "getProfundidad de un conjunto vacío");
+		} else if (conjunto.getRepresentacion() != Representacion.ARBOL) {
+			verificar(profundidad == 1, caso, "getProfundidad en " + conjunto.getRepresentacion());
+		} else {
+			// Un árbol AVL con n valores tiene altura menor a 1.45 log2(n + 2)
+			verificar(profundidad < 1.45 * (Math.log(esperado.size() + 2) / Math.log(2)), caso,
+				"la altura " + profundidad + " no es la de un árbol AVL con " + esperado.size() + " valores");
+		}
+	}
+
+	private static void verificar(boolean condicion, String caso, String mensaje) {
+
+		if (!condicion) {
+			throw new AssertionError(caso + ": " + mensaje);
+		}
+	}
+
+}
@@ -0,0 +1,175 @@
+package JuegoTablero;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Prueba de {@link AnalizadorBitacoras}: el resultado no depende de cómo se divida la bitácora en segmentos,
+ * incluso cuando los cortes caen a mitad de una partida o de una línea.
+ *
+ * <p>
+ * Se graban partidas con semilla y se analizan con segmentos de varios tamaños, comparando contra un solo
+ * segmento. Se prueba también una bitácora sin líneas vacías, que es una sola partida y no puede cortarse
+ * en el límite de una partida. Por último, se revisa que una casilla que se mezcla en su fila y en su columna
+ * a la vez cuente como dos mezclas.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaAnalizadorBitacoras</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaAnalizadorBitacoras {
+
+    private static final int PARTIDAS = 300;
+
+    private static final long[] TAMANOS_SEGMENTO = { 1, 7, 64, 1000, 20000 };
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+
+        Path separadas = Files.createTempFile("bitacora", ".txt");
+        Path continua = Files.createTempFile("bitacora", ".txt");
+
+        try {
+
+            Files.write(separadas, grabarPartidas(true).getBytes(StandardCharsets.US_ASCII));
+            Files.write(continua, grabarPartidas(false).getBytes(StandardCharsets.US_ASCII));
+
+            AnalizadorBitacoras.Estadisticas estadisticas = analizar(separadas, Long.MAX_VALUE);
+
+            if (estadisticas.getPartidas() != PARTIDAS)
+                throw new AssertionError("Se reprodujeron " + estadisticas.getPartidas() + " partidas en lugar de " + PARTIDAS);
+
+            if (analizar(continua, Long.MAX_VALUE).getPartidas() != 1)
+                throw new AssertionError("Una bitácora sin líneas vacías debe ser una sola partida");
+
+            for (Path bitacora : new Path[] { separadas, continua }) {
+
+                String esperado = imprimir(analizar(bitacora, Long.MAX_VALUE));
+
+                for (long tamano : TAMANOS_SEGMENTO) {
+
+                    String obtenido = imprimir(analizar(bitacora, tamano));
+
+                    if (!obtenido.equals(esperado))
+                        throw new AssertionError("Con segmentos de " + tamano + " bytes se obtuvo:\n" + obtenido
+                            + "\nen lugar de:\n" + esperado);
+                }
+            }
+
+        } finally {
+            Files.deleteIfExists(separadas);
+            Files.deleteIfExists(continua);
+        }
+
+        probarMezclaDoble();
+
+        System.out.println("PruebaAnalizadorBitacoras: OK");
+
+    }
+
+    /**
+     * Juega partidas con semilla y las escribe en el formato de la bitácora.
+     *
+     * @param separar Si las partidas se separan con líneas vacías, que alternan entre <code>\n</code>,
+     *                <code>\r\n</code> y líneas con espacios.
+     */
+    private static String grabarPartidas(boolean separar) {
+
+        StringBuilder bitacora = new StringBuilder();
+        EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+        int[] par = new int[2];
+        int[] coordenada = new int[2];
+
+        for (int semilla = 0; semilla < PARTIDAS; semilla++) {
+
+            Tablero tablero = new Tablero(7, 7, 3, Tablero.Almacenamiento.COLAS, semilla);
+            SplittableRandom aleatorio = new SplittableRandom(semilla);
+            int[] casillas = new int[4];
+
+            jugar:
+            while (tablero.getEstado() == Estado.JUGANDO) {
+
+                tablero.pedirParAleatorio(par);
+
+                for (int i = 0; i < 2; i++) {
+
+                    if (tablero.getEstado() != Estado.JUGANDO)
+                        break jugar;
+
+                    estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenada);
+                    tablero.insertarNumero(coordenada[0], coordenada[1], par[i]);
+                    casillas[2 * i] = coordenada[0];
+                    casillas[2 * i + 1] = coordenada[1];
+                    bitacora.append(coordenada[0]).append(',').append(coordenada[1]).append(',').append(par[i])
+                        .append(semilla % 5 == 0 ? "\r\n" : "\n");
+                }
+
+                tablero.revisarConsecutivos(casillas[0], casillas[1]);
+                tablero.revisarConsecutivos(casillas[2], casillas[3]);
+            }
+
+            if (separar)
+                bitacora.append(semilla % 3 == 0 ? "\n" : semilla % 3 == 1 ? "\r\n" : "  \n");
+        }
+
+        return bitacora.toString();
+
+    }
+
+    /**
+     * En un tablero de 3x3, el 1 de la casilla central completa a la vez el tramo de su fila y el de su columna.
+     */
+    private static void probarMezclaDoble() throws IOException, InterruptedException, ExecutionException {
+
+        Path bitacora = Files.createTempFile("bitacora", ".txt");
+
+        try {
+
+            Files.write(bitacora, "1,2,1\n3,2,1\n2,1,1\n2,3,1\n2,2,1\n1,1,2\n".getBytes(StandardCharsets.US_ASCII));
+
+            AnalizadorBitacoras.Estadisticas estadisticas = new AnalizadorBitacoras(new String[] {
+                "--dimension", "3",
+                "--maximo", "3",
+                bitacora.toString()
+            }).analizar();
+
+            if (estadisticas.getPartidas() != 1 || estadisticas.getMezclas(2) != 2)
+                throw new AssertionError("La mezcla en fila y columna a la vez se contó como " + estadisticas.getMezclas(2)
+                    + " mezclas en lugar de 2");
+
+        } finally {
+            Files.deleteIfExists(bitacora);
+        }
+
+    }
+
+    private static AnalizadorBitacoras.Estadisticas analizar(Path bitacora, long tamanoSegmento)
+            throws IOException, InterruptedException, ExecutionException {
+
+        return new AnalizadorBitacoras(new String[] {
+            "--hilos", "3",
+            "--segmento", Long.toString(tamanoSegmento),
+            bitacora.toString()
+        }).analizar();
+
+    }
+
+    private static String imprimir(AnalizadorBitacoras.Estadisticas estadisticas) throws UnsupportedEncodingException {
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        estadisticas.imprimir(new PrintStream(salida, true, "UTF-8"));
+
+        return salida.toString("UTF-8");
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package JuegoTablero;
+
+import java.util.SplittableRandom;
+
+/**
+ * Prueba de {@link CasillasEmpaquetadas} contra {@link CasillasEnColas}: tras llenar ambas con los mismos valores,
+ * deben coincidir las lecturas, las filas copiadas y los tramos de casillas iguales en las ocho direcciones.
+ *
+ * <p>
+ * Se prueban dimensiones alrededor del número de casillas por palabra para 4, 8 y 16 bits, y llenados con pocos
+ * valores distintos, para que haya tramos largos que crucen de una palabra a otra.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaCasillasEmpaquetadas [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaCasillasEmpaquetadas {
+
+    private static final int[] DIMENSIONES = { 1, 2, 3, 4, 5, 7, 8, 9, 15, 16, 17, 31, 33, 40 };
+
+    /**
+     * Valores máximos que caben en 4, 8 y 16 bits.
+     */
+    private static final int[] VALORES_MAXIMOS = { 7, 15, 16, 255, 256, 65535 };
+
+    private static final int LLENADOS = 20;
+
+    public static void main(String[] args) {
+
+        SplittableRandom aleatorio = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 1);
+
+        for (int dimension : DIMENSIONES) {
+            for (int valorMaximo : VALORES_MAXIMOS) {
+
+                CasillasEmpaquetadas empaquetadas = new CasillasEmpaquetadas(dimension, valorMaximo);
+                CasillasEnColas referencia = new CasillasEnColas(dimension);
+
+                for (int llenado = 0; llenado < LLENADOS; llenado++) {
+
+                    int[] valores = elegirValores(aleatorio, valorMaximo);
+
+                    llenar(aleatorio, valores, empaquetadas, referencia);
+                    comparar(empaquetadas, referencia, valores, dimension + "x" + dimension + " con máximo " + valorMaximo);
+                }
+
+                empaquetadas.vaciarTodo();
+                referencia.vaciarTodo();
+                comparar(empaquetadas, referencia, new int[] { valorMaximo }, "tablero vaciado");
+            }
+        }
+
+        System.out.println("PruebaCasillasEmpaquetadas: OK");
+
+    }
+
+    /**
+     * Elige de uno a tres valores distintos de 0, incluyendo a veces el valor máximo, cuyo patrón tiene todos
+     * los bits de la casilla encendidos.
+     */
+    private static int[] elegirValores(SplittableRandom aleatorio, int valorMaximo) {
+
+        int[] valores = new int[1 + aleatorio.nextInt(3)];
+
+        for (int i = 0; i < valores.length; i++)
+            valores[i] = aleatorio.nextBoolean() ? valorMaximo : 1 + aleatorio.nextInt(valorMaximo);
+
+        return valores;
+
+    }
+
+    /**
+     * Escribe valores al azar en ambos almacenamientos. La proporción de casillas vacías cambia en cada llenado.
+     */
+    static void llenar(SplittableRandom aleatorio, int[] valores, AlmacenamientoCasillas casillas, AlmacenamientoCasillas referencia) {
+
+        int dimension = referencia.dimension;
+        int vacias = aleatorio.nextInt(4);
+
+        for (int y = 1; y <= dimension; y++) {
+            for (int x = 1; x <= dimension; x++) {
+
+                int valor = aleatorio.nextInt(valores.length + vacias) < vacias ? 0 : valores[aleatorio.nextInt(valores.length)];
+
+                casillas.establecer(x, y, valor);
+                referencia.establecer(x, y, valor);
+            }
+        }
+
+    }
+
+    static void comparar(AlmacenamientoCasillas casillas, AlmacenamientoCasillas referencia, int[] valores, String caso) {
+
+        int dimension = referencia.dimension;
+        int[] fila = new int[dimension];
+        int[] filaReferencia = new int[dimension];
+
+        for (int y = 1; y <= dimension; y++) {
+
+            casillas.copiarFila(y, fila);
+            referencia.copiarFila(y, filaReferencia);
+
+            for (int x = 1; x <= dimension; x++) {
+
+                if (casillas.obtener(x, y) != referencia.obtener(x, y) || fila[x - 1] != filaReferencia[x - 1])
+                    throw new AssertionError("En " + caso + ", la casilla (" + x + ", " + y + ") vale "
+                        + casillas.obtener(x, y) + " en lugar de " + referencia.obtener(x, y));
+
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+
+                        if (dx == 0 && dy == 0)
+                            continue;
+
+                        for (int valor : valores) {
+
+                            int cuenta = casillas.contarIguales(x, y, dx, dy, valor);
+                            int esperada = referencia.contarIguales(x, y, dx, dy, valor);
+
+                            if (cuenta != esperada)
+                                throw new AssertionError("En " + caso + ", desde (" + x + ", " + y + ") en dirección ("
+                                    + dx + ", " + dy + ") hay " + cuenta + " casillas con " + valor + " en lugar de " + esperada);
+                        }
+                    }
+                }
+            }
+        }
+
+    }
+
+}
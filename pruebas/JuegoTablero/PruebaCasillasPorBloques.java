@@ -0,0 +1,99 @@
+package JuegoTablero;
+
+import java.util.SplittableRandom;
+
+/**
+ * Prueba de {@link CasillasPorBloques} contra {@link CasillasEnColas}: lecturas y tramos de casillas iguales, en
+ * particular los que cruzan el borde entre bloques, y la liberación de los bloques que quedan vacíos.
+ *
+ * <p>
+ * Uso: <code>PruebaCasillasPorBloques [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaCasillasPorBloques {
+
+    private static final int LADO = CasillasPorBloques.LADO_BLOQUE;
+
+    private static final int[] DIMENSIONES = { 1, LADO - 1, LADO, LADO + 1, 2 * LADO + 1, 3 * LADO - 5 };
+
+    private static final int[] VALORES_MAXIMOS = { 7, 255, 65535 };
+
+    public static void main(String[] args) {
+
+        SplittableRandom aleatorio = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 1);
+
+        for (int dimension : DIMENSIONES) {
+            for (int valorMaximo : VALORES_MAXIMOS) {
+
+                String caso = dimension + "x" + dimension + " con máximo " + valorMaximo;
+                CasillasPorBloques bloques = new CasillasPorBloques(dimension, valorMaximo);
+                CasillasEnColas referencia = new CasillasEnColas(dimension);
+                int[] valores = { 1, valorMaximo };
+
+                // Tablero lleno con pocos valores: hay tramos largos en todos los bloques
+                PruebaCasillasEmpaquetadas.llenar(aleatorio, valores, bloques, referencia);
+                PruebaCasillasEmpaquetadas.comparar(bloques, referencia, valores, caso);
+
+                vaciarUnaPorUna(bloques, referencia, caso);
+
+                // Tablero casi vacío con líneas que cruzan los bordes de los bloques
+                trazarLineas(aleatorio, valores, bloques, referencia);
+                PruebaCasillasEmpaquetadas.comparar(bloques, referencia, valores, caso + " con líneas");
+
+                vaciarUnaPorUna(bloques, referencia, caso + " con líneas");
+            }
+        }
+
+        System.out.println("PruebaCasillasPorBloques: OK");
+
+    }
+
+    /**
+     * Traza una fila, una columna y las dos diagonales que pasan por una casilla cerca de una esquina de bloque.
+     */
+    private static void trazarLineas(SplittableRandom aleatorio, int[] valores, CasillasPorBloques bloques, CasillasEnColas referencia) {
+
+        int dimension = referencia.dimension;
+        int centroX = Math.min(dimension, LADO + aleatorio.nextInt(-1, 2));
+        int centroY = Math.min(dimension, LADO + aleatorio.nextInt(-1, 2));
+        int[][] direcciones = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+
+        for (int[] direccion : direcciones) {
+
+            int valor = valores[aleatorio.nextInt(valores.length)];
+
+            for (int paso = -dimension; paso <= dimension; paso++) {
+
+                int x = centroX + paso * direccion[0];
+                int y = centroY + paso * direccion[1];
+
+                if (x < 1 || x > dimension || y < 1 || y > dimension)
+                    continue;
+
+                bloques.establecer(x, y, valor);
+                referencia.establecer(x, y, valor);
+            }
+        }
+
+    }
+
+    /**
+     * Vacía las casillas una por una, comprobando que al final no quede ningún bloque reservado.
+     */
+    private static void vaciarUnaPorUna(CasillasPorBloques bloques, CasillasEnColas referencia, String caso) {
+
+        int dimension = referencia.dimension;
+
+        for (int y = dimension; y >= 1; y--) {
+            for (int x = 1; x <= dimension; x++) {
+                bloques.establecer(x, y, 0);
+                referencia.establecer(x, y, 0);
+            }
+        }
+
+        if (bloques.contarBloques() != 0)
+            throw new AssertionError("En " + caso + " quedaron " + bloques.contarBloques() + " bloques reservados tras vaciar el tablero");
+
+    }
+
+}
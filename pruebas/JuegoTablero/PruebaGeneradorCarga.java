@@ -0,0 +1,129 @@
+package JuegoTablero;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import JuegoTablero.GeneradorCarga.ResultadoEtapa;
+import JuegoTablero.Metricas.Operacion;
+
+/**
+ * Prueba de {@link GeneradorCarga} con una ejecución corta y una semilla fija.
+ *
+ * <p>
+ * Todas las sesiones deben terminar al acabar cada etapa sin dejar tareas en el ejecutor. En cada etapa, los
+ * percentiles 50, 99 y 99.9 de cada operación deben estar ordenados y no pasar del máximo, y los histogramas deben
+ * contener exactamente las operaciones de los turnos medidos: un par por turno, una o dos inserciones por turno
+ * y dos revisiones por cada turno que coloca ambos números.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaGeneradorCarga</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaGeneradorCarga {
+
+    private static final long ESPERA_MAXIMA_MILIS = 30000;
+
+    private static final int[] SESIONES = { 1, 25 };
+
+    public static void main(String[] args) throws InterruptedException, UnsupportedEncodingException {
+
+        GeneradorCarga generador = new GeneradorCarga(new String[] {
+            "--sesiones", "1,25",
+            "--duracion", "0.3",
+            "--calentamiento", "0.1",
+            "--pensar", "0.2",
+            "--pensar-distribucion", "exponencial",
+            "--hilos", "2",
+            "--semilla", "7",
+            "--dimension", "5",
+            "--maximo", "5",
+            "--almacenamiento", "EMPAQUETADO"
+        });
+
+        AtomicReference<Throwable> fallo = new AtomicReference<Throwable>();
+        PrintStream salidaEstandar = System.out;
+
+        // La tabla de resultados no se imprime durante la prueba
+        System.setOut(new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+
+        try {
+
+            Thread hilo = new Thread(() -> {
+                try {
+                    generador.ejecutar();
+                } catch (Throwable e) {
+                    fallo.set(e);
+                }
+            });
+
+            hilo.start();
+            hilo.join(ESPERA_MAXIMA_MILIS);
+
+            if (hilo.isAlive())
+                throw new AssertionError("Las sesiones no terminaron en " + ESPERA_MAXIMA_MILIS + " ms");
+
+        } finally {
+            System.setOut(salidaEstandar);
+        }
+
+        if (fallo.get() != null)
+            throw new AssertionError("La ejecución falló", fallo.get());
+
+        List<ResultadoEtapa> resultados = generador.getResultados();
+
+        verificar(resultados.size() == SESIONES.length, "etapas", "se ejecutaron " + resultados.size() + " etapas");
+
+        for (int i = 0; i < SESIONES.length; i++)
+            revisar(resultados.get(i), SESIONES[i]);
+
+        System.out.println("PruebaGeneradorCarga: OK");
+
+    }
+
+    private static void revisar(ResultadoEtapa resultado, int sesiones) {
+
+        String caso = "etapa de " + sesiones + " sesiones";
+        long turnos = resultado.getTurnos();
+
+        verificar(resultado.getSesiones() == sesiones, caso, "getSesiones");
+        verificar(resultado.getTareasPendientes() == 0, caso, "quedaron " + resultado.getTareasPendientes() + " tareas en el ejecutor");
+        verificar(turnos >= sesiones, caso, "se midieron " + turnos + " turnos");
+        verificar(resultado.getPartidas() >= 0 && resultado.getPartidas() <= turnos, caso, resultado.getPartidas() + " partidas");
+
+        for (Operacion operacion : new Operacion[] { Operacion.PEDIR_PAR_ALEATORIO, Operacion.INSERTAR_NUMERO, Operacion.REVISAR_CONSECUTIVOS }) {
+
+            Histograma histograma = resultado.getLatencias(operacion);
+            long p50 = histograma.percentil(50);
+            long p99 = histograma.percentil(99);
+            long p999 = histograma.percentil(99.9);
+
+            verificar(p50 <= p99 && p99 <= p999 && p999 <= histograma.getMaximo(), caso,
+                operacion + " tiene p50 " + p50 + ", p99 " + p99 + ", p99.9 " + p999 + " y máximo " + histograma.getMaximo());
+            verificar(histograma.percentil(100) == histograma.getMaximo(), caso, operacion + " no llega al máximo en el percentil 100");
+        }
+
+        long pares = resultado.getLatencias(Operacion.PEDIR_PAR_ALEATORIO).getTotal();
+        long inserciones = resultado.getLatencias(Operacion.INSERTAR_NUMERO).getTotal();
+        long revisiones = resultado.getLatencias(Operacion.REVISAR_CONSECUTIVOS).getTotal();
+
+        verificar(pares == turnos, caso, pares + " pares en " + turnos + " turnos");
+        verificar(inserciones >= turnos && inserciones <= 2 * turnos, caso, inserciones + " inserciones en " + turnos + " turnos");
+
+        // Cada turno que no se interrumpe inserta dos números y revisa sus dos casillas
+        verificar(revisiones == 2 * (inserciones - turnos), caso, revisiones + " revisiones con " + inserciones
+            + " inserciones en " + turnos + " turnos");
+
+    }
+
+    private static void verificar(boolean condicion, String caso, String mensaje) {
+
+        if (!condicion)
+            throw new AssertionError(caso + ": " + mensaje);
+
+    }
+
+}
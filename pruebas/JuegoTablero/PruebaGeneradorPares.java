@@ -0,0 +1,143 @@
+package JuegoTablero;
+
+import java.util.SplittableRandom;
+
+import ArbolBinario.ABEnterosPositivos;
+import ArbolBinario.ArbolBinario;
+import ArbolBinario.ConjuntoAdaptativo;
+
+/**
+ * Prueba de {@link GeneradorPares} contra un generador secuencial que toma un <code>long</code> de la fuente por
+ * cada par, sin lotes y sobre una copia de los valores: con la misma semilla, ambos deben producir los mismos pares,
+ * también cuando el grupo crece a mitad de un lote (hasta pasar del arreglo al mapa de bits en
+ * {@link ConjuntoAdaptativo}, o con {@link ABEnterosPositivos}) y al reiniciar con otra fuente. Además se comprueba
+ * que los dos números del par sean distintos, que todos los pares ordenados salgan con frecuencias parecidas y que
+ * un grupo con menos de dos números no forme pares.
+ *
+ * <p>
+ * Uso: <code>PruebaGeneradorPares</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaGeneradorPares {
+
+    private static final int PARES = 20 * GeneradorPares.TAMANO_LOTE + 17;
+
+    public static void main(String[] args) {
+
+        for (long semilla = 0; semilla < 20; semilla++)
+            compararSecuencias(semilla);
+
+        comprobarFrecuencias();
+        comprobarGrupoPequeno();
+
+        System.out.println("PruebaGeneradorPares: OK");
+
+    }
+
+    private static void compararSecuencias(long semilla) {
+
+        ArbolBinario grupo = semilla % 2 == 0 ? new ConjuntoAdaptativo() : new ABEnterosPositivos();
+        GeneradorPares generador = new GeneradorPares(new SplittableRandom(semilla), grupo);
+        SplittableRandom referencia = new SplittableRandom(semilla);
+        int[] par = new int[2];
+        int[] esperado = new int[2];
+
+        grupo.insertar(1, 2);
+
+        for (int i = 0; i < PARES; i++) {
+
+            // El grupo crece como en el juego, a veces a mitad de un lote, sin avisarle al generador
+            if (i % 37 == 36 && grupo.getTamano() < 40)
+                grupo.insertar(grupo.getTamano() + 1);
+
+            // Reiniciar descarta lo que quedaba del lote, igual que empezar otra fuente
+            if (i == PARES / 2) {
+                generador.reiniciar(new SplittableRandom(semilla + 1000));
+                referencia = new SplittableRandom(semilla + 1000);
+            }
+
+            generador.siguientePar(par);
+            parSecuencial(referencia.nextLong(), grupo.obtenerValores(), esperado);
+
+            if (par[0] != esperado[0] || par[1] != esperado[1])
+                throw new AssertionError("Con la semilla " + semilla + ", el par " + i + " es (" + par[0] + ", " + par[1]
+                    + ") en lugar de (" + esperado[0] + ", " + esperado[1] + ")");
+
+            if (par[0] == par[1])
+                throw new AssertionError("Con la semilla " + semilla + ", el par " + i + " repite el número " + par[0]);
+        }
+
+    }
+
+    /**
+     * Elige el par directamente de un número aleatorio: el primer índice con los 32 bits altos y el segundo con
+     * los 32 bajos, entre los índices restantes.
+     */
+    private static void parSecuencial(long aleatorio, int[] valores, int[] destino) {
+
+        int cantidad = valores.length;
+        int primero = (int) Math.floor((double) (aleatorio >>> 32) / (1L << 32) * cantidad);
+        int segundo = (int) Math.floor((double) (aleatorio & 0xFFFFFFFFL) / (1L << 32) * (cantidad - 1));
+
+        if (segundo >= primero)
+            segundo++;
+
+        destino[0] = valores[primero];
+        destino[1] = valores[segundo];
+
+    }
+
+    /**
+     * Con 5 valores hay 20 pares ordenados; cada uno debe salir alrededor de 1/20 de las veces.
+     */
+    private static void comprobarFrecuencias() {
+
+        int cantidad = 5;
+        int muestras = 200000;
+        int[][] frecuencias = new int[cantidad + 1][cantidad + 1];
+        int[] par = new int[2];
+
+        ArbolBinario grupo = new ConjuntoAdaptativo();
+        grupo.insertar(1, 2, 3, 4, 5);
+
+        GeneradorPares generador = new GeneradorPares(new SplittableRandom(7), grupo);
+
+        for (int i = 0; i < muestras; i++) {
+            generador.siguientePar(par);
+            frecuencias[par[0]][par[1]]++;
+        }
+
+        double esperada = (double) muestras / (cantidad * (cantidad - 1));
+
+        for (int a = 1; a <= cantidad; a++) {
+            for (int b = 1; b <= cantidad; b++) {
+
+                if (a == b)
+                    continue;
+
+                // Más de 6 desviaciones estándar es prácticamente imposible con un generador correcto
+                if (Math.abs(frecuencias[a][b] - esperada) > 6 * Math.sqrt(esperada))
+                    throw new AssertionError("El par (" + a + ", " + b + ") salió " + frecuencias[a][b]
+                        + " veces; se esperaban unas " + Math.round(esperada));
+            }
+        }
+
+    }
+
+    private static void comprobarGrupoPequeno() {
+
+        ArbolBinario grupo = new ConjuntoAdaptativo();
+        GeneradorPares generador = new GeneradorPares(new SplittableRandom(7), grupo);
+
+        grupo.insertar(1);
+
+        try {
+            generador.siguientePar(new int[2]);
+            throw new AssertionError("Se formó un par con un solo número");
+        } catch (IllegalStateException e) {
+            // Se esperaba
+        }
+
+    }
+
+}
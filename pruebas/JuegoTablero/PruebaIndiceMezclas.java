@@ -0,0 +1,213 @@
+package JuegoTablero;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Prueba de {@link IndiceMezclas} contra un recorrido exhaustivo del tablero: tras cada inserción, mezcla y reinicio
+ * de partidas al azar, las consultas del índice deben coincidir con las que se obtienen contando los tramos casilla
+ * por casilla.
+ *
+ * <p>
+ * Uso: <code>PruebaIndiceMezclas [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaIndiceMezclas {
+
+    /**
+     * Dimensión, número máximo y consecutivos necesarios de cada tablero probado.
+     */
+    private static final int[][] PARAMETROS = { { 2, 2, 2 }, { 5, 5, 2 }, { 7, 7, 3 }, { 9, 9, 4 }, { 12, 7, 5 } };
+
+    private static final int PARTIDAS = 12;
+
+    public static void main(String[] args) {
+
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 1;
+
+        for (Almacenamiento almacenamiento : Almacenamiento.values()) {
+            for (int[] parametros : PARAMETROS) {
+
+                String caso = almacenamiento + " " + parametros[0] + "x" + parametros[0] + " con máximo " + parametros[1]
+                    + " y " + parametros[2] + " consecutivos";
+
+                probar(new SplittableRandom(semilla), almacenamiento, parametros[0], parametros[1], parametros[2], caso);
+            }
+        }
+
+        System.out.println("PruebaIndiceMezclas: OK");
+
+    }
+
+    /**
+     * Juega varias partidas en el mismo tablero. La primera activa el índice a media partida, para probar que se
+     * construye bien a partir de un tablero con contenido; las demás lo reciben ya activo tras reiniciar.
+     */
+    private static void probar(SplittableRandom aleatorio, Almacenamiento almacenamiento, int dimension, int numeroMaximo,
+            int consecutivosNecesarios, String caso) {
+
+        Tablero tablero = new Tablero(dimension, numeroMaximo, consecutivosNecesarios, almacenamiento, aleatorio.nextLong());
+        int activarEn = aleatorio.nextInt(dimension * dimension / 2 + 1);
+
+        for (int partida = 0; partida < PARTIDAS; partida++) {
+
+            // Se alterna entre reiniciar con los mismos parámetros, que vacía el índice, y con otros, que lo reconstruye
+            int consecutivos = partida % 3 == 2 ? Math.max(2, consecutivosNecesarios - 1) : consecutivosNecesarios;
+
+            if (partida > 0) {
+                tablero.reiniciar(dimension, numeroMaximo, consecutivos, aleatorio.nextLong());
+                comparar(tablero, consecutivos, caso + ", partida " + partida + " al reiniciar");
+            }
+
+            jugar(aleatorio, tablero, consecutivos, partida == 0 ? activarEn : 0, caso + ", partida " + partida);
+        }
+
+    }
+
+    private static void jugar(SplittableRandom aleatorio, Tablero tablero, int consecutivos, int activarEn, String caso) {
+
+        int dimension = tablero.getDimension();
+        int[] par = new int[2];
+        int[][] coordenadas = new int[2][2];
+        int inserciones = 0;
+
+        if (activarEn == 0)
+            tablero.activarIndiceMezclas();
+
+        jugar:
+        while (tablero.getEstado() == Estado.JUGANDO) {
+
+            tablero.pedirParAleatorio(par);
+
+            for (int i = 0; i < 2; i++) {
+
+                if (tablero.getEstado() != Estado.JUGANDO)
+                    break jugar;
+
+                do {
+                    coordenadas[i][0] = 1 + aleatorio.nextInt(dimension);
+                    coordenadas[i][1] = 1 + aleatorio.nextInt(dimension);
+                } while (!tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]));
+
+                if (++inserciones == activarEn)
+                    tablero.activarIndiceMezclas();
+
+                if (inserciones >= activarEn)
+                    comparar(tablero, consecutivos, caso + " tras insertar en " + Arrays.toString(coordenadas[i]));
+            }
+
+            // Cada mezcla puede formar un tramo nuevo con el valor que queda, así que se revisa hasta que no haya más
+            for (int[] coordenada : coordenadas) {
+
+                while (tablero.getEstado() == Estado.JUGANDO && tablero.obtenerValor(coordenada[0], coordenada[1]) != 0
+                        && tablero.revisarConsecutivos(coordenada[0], coordenada[1]) != 0) {
+
+                    if (inserciones >= activarEn)
+                        comparar(tablero, consecutivos, caso + " tras mezclar en " + Arrays.toString(coordenada));
+                }
+            }
+        }
+
+        if (inserciones < activarEn)
+            tablero.activarIndiceMezclas();
+
+        comparar(tablero, consecutivos, caso + " al terminar");
+
+    }
+
+    /**
+     * Compara todas las consultas del índice, para cada valor y cada casilla, con el recorrido exhaustivo.
+     */
+    private static void comparar(Tablero tablero, int consecutivos, String caso) {
+
+        int dimension = tablero.getDimension();
+        int numeroMaximo = tablero.getNumeroMaximo();
+        int tope = consecutivos - 1;
+
+        for (int valor = 1; valor <= numeroMaximo + 1; valor++) {
+
+            boolean[] esperadas = new boolean[dimension * dimension];
+            int cantidad = 0;
+
+            for (int y = 1; y <= dimension; y++) {
+                for (int x = 1; x <= dimension; x++) {
+
+                    int horizontal = largoTramo(tablero, x, y, valor, tope, 1, 0);
+                    int vertical = largoTramo(tablero, x, y, valor, tope, 0, 1);
+                    boolean mezcla = valor >= 1 && valor <= numeroMaximo && Math.max(horizontal, vertical) > tope;
+
+                    verificar(tablero.mezclaEn(x, y, valor) == mezcla, caso, "mezclaEn(" + x + ", " + y + ", " + valor + ")");
+                    verificar(tablero.largoTramo(x, y, valor, true) == horizontal, caso,
+                        "largoTramo(" + x + ", " + y + ", " + valor + ", true)");
+                    verificar(tablero.largoTramo(x, y, valor, false) == vertical, caso,
+                        "largoTramo(" + x + ", " + y + ", " + valor + ", false)");
+
+                    if (mezcla) {
+                        esperadas[(y - 1) * dimension + (x - 1)] = true;
+                        cantidad++;
+                    }
+                }
+            }
+
+            verificar(tablero.contarCasillasQueMezclan(valor) == cantidad, caso, "contarCasillasQueMezclan(" + valor + ")");
+
+            int[][] casillas = tablero.casillasQueMezclan(valor);
+            verificar(casillas.length == cantidad, caso, "casillasQueMezclan(" + valor + ").length");
+
+            for (int[] casilla : casillas) {
+
+                int indice = (casilla[1] - 1) * dimension + (casilla[0] - 1);
+
+                // Cada casilla esperada debe aparecer exactamente una vez
+                verificar(esperadas[indice], caso, "casillasQueMezclan(" + valor + ") incluye " + Arrays.toString(casilla));
+                esperadas[indice] = false;
+            }
+        }
+
+    }
+
+    /**
+     * Largo del tramo que se formaría al colocar el valor en la casilla, contando hasta <code>tope</code> casillas
+     * iguales a cada lado, o 0 si la casilla está ocupada.
+     */
+    private static int largoTramo(Tablero tablero, int x, int y, int valor, int tope, int pasoX, int pasoY) {
+
+        if (tablero.obtenerValor(x, y) != 0)
+            return 0;
+
+        return 1 + contarIguales(tablero, x, y, valor, tope, pasoX, pasoY) + contarIguales(tablero, x, y, valor, tope, -pasoX, -pasoY);
+
+    }
+
+    private static int contarIguales(Tablero tablero, int x, int y, int valor, int tope, int pasoX, int pasoY) {
+
+        int dimension = tablero.getDimension();
+        int iguales = 0;
+
+        for (int distancia = 1; distancia <= tope; distancia++) {
+
+            int vecinoX = x + distancia * pasoX;
+            int vecinoY = y + distancia * pasoY;
+
+            if (vecinoX < 1 || vecinoX > dimension || vecinoY < 1 || vecinoY > dimension
+                    || tablero.obtenerValor(vecinoX, vecinoY) != valor)
+                break;
+
+            iguales++;
+        }
+
+        return iguales;
+
+    }
+
+    private static void verificar(boolean condicion, String caso, String consulta) {
+
+        if (!condicion)
+            throw new AssertionError(caso + ": " + consulta + " no coincide con el recorrido exhaustivo");
+
+    }
+
+}
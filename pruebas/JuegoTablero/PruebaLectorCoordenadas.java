@@ -0,0 +1,61 @@
+package JuegoTablero;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prueba de {@link LectorCoordenadas}: formatos válidos e inválidos, líneas vacías y líneas con sólo espacios.
+ *
+ * <p>
+ * Uso: <code>PruebaLectorCoordenadas</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaLectorCoordenadas {
+
+    public static void main(String[] args) throws IOException {
+
+        // Las líneas con sólo espacios o tabuladores cuentan como vacías, y no como movimientos descartados
+        comprobar("1,2\n   \n\t\n \t \r\n3,4\n", "1,2", "3,4");
+
+        comprobar("\n\r\n1,2\r\n\r\n", "1,2");
+        comprobar("  5 , 6  \n\t7,\t8\t\n", "5,6", "7,8");
+        comprobar("a,b\n1;2\n1,\n,2\n1,2x\n", "-", "-", "-", "-", "-");
+        comprobar("1234567890,1\n123456789,1\n", "-", "123456789,1");
+        comprobar("3,4", "3,4");
+        comprobar("   ");
+        comprobar("");
+
+        System.out.println("PruebaLectorCoordenadas: OK");
+
+    }
+
+    /**
+     * Lee toda la entrada y compara cada línea leída con la esperada: <code>x,y</code> si es válida, o
+     * <code>-</code> si no lo es.
+     */
+    private static void comprobar(String entrada, String... esperadas) throws IOException {
+
+        LectorCoordenadas lector = new LectorCoordenadas(new ByteArrayInputStream(entrada.getBytes(StandardCharsets.US_ASCII)));
+
+        for (String esperada : esperadas) {
+
+            if (!lector.siguiente())
+                throw new AssertionError("Faltan líneas en " + describir(entrada) + ": se esperaba " + esperada);
+
+            String leida = lector.esValida() ? lector.getX() + "," + lector.getY() : "-";
+
+            if (!leida.equals(esperada))
+                throw new AssertionError("En " + describir(entrada) + " se leyó " + leida + " en lugar de " + esperada);
+        }
+
+        if (lector.siguiente())
+            throw new AssertionError("Sobran líneas en " + describir(entrada));
+
+    }
+
+    private static String describir(String entrada) {
+        return "\"" + entrada.replace("\n", "\\n").replace("\r", "\\r").replace("\t", "\\t") + "\"";
+    }
+
+}
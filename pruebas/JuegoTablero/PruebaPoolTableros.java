@@ -0,0 +1,362 @@
+package JuegoTablero;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Prueba de {@link Tablero#reiniciar(int, int, int, long)} y de {@link PoolTableros}.
+ *
+ * <p>
+ * Un tablero que se reinicia una y otra vez, con los mismos parámetros, con otra dimensión o con un número máximo
+ * que ya no cabe en el ancho de sus casillas empaquetadas, debe jugar igual que un tablero nuevo con la misma
+ * semilla: mismos pares, mismas mezclas y mismas casillas tras cada turno. Del {@link PoolTableros} se revisa que
+ * guarde a lo más su capacidad por hilo y forma de almacenamiento, que cada hilo tenga su propia reserva, y que al
+ * devolver un tablero terminen las suscripciones a sus eventos sin que los observadores reciban el juego siguiente.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaPoolTableros [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaPoolTableros {
+
+    private static final long ESPERA_MAXIMA_MILIS = 10000;
+
+    /**
+     * Dimensión, número máximo y consecutivos necesarios con que se reinicia el tablero, en orden. El número máximo
+     * 15 todavía cabe en casillas de 4 bits, 16 necesita 8 y 300 necesita 16.
+     */
+    private static final int[][] PARAMETROS = {
+        { 7, 7, 3 }, { 7, 7, 3 }, { 5, 7, 3 }, { 9, 9, 4 }, { 9, 15, 3 }, { 9, 16, 3 }, { 9, 300, 3 }, { 9, 9, 2 }, { 7, 7, 3 }
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 1;
+
+        for (Almacenamiento almacenamiento : Almacenamiento.values())
+            probarReinicios(new SplittableRandom(semilla), almacenamiento);
+
+        probarCapacidad();
+        probarSuscripciones(semilla);
+
+        System.out.println("PruebaPoolTableros: OK");
+
+    }
+
+    private static void probarReinicios(SplittableRandom aleatorio, Almacenamiento almacenamiento) {
+
+        Tablero reiniciado = null;
+
+        for (int[] parametros : PARAMETROS) {
+
+            long semillaPares = aleatorio.nextLong();
+            long semillaEstrategia = aleatorio.nextLong();
+            String caso = almacenamiento + " reiniciado a " + parametros[0] + "x" + parametros[0] + " con máximo "
+                + parametros[1] + " y " + parametros[2] + " consecutivos";
+
+            if (reiniciado == null) {
+                reiniciado = new Tablero(parametros[0], parametros[1], parametros[2], almacenamiento, semillaPares);
+            } else {
+                reiniciado.reiniciar(parametros[0], parametros[1], parametros[2], semillaPares);
+            }
+
+            Tablero nuevo = new Tablero(parametros[0], parametros[1], parametros[2], almacenamiento, semillaPares);
+
+            verificar(reiniciado.getEstado() == Estado.JUGANDO, caso, "el estado no es JUGANDO");
+            verificar(reiniciado.getAlmacenamiento() == almacenamiento, caso, "cambió la forma de almacenamiento");
+            verificar(reiniciado.getCasillasOcupadas() == 0, caso, "quedaron casillas ocupadas");
+            compararCasillas(reiniciado, nuevo, caso + " al reiniciar");
+
+            jugarIguales(reiniciado, nuevo, semillaEstrategia, caso);
+        }
+
+    }
+
+    /**
+     * Juega una partida en ambos tableros con las mismas casillas, comparando cada par, cada mezcla y el tablero
+     * completo tras cada turno.
+     */
+    private static void jugarIguales(Tablero reiniciado, Tablero nuevo, long semillaEstrategia, String caso) {
+
+        EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+        SplittableRandom aleatorio = new SplittableRandom(semillaEstrategia);
+        int[] par = new int[2];
+        int[] parNuevo = new int[2];
+        int[][] coordenadas = new int[2][2];
+        int turno = 0;
+
+        jugar:
+        while (reiniciado.getEstado() == Estado.JUGANDO) {
+
+            reiniciado.pedirParAleatorio(par);
+            nuevo.pedirParAleatorio(parNuevo);
+
+            verificar(par[0] == parNuevo[0] && par[1] == parNuevo[1], caso,
+                "en el turno " + turno + " se pidió el par " + par[0] + "," + par[1] + " en lugar de " + parNuevo[0] + "," + parNuevo[1]);
+
+            for (int i = 0; i < 2; i++) {
+
+                if (reiniciado.getEstado() != Estado.JUGANDO)
+                    break jugar;
+
+                estrategia.elegirCasilla(reiniciado, par[i], aleatorio, coordenadas[i]);
+
+                verificar(reiniciado.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i])
+                    == nuevo.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]), caso, "insertarNumero en el turno " + turno);
+            }
+
+            for (int i = 0; i < 2; i++) {
+                verificar(reiniciado.revisarConsecutivos(coordenadas[i][0], coordenadas[i][1])
+                    == nuevo.revisarConsecutivos(coordenadas[i][0], coordenadas[i][1]), caso, "revisarConsecutivos en el turno " + turno);
+            }
+
+            compararCasillas(reiniciado, nuevo, caso + ", turno " + turno);
+            turno++;
+        }
+
+        verificar(reiniciado.getEstado() == nuevo.getEstado(), caso, "terminó en " + reiniciado.getEstado());
+        compararCasillas(reiniciado, nuevo, caso + " al terminar");
+
+    }
+
+    private static void compararCasillas(Tablero reiniciado, Tablero nuevo, String caso) {
+
+        verificar(reiniciado.getDimension() == nuevo.getDimension(), caso, "getDimension");
+        verificar(reiniciado.getNumeroMaximo() == nuevo.getNumeroMaximo(), caso, "getNumeroMaximo");
+        verificar(reiniciado.getCasillasOcupadas() == nuevo.getCasillasOcupadas(), caso, "getCasillasOcupadas");
+
+        for (int y = 1; y <= nuevo.getDimension(); y++) {
+            for (int x = 1; x <= nuevo.getDimension(); x++) {
+                verificar(reiniciado.obtenerValor(x, y) == nuevo.obtenerValor(x, y), caso, "obtenerValor(" + x + ", " + y + ")");
+            }
+        }
+
+    }
+
+    /**
+     * Con capacidad 2, de tres tableros devueltos sólo se reutilizan dos, y sólo en el mismo hilo y con la misma
+     * forma de almacenamiento.
+     */
+    private static void probarCapacidad() throws InterruptedException {
+
+        PoolTableros pool = new PoolTableros(2);
+        Set<Tablero> devueltos = Collections.newSetFromMap(new IdentityHashMap<Tablero, Boolean>());
+
+        for (int i = 0; i < 3; i++)
+            devueltos.add(pool.obtener(5, 5, 3, Almacenamiento.EMPAQUETADO));
+
+        verificar(devueltos.size() == 3, "capacidad", "se obtuvo dos veces el mismo tablero sin devolverlo");
+
+        for (Tablero tablero : devueltos)
+            pool.devolver(tablero);
+
+        AtomicReference<Tablero> otroHilo = new AtomicReference<Tablero>();
+        Thread hilo = new Thread(() -> otroHilo.set(pool.obtener(5, 5, 3, Almacenamiento.EMPAQUETADO)));
+        hilo.start();
+        hilo.join();
+
+        verificar(!devueltos.contains(otroHilo.get()), "capacidad", "otro hilo recibió un tablero de la reserva de éste");
+        verificar(!devueltos.contains(pool.obtener(5, 5, 3, Almacenamiento.POR_BLOQUES)), "capacidad",
+            "se recibió un tablero con otra forma de almacenamiento");
+
+        int reutilizados = 0;
+
+        for (int i = 0; i < 3; i++) {
+
+            Tablero tablero = pool.obtener(6, 6, 3, Almacenamiento.EMPAQUETADO, i);
+
+            if (devueltos.contains(tablero))
+                reutilizados++;
+
+            verificar(tablero.getDimension() == 6 && tablero.getCasillasOcupadas() == 0, "capacidad",
+                "el tablero de la reserva no se reinició");
+        }
+
+        verificar(reutilizados == 2, "capacidad", "se reutilizaron " + reutilizados + " tableros con capacidad 2");
+
+    }
+
+    /**
+     * Al devolver un tablero, su observador recibe lo que faltaba del juego y después <code>onComplete</code>, y ya
+     * no recibe los eventos de quien lo obtenga después.
+     */
+    private static void probarSuscripciones(long semilla) throws InterruptedException {
+
+        PoolTableros pool = new PoolTableros(1);
+        Tablero tablero = pool.obtener(7, 7, 3, Almacenamiento.EMPAQUETADO, semilla);
+        Observador anterior = new Observador();
+        Flow.Publisher<List<EventoTablero>> eventosAnteriores = tablero.getEventos();
+
+        eventosAnteriores.subscribe(anterior);
+        anterior.esperarSuscripcion();
+
+        // El último turno queda a medias para que su lote se publique al devolver el tablero
+        int colocadas = colocar(tablero, new SplittableRandom(semilla), 7);
+
+        pool.devolver(tablero);
+        anterior.esperarFin("el observador del primer juego");
+
+        verificar(anterior.colocadas() == colocadas, "suscripciones",
+            "el observador recibió " + anterior.colocadas() + " de " + colocadas + " colocaciones");
+
+        Tablero siguiente = pool.obtener(7, 7, 3, Almacenamiento.EMPAQUETADO, semilla + 1);
+        Observador nuevo = new Observador();
+
+        verificar(siguiente == tablero, "suscripciones", "no se reutilizó el tablero devuelto");
+        verificar(siguiente.getEventos() != eventosAnteriores, "suscripciones", "el tablero reutilizado conserva su publicador");
+
+        siguiente.getEventos().subscribe(nuevo);
+        nuevo.esperarSuscripcion();
+
+        colocadas = colocar(siguiente, new SplittableRandom(semilla + 1), 6);
+        pool.devolver(siguiente);
+        nuevo.esperarFin("el observador del segundo juego");
+
+        verificar(nuevo.colocadas() == colocadas, "suscripciones",
+            "el segundo observador recibió " + nuevo.colocadas() + " de " + colocadas + " colocaciones");
+        verificar(!nuevo.reinicioRecibido(), "suscripciones", "el segundo observador recibió el reinicio del tablero");
+        verificar(!anterior.eventoTardio() && !nuevo.eventoTardio(), "suscripciones", "se recibieron eventos después de onComplete");
+
+        // Quien se suscribe a un publicador terminado sólo recibe onComplete
+        Observador tardio = new Observador();
+        eventosAnteriores.subscribe(tardio);
+        tardio.esperarFin("el observador tardío");
+
+        verificar(tardio.colocadas() == 0, "suscripciones", "el observador tardío recibió eventos");
+
+    }
+
+    /**
+     * Coloca números de los pares pedidos en casillas al azar, revisando los consecutivos al completar cada turno.
+     *
+     * @return Números colocados.
+     */
+    private static int colocar(Tablero tablero, SplittableRandom aleatorio, int numeros) {
+
+        EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+        int[] par = new int[2];
+        int[][] coordenadas = new int[2][2];
+        int colocadas = 0;
+
+        while (colocadas < numeros && tablero.getEstado() == Estado.JUGANDO) {
+
+            if (colocadas % 2 == 0)
+                tablero.pedirParAleatorio(par);
+
+            int i = colocadas % 2;
+
+            estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenadas[i]);
+            tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]);
+            colocadas++;
+
+            if (i == 1) {
+                tablero.revisarConsecutivos(coordenadas[0][0], coordenadas[0][1]);
+                tablero.revisarConsecutivos(coordenadas[1][0], coordenadas[1][1]);
+            }
+        }
+
+        return colocadas;
+
+    }
+
+    private static void verificar(boolean condicion, String caso, String mensaje) {
+
+        if (!condicion)
+            throw new AssertionError(caso + ": " + mensaje);
+
+    }
+
+    /**
+     * Observador que pide todos los lotes y cuenta las colocaciones que recibe.
+     */
+    private static class Observador implements Flow.Subscriber<List<EventoTablero>> {
+
+        private final CountDownLatch suscrito = new CountDownLatch(1);
+        private final CountDownLatch terminado = new CountDownLatch(1);
+        private final List<EventoTablero> eventos = Collections.synchronizedList(new ArrayList<EventoTablero>());
+        private volatile boolean eventoTardio = false;
+        private volatile Throwable error = null;
+
+        @Override
+        public void onSubscribe(Flow.Subscription suscripcion) {
+            suscripcion.request(Long.MAX_VALUE);
+            suscrito.countDown();
+        }
+
+        @Override
+        public void onNext(List<EventoTablero> lote) {
+
+            if (terminado.getCount() == 0)
+                eventoTardio = true;
+
+            eventos.addAll(lote);
+
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+
+            if (terminado.getCount() == 0)
+                eventoTardio = true;
+
+            terminado.countDown();
+
+        }
+
+        private void esperarSuscripcion() throws InterruptedException {
+
+            if (!suscrito.await(ESPERA_MAXIMA_MILIS, TimeUnit.MILLISECONDS))
+                throw new AssertionError("No se recibió onSubscribe");
+
+        }
+
+        private void esperarFin(String caso) throws InterruptedException {
+
+            if (!terminado.await(ESPERA_MAXIMA_MILIS, TimeUnit.MILLISECONDS))
+                throw new AssertionError(caso + " no recibió onComplete");
+
+            if (error != null)
+                throw new AssertionError(caso + " recibió un error del publicador", error);
+
+        }
+
+        private long colocadas() {
+
+            synchronized (eventos) {
+                return eventos.stream().filter(evento -> evento.getTipo() == EventoTablero.Tipo.CASILLA_COLOCADA).count();
+            }
+
+        }
+
+        private boolean reinicioRecibido() {
+
+            synchronized (eventos) {
+                return eventos.stream().anyMatch(evento -> evento.getTipo() == EventoTablero.Tipo.TABLERO_REINICIADO);
+            }
+
+        }
+
+        private boolean eventoTardio() {
+            return eventoTardio;
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+package JuegoTablero;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.Flow;
+
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Prueba de {@link PublicadorEventos}: un observador que reconstruye el tablero a partir de los eventos debe
+ * terminar igual que el tablero, tanto si pide los lotes uno por uno como si se atrasa lo suficiente para que sus
+ * lotes pendientes se combinen.
+ *
+ * <p>
+ * Se juegan varias partidas con semilla en el mismo tablero, reiniciándolo entre ellas. El observador lento no pide
+ * nada hasta que terminan todas, por lo que recibe lotes combinados. Además se comprueba directamente que aplicar
+ * {@link PublicadorEventos#combinar(Iterable)} de cualquier sufijo de los lotes da el mismo resultado que aplicarlos
+ * uno por uno.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaPublicadorEventos</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaPublicadorEventos {
+
+    private static final long ESPERA_MAXIMA_MILIS = 10000;
+
+    private static final int PARTIDAS = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+
+        for (long semilla = 0; semilla < 10; semilla++)
+            probar(semilla);
+
+        System.out.println("PruebaPublicadorEventos: OK");
+
+    }
+
+    private static void probar(long semilla) throws InterruptedException {
+
+        Tablero tablero = new Tablero(7, 7, 3, Tablero.Almacenamiento.COLAS, semilla);
+        Espejo rapido = new Espejo(1);
+        Espejo lento = new Espejo(0);
+
+        tablero.getEventos().subscribe(rapido);
+        tablero.getEventos().subscribe(lento);
+
+        TreeSet<Integer> grupo = new TreeSet<Integer>();
+
+        for (int partida = 0; partida < PARTIDAS; partida++) {
+
+            if (partida > 0) {
+                tablero.reiniciar(7 - partida % 2, 7 - partida % 2, 3, semilla + partida);
+                grupo.clear();
+            }
+
+            jugar(tablero, semilla + partida, grupo);
+        }
+
+        lento.pedirTodo();
+
+        esperarIgualdad(rapido, tablero, grupo, "el observador rápido, semilla " + semilla);
+        esperarIgualdad(lento, tablero, grupo, "el observador lento, semilla " + semilla);
+
+        List<List<EventoTablero>> lotes = rapido.getLotes();
+
+        if (lotes.size() > PublicadorEventos.LOTES_PENDIENTES_MAXIMOS && lento.getLotesRecibidos() >= lotes.size())
+            throw new AssertionError("Con la semilla " + semilla + ", el observador lento recibió " + lento.getLotesRecibidos()
+                + " lotes y el rápido " + lotes.size() + "; los lotes del lento debieron combinarse");
+
+        // Cualquier sufijo combinado equivale a aplicar sus lotes uno por uno
+        for (int corte = 0; corte <= lotes.size(); corte += 3) {
+
+            Espejo combinado = new Espejo(0);
+
+            for (List<EventoTablero> lote : lotes.subList(0, corte))
+                combinado.aplicar(lote);
+
+            combinado.aplicar(PublicadorEventos.combinar(lotes.subList(corte, lotes.size())));
+
+            String diferencia = combinado.comparar(tablero, grupo);
+
+            if (diferencia != null)
+                throw new AssertionError("Con la semilla " + semilla + ", combinar desde el lote " + corte + ": " + diferencia);
+        }
+
+    }
+
+    /**
+     * Juega una partida con la estrategia aleatoria, registrando los números que se agregan al grupo.
+     */
+    private static void jugar(Tablero tablero, long semilla, TreeSet<Integer> grupo) {
+
+        EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        int[] par = new int[2];
+        int[][] coordenadas = new int[2][2];
+
+        grupo.add(1);
+        grupo.add(2);
+
+        jugar:
+        while (tablero.getEstado() == Estado.JUGANDO) {
+
+            tablero.pedirParAleatorio(par);
+
+            for (int i = 0; i < 2; i++) {
+
+                if (tablero.getEstado() != Estado.JUGANDO)
+                    break jugar;
+
+                estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenadas[i]);
+                tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]);
+            }
+
+            for (int i = 0; i < 2; i++) {
+
+                int mezcla = tablero.revisarConsecutivos(coordenadas[i][0], coordenadas[i][1]);
+
+                if (mezcla > 0 && mezcla < tablero.getNumeroMaximo())
+                    grupo.add(mezcla);
+            }
+        }
+
+    }
+
+    private static void esperarIgualdad(Espejo espejo, Tablero tablero, TreeSet<Integer> grupo, String caso) throws InterruptedException {
+
+        long limite = System.currentTimeMillis() + ESPERA_MAXIMA_MILIS;
+        String diferencia = espejo.comparar(tablero, grupo);
+
+        while (diferencia != null && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+            diferencia = espejo.comparar(tablero, grupo);
+        }
+
+        if (diferencia != null)
+            throw new AssertionError("En " + caso + ": " + diferencia);
+
+    }
+
+    /**
+     * Observador que reconstruye las casillas, el grupo de números y el estado a partir de los eventos.
+     */
+    private static class Espejo implements Flow.Subscriber<List<EventoTablero>> {
+
+        /**
+         * Lotes que se piden al suscribirse y tras recibir cada lote. Con 0, no se pide nada hasta
+         * {@link #pedirTodo()}.
+         */
+        private final int demanda;
+
+        private Flow.Subscription suscripcion;
+        private boolean pedirTodo;
+
+        private int[][] casillas = new int[0][0];
+        private final TreeSet<Integer> grupo = new TreeSet<Integer>();
+        private Estado estado = Estado.JUGANDO;
+        private final List<List<EventoTablero>> lotes = new ArrayList<List<EventoTablero>>();
+        private Throwable error;
+
+        private Espejo(int demanda) {
+            this.demanda = demanda;
+            reiniciar(7);
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription suscripcion) {
+
+            this.suscripcion = suscripcion;
+
+            if (pedirTodo)
+                suscripcion.request(Long.MAX_VALUE);
+            else if (demanda > 0)
+                suscripcion.request(demanda);
+
+        }
+
+        @Override
+        public synchronized void onNext(List<EventoTablero> lote) {
+
+            lotes.add(lote);
+            aplicar(lote);
+
+            if (demanda > 0)
+                suscripcion.request(demanda);
+
+        }
+
+        @Override
+        public synchronized void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        private synchronized void pedirTodo() {
+
+            pedirTodo = true;
+
+            if (suscripcion != null)
+                suscripcion.request(Long.MAX_VALUE);
+
+        }
+
+        private synchronized void aplicar(List<EventoTablero> lote) {
+
+            for (EventoTablero evento : lote) {
+
+                switch (evento.getTipo()) {
+                    case TABLERO_REINICIADO:
+                        reiniciar(evento.getValor());
+                        break;
+                    case CASILLA_COLOCADA:
+                    case CASILLA_ACTUALIZADA:
+                        casillas[evento.getX() - 1][evento.getY() - 1] = evento.getValor();
+                        break;
+                    case CASILLAS_MEZCLADAS:
+                        for (int i = evento.getInicio(); i <= evento.getFin(); i++) {
+                            if (evento.esHorizontal())
+                                casillas[i - 1][evento.getY() - 1] = 0;
+                            else
+                                casillas[evento.getX() - 1][i - 1] = 0;
+                        }
+                        casillas[evento.getX() - 1][evento.getY() - 1] = evento.getValor();
+                        break;
+                    case NUMERO_AGREGADO:
+                        grupo.add(evento.getValor());
+                        break;
+                    case ESTADO_CAMBIADO:
+                        estado = evento.getEstado();
+                        break;
+                }
+            }
+
+        }
+
+        private void reiniciar(int dimension) {
+
+            casillas = new int[dimension][dimension];
+            grupo.clear();
+            grupo.add(1);
+            grupo.add(2);
+            estado = Estado.JUGANDO;
+
+        }
+
+        /**
+         * @return Descripción de la primera diferencia con el tablero, o <code>null</code> si no hay ninguna.
+         */
+        private synchronized String comparar(Tablero tablero, TreeSet<Integer> grupoEsperado) {
+
+            if (error != null)
+                return "se recibió el error " + error;
+
+            if (casillas.length != tablero.getDimension())
+                return "la dimensión es " + casillas.length + " en lugar de " + tablero.getDimension();
+
+            for (int x = 1; x <= casillas.length; x++) {
+                for (int y = 1; y <= casillas.length; y++) {
+                    if (casillas[x - 1][y - 1] != tablero.obtenerValor(x, y))
+                        return "la casilla (" + x + ", " + y + ") vale " + casillas[x - 1][y - 1] + " en lugar de "
+                            + tablero.obtenerValor(x, y);
+                }
+            }
+
+            if (!grupo.equals(grupoEsperado))
+                return "el grupo es " + grupo + " en lugar de " + grupoEsperado;
+
+            if (estado != tablero.getEstado())
+                return "el estado es " + estado + " en lugar de " + tablero.getEstado();
+
+            return null;
+
+        }
+
+        private synchronized List<List<EventoTablero>> getLotes() {
+            return new ArrayList<List<EventoTablero>>(lotes);
+        }
+
+        private synchronized int getLotesRecibidos() {
+            return lotes.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,377 @@
+package JuegoTablero;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Prueba de {@link Renderizador}: el modo completo debe escribir exactamente lo que escribía la implementación
+ * original de {@link Tablero#mostrarTablero()}, y el modo incremental debe dejar la pantalla igual que el modo
+ * completo.
+ *
+ * <p>
+ * Los cuadros se escriben en un {@link ByteArrayOutputStream} a lo largo de partidas con semilla, en tableros con
+ * números máximos de uno, dos y tres dígitos y con filas de uno y dos dígitos. Los cuadros incrementales se aplican
+ * a una pantalla simulada que interpreta las secuencias ANSI del renderizador, y además se revisan byte por byte
+ * los movimientos del cursor y las casillas reescritas cuando sólo cambia una casilla.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaRenderizador [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaRenderizador {
+
+    /**
+     * Dimensión, número máximo y consecutivos necesarios de cada tablero probado.
+     */
+    private static final int[][] PARAMETROS = { { 2, 2, 2 }, { 7, 7, 3 }, { 9, 12, 3 }, { 12, 9, 3 }, { 11, 300, 4 } };
+
+    private static final String ESC = "\u001B";
+
+    public static void main(String[] args) throws IOException {
+
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 1;
+
+        for (int[] parametros : PARAMETROS) {
+
+            String caso = parametros[0] + "x" + parametros[0] + " con máximo " + parametros[1];
+
+            probarPartida(new SplittableRandom(semilla), parametros[0], parametros[1], parametros[2], caso);
+            probarCambioUnico(parametros[0], parametros[1], parametros[2], caso);
+        }
+
+        probarMostrarTablero();
+
+        System.out.println("PruebaRenderizador: OK");
+
+    }
+
+    /**
+     * Juega una partida dibujando un cuadro completo y uno incremental tras cada colocación y cada turno. A media
+     * partida el tablero se reinicia con otra dimensión, lo que obliga al modo incremental a redibujar todo.
+     */
+    private static void probarPartida(SplittableRandom aleatorio, int dimension, int numeroMaximo, int consecutivos, String caso)
+            throws IOException {
+
+        Tablero tablero = new Tablero(dimension, numeroMaximo, consecutivos, Almacenamiento.EMPAQUETADO, aleatorio.nextLong());
+        ByteArrayOutputStream completo = new ByteArrayOutputStream();
+        ByteArrayOutputStream incremental = new ByteArrayOutputStream();
+        Renderizador renderizadorCompleto = new Renderizador(tablero, completo, Renderizador.Modo.COMPLETO);
+        Renderizador renderizadorIncremental = new Renderizador(tablero, incremental, Renderizador.Modo.ANSI_INCREMENTAL);
+        Pantalla pantalla = new Pantalla();
+
+        for (int partida = 0; partida < 2; partida++) {
+
+            if (partida > 0)
+                tablero.reiniciar(dimension + 1, numeroMaximo, consecutivos, aleatorio.nextLong());
+
+            EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+            int[] par = new int[2];
+            int[][] coordenadas = new int[2][2];
+            int cuadro = 0;
+
+            comparar(tablero, renderizadorCompleto, completo, renderizadorIncremental, incremental, pantalla,
+                caso + ", partida " + partida + ", cuadro " + cuadro++);
+
+            jugar:
+            while (tablero.getEstado() == Estado.JUGANDO) {
+
+                tablero.pedirParAleatorio(par);
+
+                for (int i = 0; i < 2; i++) {
+
+                    if (tablero.getEstado() != Estado.JUGANDO)
+                        break jugar;
+
+                    estrategia.elegirCasilla(tablero, par[i], aleatorio, coordenadas[i]);
+                    tablero.insertarNumero(coordenadas[i][0], coordenadas[i][1], par[i]);
+
+                    comparar(tablero, renderizadorCompleto, completo, renderizadorIncremental, incremental, pantalla,
+                        caso + ", partida " + partida + ", cuadro " + cuadro++);
+                }
+
+                for (int i = 0; i < 2; i++)
+                    tablero.revisarConsecutivos(coordenadas[i][0], coordenadas[i][1]);
+
+                comparar(tablero, renderizadorCompleto, completo, renderizadorIncremental, incremental, pantalla,
+                    caso + ", partida " + partida + ", cuadro " + cuadro++);
+            }
+        }
+
+    }
+
+    private static void comparar(Tablero tablero, Renderizador renderizadorCompleto, ByteArrayOutputStream completo,
+            Renderizador renderizadorIncremental, ByteArrayOutputStream incremental, Pantalla pantalla, String caso) throws IOException {
+
+        String esperado = mostrarTableroOriginal(tablero);
+
+        completo.reset();
+        renderizadorCompleto.dibujar();
+
+        verificar(completo.toString(StandardCharsets.US_ASCII.name()).equals(esperado), caso,
+            "el modo completo escribió:\n" + completo.toString(StandardCharsets.US_ASCII.name()) + "en lugar de:\n" + esperado);
+
+        incremental.reset();
+        renderizadorIncremental.dibujar();
+        pantalla.aplicar(incremental.toString(StandardCharsets.US_ASCII.name()));
+
+        verificar(pantalla.toString().equals(esperado), caso,
+            "el modo incremental dejó en la pantalla:\n" + pantalla + "en lugar de:\n" + esperado);
+
+    }
+
+    /**
+     * Tras el primer cuadro, cambiar una sola casilla debe escribir sólo el movimiento del cursor a esa casilla, su
+     * valor alineado y el movimiento del cursor debajo del tablero; un cuadro sin cambios no escribe nada.
+     */
+    private static void probarCambioUnico(int dimension, int numeroMaximo, int consecutivos, String caso) throws IOException {
+
+        Tablero tablero = new Tablero(dimension, numeroMaximo, consecutivos, Almacenamiento.EMPAQUETADO, 0);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        Renderizador renderizador = new Renderizador(tablero, salida, Renderizador.Modo.ANSI_INCREMENTAL);
+        int espacio = String.valueOf(numeroMaximo).length();
+
+        renderizador.dibujar();
+
+        verificar(salida.toString(StandardCharsets.US_ASCII.name()).startsWith(ESC + "[2J" + ESC + "[H"), caso,
+            "el primer cuadro incremental no limpia la pantalla");
+
+        salida.reset();
+        renderizador.dibujar();
+
+        verificar(salida.size() == 0, caso, "un cuadro sin cambios escribió " + salida.size() + " bytes");
+
+        // La última casilla de la última fila, donde la etiqueta de la fila tiene más dígitos
+        int x = dimension;
+        int y = dimension;
+
+        tablero.insertarNumero(x, y, 2);
+
+        salida.reset();
+        renderizador.dibujar();
+
+        int columna = String.valueOf(y).length() + 3 + (x - 1) * (espacio + 1);
+        String esperado = ESC + "[" + (y + 2) + ";" + columna + "H" + String.format("%" + espacio + "d", 2)
+            + ESC + "[" + (dimension + 5) + ";1H";
+
+        verificar(salida.toString(StandardCharsets.US_ASCII.name()).equals(esperado), caso,
+            "al colocar un 2 en (" + x + ", " + y + ") se escribió " + visible(salida.toString(StandardCharsets.US_ASCII.name()))
+                + " en lugar de " + visible(esperado));
+
+        // La primera casilla, donde la etiqueta de la fila tiene un dígito
+        tablero.insertarNumero(1, 1, 1);
+
+        salida.reset();
+        renderizador.dibujar();
+
+        esperado = ESC + "[3;4H" + String.format("%" + espacio + "d", 1) + ESC + "[" + (dimension + 5) + ";1H";
+
+        verificar(salida.toString(StandardCharsets.US_ASCII.name()).equals(esperado), caso,
+            "al colocar un 1 en (1, 1) se escribió " + visible(salida.toString(StandardCharsets.US_ASCII.name()))
+                + " en lugar de " + visible(esperado));
+
+    }
+
+    /**
+     * {@link Tablero#mostrarTablero()} escribe en la salida estándar que había al dibujar por primera vez.
+     */
+    private static void probarMostrarTablero() throws IOException {
+
+        PrintStream salidaEstandar = System.out;
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        Tablero tablero = new Tablero(10, 10, 3, Almacenamiento.COLAS, 0);
+
+        tablero.insertarNumero(10, 3, 2);
+        tablero.insertarNumero(4, 10, 1);
+
+        try {
+            System.setOut(new PrintStream(salida, true, StandardCharsets.US_ASCII.name()));
+            tablero.mostrarTablero();
+        } finally {
+            System.setOut(salidaEstandar);
+        }
+
+        String esperado = mostrarTableroOriginal(tablero);
+
+        verificar(salida.toString(StandardCharsets.US_ASCII.name()).equals(esperado), "mostrarTablero",
+            "se escribió:\n" + salida.toString(StandardCharsets.US_ASCII.name()) + "en lugar de:\n" + esperado);
+
+    }
+
+    /**
+     * Salida de la implementación original de {@link Tablero#mostrarTablero()}, que imprimía con
+     * {@link PrintStream#print(String)} casilla por casilla, con <code>\n</code> como fin de línea.
+     */
+    private static String mostrarTableroOriginal(Tablero tablero) {
+
+        StringBuilder salida = new StringBuilder();
+        int dimension = tablero.getDimension();
+        int espacioRequerido = String.valueOf(tablero.getNumeroMaximo()).length();
+
+        salida.append("   ");
+
+        for (int i = 0; i < dimension; i++) {
+
+            salida.append(i + 1);
+
+            for (int j = 0; j < espacioRequerido; j++)
+                salida.append(" ");
+        }
+
+        salida.append("\n");
+        limiteOriginal(salida, dimension, espacioRequerido);
+
+        for (int i = 0; i < dimension; i++) {
+
+            salida.append(i + 1 + " ");
+            salida.append("|");
+
+            for (int j = 0; j < dimension; j++) {
+
+                int valor = tablero.obtenerValor(j + 1, i + 1);
+
+                salida.append(valor == 0
+                    ? String.format("%" + espacioRequerido + "s", " ")
+                    : String.format("%" + espacioRequerido + "d", valor));
+                salida.append("|");
+            }
+
+            salida.append("\n");
+        }
+
+        limiteOriginal(salida, dimension, espacioRequerido);
+        salida.append("\n");
+
+        return salida.toString();
+
+    }
+
+    private static void limiteOriginal(StringBuilder salida, int dimension, int espacioRequerido) {
+
+        salida.append("  ");
+
+        for (int i = 0; i < dimension; i++) {
+
+            salida.append("-");
+
+            for (int j = 0; j < espacioRequerido; j++)
+                salida.append("-");
+        }
+
+        salida.append("-\n");
+
+    }
+
+    private static String visible(String texto) {
+        return texto.replace(ESC, "ESC");
+    }
+
+    private static void verificar(boolean condicion, String caso, String mensaje) {
+
+        if (!condicion)
+            throw new AssertionError(caso + ": " + mensaje);
+
+    }
+
+    /**
+     * Pantalla de texto que interpreta las secuencias que usa el renderizador: limpiar la pantalla
+     * (<code>ESC[2J</code>), llevar el cursor al inicio (<code>ESC[H</code>) o a una línea y columna
+     * (<code>ESC[línea;columnaH</code>, desde 1), y saltos de línea.
+     */
+    private static class Pantalla {
+
+        private final List<StringBuilder> lineas = new ArrayList<StringBuilder>();
+        private int linea;
+        private int columna;
+
+        private void aplicar(String texto) {
+
+            int i = 0;
+
+            while (i < texto.length()) {
+
+                char caracter = texto.charAt(i++);
+
+                if (caracter == '\n') {
+                    linea++;
+                    columna = 0;
+                    continue;
+                }
+
+                if (caracter != ESC.charAt(0)) {
+                    escribir(caracter);
+                    continue;
+                }
+
+                if (texto.charAt(i++) != '[')
+                    throw new AssertionError("Secuencia de escape no reconocida");
+
+                int fin = i;
+
+                while (!Character.isLetter(texto.charAt(fin)))
+                    fin++;
+
+                String parametros = texto.substring(i, fin);
+                char comando = texto.charAt(fin);
+                i = fin + 1;
+
+                if (comando == 'J' && parametros.equals("2")) {
+                    lineas.clear();
+                } else if (comando == 'H' && parametros.isEmpty()) {
+                    linea = 0;
+                    columna = 0;
+                } else if (comando == 'H') {
+                    String[] posicion = parametros.split(";");
+                    linea = Integer.parseInt(posicion[0]) - 1;
+                    columna = Integer.parseInt(posicion[1]) - 1;
+                } else {
+                    throw new AssertionError("Secuencia de escape no reconocida: " + parametros + comando);
+                }
+            }
+
+        }
+
+        private void escribir(char caracter) {
+
+            while (lineas.size() <= linea)
+                lineas.add(new StringBuilder());
+
+            StringBuilder actual = lineas.get(linea);
+
+            while (actual.length() <= columna)
+                actual.append(' ');
+
+            actual.setCharAt(columna++, caracter);
+
+        }
+
+        /**
+         * @return Las líneas de la pantalla hasta la última con texto, cada una terminada en <code>\n</code>, más
+         *         las líneas vacías que el cursor ya haya pasado.
+         */
+        @Override
+        public String toString() {
+
+            StringBuilder texto = new StringBuilder();
+
+            for (StringBuilder actual : lineas)
+                texto.append(actual).append('\n');
+
+            for (int i = lineas.size(); i < linea; i++)
+                texto.append('\n');
+
+            return texto.toString();
+
+        }
+
+    }
+
+}
@@ -0,0 +1,392 @@
+package JuegoTablero;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import JuegoTablero.Tablero.Almacenamiento;
+import JuegoTablero.Tablero.Estado;
+
+/**
+ * Prueba de {@link Resolvedor} y {@link TablaEstados}.
+ *
+ * <ul>
+ * <li> La forma canónica de un estado es la misma para sus 8 versiones rotadas y reflejadas, se desempaqueta en una
+ *      de ellas, y distingue estados que no son simétricos. </li>
+ * <li> La probabilidad de ganar coincide con la de un recorrido exhaustivo sin simetrías que juega con
+ *      {@link Tablero}, tanto con la tabla en memoria directa como en archivos mapeados. </li>
+ * <li> La tabla conserva los valores al crecer en archivos mapeados, y no deja archivos en el directorio. </li>
+ * </ul>
+ *
+ * <p>
+ * Uso: <code>PruebaResolvedor [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaResolvedor {
+
+    /**
+     * Dimensión, número máximo y consecutivos necesarios de cada tablero resuelto.
+     */
+    private static final int[][] PARAMETROS = { { 2, 3, 2 }, { 2, 4, 2 }, { 3, 3, 3 }, { 3, 4, 3 } };
+
+    private static final int TABLEROS_CANONICOS = 2000;
+
+    public static void main(String[] args) throws Exception {
+
+        SplittableRandom aleatorio = new SplittableRandom(args.length > 0 ? Long.parseLong(args[0]) : 1);
+
+        for (int dimension = 2; dimension <= 5; dimension++)
+            probarCanonizar(aleatorio, dimension);
+
+        Path directorio = Files.createTempDirectory("prueba-resolvedor");
+
+        try {
+
+            for (int[] parametros : PARAMETROS)
+                probarResolver(parametros[0], parametros[1], parametros[2], directorio);
+
+            probarTablaMapeada(aleatorio, directorio);
+
+        } finally {
+
+            // Si quedaron archivos, la falla ya se reportó; se borran para no dejarlos en el directorio temporal
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                for (Path archivo : (Iterable<Path>) archivos::iterator)
+                    Files.deleteIfExists(archivo);
+            }
+
+            Files.deleteIfExists(directorio);
+        }
+
+        System.out.println("PruebaResolvedor: OK");
+
+    }
+
+    private static void probarCanonizar(SplittableRandom aleatorio, int dimension) {
+
+        Resolvedor resolvedor = new Resolvedor(new String[] { "--dimension", String.valueOf(dimension), "--maximo", "15",
+            "--consecutivos", "2" });
+
+        int casillas = dimension * dimension;
+        long[] estado = new long[2];
+        long[] otro = new long[2];
+        int[] desempaquetado = new int[casillas];
+
+        for (int prueba = 0; prueba < TABLEROS_CANONICOS; prueba++) {
+
+            String caso = dimension + "x" + dimension + ", tablero " + prueba;
+            int[] tablero = new int[casillas];
+            int grupo = 2 + aleatorio.nextInt(14);
+
+            // Pocos valores distintos, para que haya tableros con simetrías propias
+            int valores = 1 + aleatorio.nextInt(15);
+
+            for (int casilla = 0; casilla < casillas; casilla++)
+                tablero[casilla] = aleatorio.nextInt(valores + 1);
+
+            int[][] versiones = versionesSimetricas(tablero, dimension);
+
+            resolvedor.canonizar(tablero, grupo, estado);
+
+            for (int[] version : versiones) {
+                resolvedor.canonizar(version, grupo, otro);
+                verificar(otro[0] == estado[0] && otro[1] == estado[1], caso, "una versión simétrica tiene otra forma canónica");
+            }
+
+            verificar(resolvedor.desempaquetar(estado[0], estado[1], desempaquetado) == grupo, caso, "el grupo no se conserva");
+            verificar(esVersionDe(desempaquetado, versiones), caso, "la forma canónica no es una versión del tablero");
+
+            // Un tablero con una casilla distinta sólo puede tener la misma forma si es una de sus versiones
+            int[] cambiado = tablero.clone();
+            int casilla = aleatorio.nextInt(casillas);
+            cambiado[casilla] = (cambiado[casilla] + 1 + aleatorio.nextInt(15)) % 16;
+
+            resolvedor.canonizar(cambiado, grupo, otro);
+            verificar((otro[0] == estado[0] && otro[1] == estado[1]) == esVersionDe(cambiado, versiones), caso,
+                "un tablero no simétrico tiene la misma forma canónica");
+
+            resolvedor.canonizar(tablero, grupo == 15 ? 2 : grupo + 1, otro);
+            verificar(otro[0] != estado[0] || otro[1] != estado[1], caso, "el grupo no distingue la forma canónica");
+        }
+
+    }
+
+    /**
+     * Las 8 versiones del tablero, obtenidas girando la matriz 90 grados cuatro veces, con y sin reflejo horizontal.
+     */
+    private static int[][] versionesSimetricas(int[] tablero, int dimension) {
+
+        int[][] versiones = new int[8][];
+        int[] actual = tablero.clone();
+
+        for (int giro = 0; giro < 4; giro++) {
+
+            int[] reflejado = new int[actual.length];
+            int[] girado = new int[actual.length];
+
+            for (int y = 0; y < dimension; y++) {
+                for (int x = 0; x < dimension; x++) {
+                    reflejado[y * dimension + (dimension - 1 - x)] = actual[y * dimension + x];
+                    girado[x * dimension + (dimension - 1 - y)] = actual[y * dimension + x];
+                }
+            }
+
+            versiones[2 * giro] = actual;
+            versiones[2 * giro + 1] = reflejado;
+            actual = girado;
+        }
+
+        return versiones;
+
+    }
+
+    private static boolean esVersionDe(int[] tablero, int[][] versiones) {
+
+        for (int[] version : versiones)
+            if (Arrays.equals(tablero, version))
+                return true;
+
+        return false;
+
+    }
+
+    /**
+     * Compara la probabilidad de ganar del resolvedor, con la tabla en memoria directa y en archivos mapeados, con la
+     * del recorrido exhaustivo.
+     */
+    private static void probarResolver(int dimension, int numeroMaximo, int consecutivosNecesarios, Path directorio)
+            throws Exception {
+
+        String caso = dimension + "x" + dimension + " con máximo " + numeroMaximo + " y " + consecutivosNecesarios + " consecutivos";
+        String[] opciones = { "--dimension", String.valueOf(dimension), "--maximo", String.valueOf(numeroMaximo),
+            "--consecutivos", String.valueOf(consecutivosNecesarios), "--directorio", directorio.toString() };
+
+        double esperada = new Exhaustivo(dimension, numeroMaximo, consecutivosNecesarios).valor(new ArrayList<int[]>(), 2);
+        double directa = new Resolvedor(opciones).resolver();
+
+        String[] opcionesMapeadas = Arrays.copyOf(opciones, opciones.length + 2);
+        opcionesMapeadas[opciones.length] = "--memoria";
+        opcionesMapeadas[opciones.length + 1] = "0";
+
+        double mapeada = new Resolvedor(opcionesMapeadas).resolver();
+
+        verificar(Math.abs(directa - esperada) < 1e-12, caso, "la probabilidad es " + directa + " y no " + esperada);
+        verificar(Math.abs(mapeada - esperada) < 1e-12, caso, "con archivos mapeados, la probabilidad es " + mapeada + " y no " + esperada);
+        verificar(contarArchivos(directorio) == 0, caso, "quedaron archivos mapeados en el directorio");
+
+    }
+
+    /**
+     * Llena una tabla sin presupuesto de memoria directa, para que todos sus segmentos crezcan en archivos mapeados.
+     */
+    private static void probarTablaMapeada(SplittableRandom aleatorio, Path directorio) throws IOException {
+
+        String caso = "tabla mapeada";
+        TablaEstados tabla = new TablaEstados(0, directorio);
+        int cantidad = 200_000;
+        long[] altos = new long[cantidad];
+        long[] bajos = new long[cantidad];
+
+        for (int i = 0; i < cantidad; i++) {
+
+            altos[i] = aleatorio.nextLong();
+            bajos[i] = i + 1;
+
+            tabla.guardar(altos[i], bajos[i], i);
+
+            // Los archivos se borran al mapearlos, así que nunca se acumulan
+            if (i % 10_000 == 0)
+                verificar(contarArchivos(directorio) == 0, caso, "quedaron archivos mapeados tras " + i + " estados");
+        }
+
+        verificar(tabla.getTamano() == cantidad, caso, "el tamaño es " + tabla.getTamano());
+        verificar(tabla.getBytesDirectos() == 0, caso, "se reservó memoria directa sin presupuesto");
+
+        for (int i = 0; i < cantidad; i++)
+            verificar(tabla.buscar(altos[i], bajos[i]) == i, caso, "el estado " + i + " perdió su valor");
+
+        verificar(Double.isNaN(tabla.buscar(1, cantidad + 1)), caso, "se encontró un estado que no se guardó");
+        verificar(contarArchivos(directorio) == 0, caso, "quedaron archivos mapeados");
+
+    }
+
+    private static long contarArchivos(Path directorio) throws IOException {
+
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.count();
+        }
+
+    }
+
+    private static void verificar(boolean condicion, String caso, String mensaje) {
+
+        if (!condicion)
+            throw new AssertionError(caso + ": " + mensaje);
+
+    }
+
+    /**
+     * Recorrido exhaustivo que juega cada colocación en un {@link Tablero}, reconstruido repitiendo los turnos desde el
+     * tablero vacío, y guarda el valor de cada estado sin reducirlo por simetrías.
+     */
+    private static class Exhaustivo {
+
+        private final int dimension;
+        private final int numeroMaximo;
+        private final int consecutivosNecesarios;
+        private final Map<String, Double> valores = new HashMap<String, Double>();
+
+        /**
+         * Tablero en el que se repiten los turnos, que se reinicia en vez de crear uno nuevo cada vez. Las reglas son
+         * las mismas con cualquier almacenamiento, y el empaquetado lee las casillas más rápido que las colas.
+         */
+        private final Tablero tablero;
+
+        private Exhaustivo(int dimension, int numeroMaximo, int consecutivosNecesarios) {
+            this.dimension = dimension;
+            this.numeroMaximo = numeroMaximo;
+            this.consecutivosNecesarios = consecutivosNecesarios;
+            tablero = new Tablero(dimension, numeroMaximo, consecutivosNecesarios, Almacenamiento.EMPAQUETADO);
+        }
+
+        /**
+         * Probabilidad de ganar al inicio de un turno, tras jugar los turnos dados.
+         *
+         * @param turnos Cada turno es {primer número, su casilla, segundo número, su casilla}.
+         * @param grupo Número más grande del grupo.
+         */
+        private double valor(List<int[]> turnos, int grupo) {
+
+            jugar(turnos);
+
+            String llave = llave(grupo);
+            Double guardado = valores.get(llave);
+
+            if (guardado != null)
+                return guardado;
+
+            int[] casillas = new int[dimension * dimension];
+
+            for (int casilla = 0; casilla < casillas.length; casilla++)
+                casillas[casilla] = tablero.obtenerValor(x(casilla), y(casilla));
+
+            double suma = 0;
+
+            for (int a = 1; a <= grupo; a++) {
+                for (int b = 1; b <= grupo; b++) {
+                    if (a != b)
+                        suma += mejorColocacion(casillas, turnos, grupo, a, b);
+                }
+            }
+
+            double valor = suma / (grupo * (grupo - 1));
+            valores.put(llave, valor);
+
+            return valor;
+
+        }
+
+        /**
+         * @param casillas Valores de las casillas al inicio del turno.
+         */
+        private double mejorColocacion(int[] casillas, List<int[]> turnos, int grupo, int a, int b) {
+
+            double mejor = 0;
+
+            for (int primera = 0; primera < casillas.length; primera++) {
+                for (int segunda = 0; segunda < casillas.length; segunda++) {
+
+                    if (segunda == primera || casillas[primera] != 0 || casillas[segunda] != 0)
+                        continue;
+
+                    List<int[]> siguientes = new ArrayList<int[]>(turnos);
+                    siguientes.add(new int[] { a, primera, b, segunda });
+
+                    jugar(siguientes);
+
+                    double valor;
+
+                    if (tablero.getEstado() == Estado.GANADO)
+                        valor = 1;
+                    else if (tablero.getEstado() == Estado.PERDIDO)
+                        valor = 0;
+                    else
+                        valor = valor(siguientes, Math.max(grupo, mayorValor()));
+
+                    mejor = Math.max(mejor, valor);
+
+                    if (mejor == 1)
+                        return 1;
+                }
+            }
+
+            return mejor;
+
+        }
+
+        /**
+         * Juega los turnos desde un tablero vacío, con las mismas llamadas que una partida.
+         */
+        private void jugar(List<int[]> turnos) {
+
+            tablero.reiniciar(dimension, numeroMaximo, consecutivosNecesarios);
+
+            for (int[] turno : turnos) {
+
+                tablero.insertarNumero(x(turno[1]), y(turno[1]), turno[0]);
+
+                // Si el primer número llena el tablero, se pierde sin colocar el segundo
+                if (tablero.getEstado() != Estado.JUGANDO)
+                    return;
+
+                tablero.insertarNumero(x(turno[3]), y(turno[3]), turno[2]);
+                tablero.revisarConsecutivos(x(turno[1]), y(turno[1]));
+                tablero.revisarConsecutivos(x(turno[3]), y(turno[3]));
+            }
+
+        }
+
+        /**
+         * Mayor valor en el tablero. Tras un turno, el mayor valor que dejaron sus mezclas sigue en el tablero: la
+         * segunda mezcla sólo puede vaciar el resultado de la primera si forma uno más grande.
+         */
+        private int mayorValor() {
+
+            int mayor = 0;
+
+            for (int casilla = 0; casilla < dimension * dimension; casilla++)
+                mayor = Math.max(mayor, tablero.obtenerValor(x(casilla), y(casilla)));
+
+            return mayor;
+
+        }
+
+        private String llave(int grupo) {
+
+            StringBuilder llave = new StringBuilder();
+
+            for (int casilla = 0; casilla < dimension * dimension; casilla++)
+                llave.append(tablero.obtenerValor(x(casilla), y(casilla))).append(',');
+
+            return llave.append(grupo).toString();
+
+        }
+
+        private int x(int casilla) {
+            return casilla % dimension + 1;
+        }
+
+        private int y(int casilla) {
+            return casilla / dimension + 1;
+        }
+
+    }
+
+}
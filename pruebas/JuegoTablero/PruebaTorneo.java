@@ -0,0 +1,355 @@
+package JuegoTablero;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+import JuegoTablero.Tablero.Almacenamiento;
+
+/**
+ * Prueba de {@link Torneo} y de las estrategias de {@link Estrategias}.
+ *
+ * <p>
+ * Un mismo rango de semillas debe producir las mismas líneas CSV por semilla con un hilo que con varios, aunque
+ * lleguen en otro orden, incluida una estrategia cuyo nombre tiene comas y comillas. Cada estrategia incluida se
+ * revisa por separado en tableros llenados al azar: <code>primera-libre</code> elige la primera casilla vacía por
+ * filas, <code>aleatoria</code> elige todas las casillas vacías con frecuencias parecidas, y
+ * <code>agrupadora</code> elige la primera casilla vacía con más vecinos consecutivos iguales al número.
+ * </p>
+ *
+ * <p>
+ * Uso: <code>PruebaTorneo [semilla]</code>. Lanza {@link AssertionError} si alguna comprobación falla.
+ * </p>
+ */
+public class PruebaTorneo {
+
+    private static final String NOMBRE_CON_COMAS = "lista, \"con comillas\"";
+
+    private static final int TABLEROS = 200;
+
+    public static void main(String[] args) throws IOException {
+
+        long semilla = args.length > 0 ? Long.parseLong(args[0]) : 1;
+
+        probarHilos();
+        probarPrimeraLibre(new SplittableRandom(semilla));
+        probarAleatoria(new SplittableRandom(semilla));
+        probarAgrupadora(new SplittableRandom(semilla));
+
+        System.out.println("PruebaTorneo: OK");
+
+    }
+
+    private static void probarHilos() throws IOException {
+
+        List<String> unHilo = jugarTorneo(1);
+        List<String> variosHilos = jugarTorneo(4);
+
+        // Cuatro estrategias por semilla, más el encabezado
+        verificar(unHilo.size() == 4 * 60 + 1, "hilos", "se escribieron " + unHilo.size() + " líneas");
+        verificar(unHilo.get(0).equals("estrategia,semilla,resultado,turnos,valor_maximo"), "hilos", "el encabezado cambió");
+
+        Set<String> partidas = new HashSet<String>();
+
+        for (String linea : unHilo.subList(1, unHilo.size())) {
+
+            List<String> campos = leerCampos(linea);
+
+            verificar(campos.size() == 5, "hilos", "la línea " + linea + " no tiene cinco campos");
+            verificar(partidas.add(campos.get(0) + "," + campos.get(1)), "hilos", "la partida de " + linea + " se repitió");
+
+            if (linea.startsWith("\""))
+                verificar(campos.get(0).equals(NOMBRE_CON_COMAS), "hilos", "el nombre " + campos.get(0) + " no se leyó igual");
+        }
+
+        verificar(partidas.contains(NOMBRE_CON_COMAS + ",1059"), "hilos", "no se escribió la estrategia con comas");
+
+        Collections.sort(unHilo);
+        Collections.sort(variosHilos);
+
+        verificar(unHilo.equals(variosHilos), "hilos", "con 1 y 4 hilos se obtuvieron líneas distintas");
+
+    }
+
+    /**
+     * Juega 60 semillas desde 1000 con las estrategias incluidas y una más cuyo nombre tiene comas y comillas.
+     *
+     * @return Líneas del CSV.
+     */
+    private static List<String> jugarTorneo(int hilos) throws IOException {
+
+        Path salida = Files.createTempFile("torneo", ".csv");
+        PrintStream salidaEstandar = System.out;
+
+        try {
+
+            Torneo torneo = new Torneo(new String[] {
+                "--semillas", "60",
+                "--semilla-inicial", "1000",
+                "--hilos", Integer.toString(hilos),
+                "--salida", salida.toString()
+            });
+
+            torneo.agregarEstrategia(new EstrategiaColocacion() {
+
+                @Override
+                public String getNombre() {
+                    return NOMBRE_CON_COMAS;
+                }
+
+                @Override
+                public void elegirCasilla(Tablero tablero, int numero, RandomGenerator aleatorio, int[] casilla) {
+                    Estrategias.porNombre("agrupadora").elegirCasilla(tablero, numero, aleatorio, casilla);
+                }
+            });
+
+            // El resumen se imprime en la salida estándar cuando el CSV va a un archivo
+            System.setOut(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8.name()));
+            torneo.ejecutar();
+
+            return new ArrayList<String>(Files.readAllLines(salida, StandardCharsets.UTF_8));
+
+        } finally {
+            System.setOut(salidaEstandar);
+            Files.deleteIfExists(salida);
+        }
+
+    }
+
+    /**
+     * Separa una línea CSV en campos, quitando las comillas de los campos que las tengan.
+     */
+    private static List<String> leerCampos(String linea) {
+
+        List<String> campos = new ArrayList<String>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+
+            char caracter = linea.charAt(i);
+
+            if (entreComillas) {
+
+                if (caracter != '"') {
+                    campo.append(caracter);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+
+            } else if (caracter == '"') {
+                entreComillas = true;
+            } else if (caracter == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(caracter);
+            }
+        }
+
+        campos.add(campo.toString());
+
+        return campos;
+
+    }
+
+    private static void probarPrimeraLibre(SplittableRandom aleatorio) {
+
+        EstrategiaColocacion estrategia = Estrategias.porNombre("primera-libre");
+        int[] casilla = new int[2];
+
+        verificar(estrategia.getNombre().equals("primera-libre"), "primera-libre", "getNombre");
+
+        for (int i = 0; i < TABLEROS; i++) {
+
+            Tablero tablero = llenar(aleatorio, 2 + aleatorio.nextInt(7));
+            int[] esperada = primeraVacia(tablero);
+
+            estrategia.elegirCasilla(tablero, 1 + aleatorio.nextInt(2), aleatorio, casilla);
+
+            verificar(casilla[0] == esperada[0] && casilla[1] == esperada[1], "primera-libre",
+                "eligió (" + casilla[0] + ", " + casilla[1] + ") en lugar de (" + esperada[0] + ", " + esperada[1] + ")");
+        }
+
+    }
+
+    /**
+     * Cada casilla vacía de un tablero fijo debe elegirse con una frecuencia cercana a la de las demás.
+     */
+    private static void probarAleatoria(SplittableRandom aleatorio) {
+
+        EstrategiaColocacion estrategia = Estrategias.porNombre("aleatoria");
+        int[] casilla = new int[2];
+
+        verificar(estrategia.getNombre().equals("aleatoria"), "aleatoria", "getNombre");
+
+        for (int i = 0; i < TABLEROS; i++) {
+
+            Tablero tablero = llenar(aleatorio, 2 + aleatorio.nextInt(7));
+
+            estrategia.elegirCasilla(tablero, 1, aleatorio, casilla);
+
+            verificar(tablero.obtenerValor(casilla[0], casilla[1]) == 0, "aleatoria", "eligió una casilla ocupada");
+        }
+
+        Tablero tablero = llenar(aleatorio, 5);
+        int dimension = tablero.getDimension();
+        int[] veces = new int[dimension * dimension];
+        int vacias = 0;
+        int elecciones = 200_000;
+
+        for (int y = 1; y <= dimension; y++)
+            for (int x = 1; x <= dimension; x++)
+                if (tablero.obtenerValor(x, y) == 0)
+                    vacias++;
+
+        for (int i = 0; i < elecciones; i++) {
+            estrategia.elegirCasilla(tablero, 2, aleatorio, casilla);
+            veces[(casilla[1] - 1) * dimension + casilla[0] - 1]++;
+        }
+
+        double esperadas = (double) elecciones / vacias;
+
+        for (int y = 1; y <= dimension; y++) {
+            for (int x = 1; x <= dimension; x++) {
+
+                int obtenidas = veces[(y - 1) * dimension + x - 1];
+
+                if (tablero.obtenerValor(x, y) != 0) {
+                    verificar(obtenidas == 0, "aleatoria", "eligió la casilla ocupada (" + x + ", " + y + ")");
+                } else {
+                    // Más de seis desviaciones estándar de diferencia indicaría que la elección no es uniforme
+                    verificar(Math.abs(obtenidas - esperadas) < 6 * Math.sqrt(esperadas), "aleatoria",
+                        "eligió (" + x + ", " + y + ") " + obtenidas + " veces en lugar de unas " + Math.round(esperadas));
+                }
+            }
+        }
+
+    }
+
+    private static void probarAgrupadora(SplittableRandom aleatorio) {
+
+        EstrategiaColocacion estrategia = Estrategias.porNombre("agrupadora");
+        int[] casilla = new int[2];
+
+        verificar(estrategia.getNombre().equals("agrupadora"), "agrupadora", "getNombre");
+
+        // Los 2 en (2, 3) y (3, 3) y en (5, 1) y (5, 2) dan 2 vecinos a (1, 3), (4, 3) y (5, 3); el 2 en (1, 2) le da
+        // un tercero a (1, 3)
+        Tablero tablero = new Tablero(5, 5, 5, Almacenamiento.EMPAQUETADO, 0);
+
+        for (int[] ocupada : new int[][] { { 2, 3 }, { 3, 3 }, { 5, 1 }, { 5, 2 }, { 1, 2 } })
+            tablero.insertarNumero(ocupada[0], ocupada[1], 2);
+
+        estrategia.elegirCasilla(tablero, 2, aleatorio, casilla);
+        verificar(casilla[0] == 1 && casilla[1] == 3, "agrupadora", "con el 2 eligió (" + casilla[0] + ", " + casilla[1] + ")");
+
+        // Sin vecinos iguales, todas empatan y gana la primera por filas
+        estrategia.elegirCasilla(tablero, 1, aleatorio, casilla);
+        verificar(casilla[0] == 1 && casilla[1] == 1, "agrupadora", "con el 1 eligió (" + casilla[0] + ", " + casilla[1] + ")");
+
+        for (int i = 0; i < TABLEROS; i++) {
+
+            tablero = llenar(aleatorio, 2 + aleatorio.nextInt(7));
+            int numero = 1 + aleatorio.nextInt(2);
+            int[] esperada = mejorAgrupada(tablero, numero);
+
+            estrategia.elegirCasilla(tablero, numero, aleatorio, casilla);
+
+            verificar(casilla[0] == esperada[0] && casilla[1] == esperada[1], "agrupadora",
+                "eligió (" + casilla[0] + ", " + casilla[1] + ") en lugar de (" + esperada[0] + ", " + esperada[1] + ")");
+        }
+
+    }
+
+    /**
+     * Crea un tablero con 1 y 2 colocados al azar, sin mezclarlos, dejando al menos una casilla vacía.
+     */
+    private static Tablero llenar(SplittableRandom aleatorio, int dimension) {
+
+        Tablero tablero = new Tablero(dimension, 7, 2, Almacenamiento.EMPAQUETADO, 0);
+        int casillas = dimension * dimension;
+        int ocupadas = aleatorio.nextInt(casillas);
+
+        for (int i = 0; i < ocupadas; i++)
+            tablero.insertarNumero(1 + aleatorio.nextInt(dimension), 1 + aleatorio.nextInt(dimension), 1 + aleatorio.nextInt(2));
+
+        return tablero;
+
+    }
+
+    private static int[] primeraVacia(Tablero tablero) {
+
+        for (int y = 1; y <= tablero.getDimension(); y++)
+            for (int x = 1; x <= tablero.getDimension(); x++)
+                if (tablero.obtenerValor(x, y) == 0)
+                    return new int[] { x, y };
+
+        throw new AssertionError("El tablero no tiene casillas vacías");
+
+    }
+
+    /**
+     * Primera casilla vacía por filas con más vecinos consecutivos iguales al número en las cuatro direcciones.
+     */
+    private static int[] mejorAgrupada(Tablero tablero, int numero) {
+
+        int dimension = tablero.getDimension();
+        int[] mejor = null;
+        int mejorVecinos = -1;
+        int[][] direcciones = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+
+        for (int y = 1; y <= dimension; y++) {
+            for (int x = 1; x <= dimension; x++) {
+
+                if (tablero.obtenerValor(x, y) != 0)
+                    continue;
+
+                int vecinos = 0;
+
+                for (int[] direccion : direcciones) {
+                    for (int distancia = 1; ; distancia++) {
+
+                        int vecinoX = x + distancia * direccion[0];
+                        int vecinoY = y + distancia * direccion[1];
+
+                        if (vecinoX < 1 || vecinoX > dimension || vecinoY < 1 || vecinoY > dimension
+                                || tablero.obtenerValor(vecinoX, vecinoY) != numero)
+                            break;
+
+                        vecinos++;
+                    }
+                }
+
+                if (vecinos > mejorVecinos) {
+                    mejorVecinos = vecinos;
+                    mejor = new int[] { x, y };
+                }
+            }
+        }
+
+        return mejor;
+
+    }
+
+    private static void verificar(boolean condicion, String caso, String mensaje) {
+
+        if (!condicion)
+            throw new AssertionError(caso + ": " + mensaje);
+
+    }
+
+}
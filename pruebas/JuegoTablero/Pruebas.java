@@ -0,0 +1,40 @@
+package JuegoTablero;
+
+import ArbolBinario.PruebaABEnterosPositivos;
+import ArbolBinario.PruebaConjuntoAdaptativo;
+
+/**
+ * Ejecuta todas las pruebas de la carpeta <code>pruebas</code>. Cada prueba es un programa que lanza
+ * {@link AssertionError} si alguna comprobación falla, por lo que la ejecución se detiene en la primera falla.
+ *
+ * <p>
+ * Uso: compilar las carpetas <code>JuegoTablero</code>, <code>ArbolBinario</code> y <code>pruebas</code> juntas, y
+ * ejecutar <code>java -cp salida JuegoTablero.Pruebas</code>.
+ * </p>
+ */
+public class Pruebas {
+
+    public static void main(String[] args) throws Exception {
+
+        String[] sinArgumentos = new String[0];
+
+        PruebaLectorCoordenadas.main(sinArgumentos);
+        PruebaAnalizadorBitacoras.main(sinArgumentos);
+        PruebaCasillasEmpaquetadas.main(sinArgumentos);
+        PruebaCasillasPorBloques.main(sinArgumentos);
+        PruebaGeneradorPares.main(sinArgumentos);
+        PruebaPublicadorEventos.main(sinArgumentos);
+        PruebaPoolTableros.main(sinArgumentos);
+        PruebaRenderizador.main(sinArgumentos);
+        PruebaTorneo.main(sinArgumentos);
+        PruebaGeneradorCarga.main(sinArgumentos);
+        PruebaIndiceMezclas.main(sinArgumentos);
+        PruebaResolvedor.main(sinArgumentos);
+        PruebaABEnterosPositivos.main(sinArgumentos);
+        PruebaConjuntoAdaptativo.main(sinArgumentos);
+
+        System.out.println("Todas las pruebas pasaron");
+
+    }
+
+}